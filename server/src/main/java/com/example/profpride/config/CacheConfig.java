@@ -0,0 +1,42 @@
+package com.example.profpride.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.metrics.cache.CacheMetricsRegistrar;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+
+/**
+ * Read-through caches for rarely changing reference data. The backend is chosen by
+ * spring.cache.type: caffeine (per instance, default) or redis (shared between instances; needs
+ * the redis Maven profile).
+ * Size and TTL come from application.properties; services evict explicitly on every write.
+ */
+@Configuration
+@EnableCaching
+@Lazy(false) // binds cache metrics at startup; must exist even with spring.main.lazy-initialization
+public class CacheConfig {
+
+    public static final String ROOMS = "rooms";
+    public static final String ROOM = "room";
+    public static final String ROOM_CONFIGURATIONS = "roomConfigurations";
+    public static final String ROOM_CONFIGURATION = "roomConfiguration";
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private CacheMetricsRegistrar cacheMetricsRegistrar;
+
+    // Boot only binds caches when its metrics configuration is created eagerly; bind them here so
+    // cache.gets{result=hit|miss} is published under lazy initialization too (re-binding is a no-op)
+    @EventListener(ApplicationReadyEvent.class)
+    public void bindCacheMetrics() {
+        for (String name : cacheManager.getCacheNames()) {
+            cacheMetricsRegistrar.bindCacheToRegistry(cacheManager.getCache(name));
+        }
+    }
+}
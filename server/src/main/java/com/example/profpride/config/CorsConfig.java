@@ -22,7 +22,7 @@ public class CorsConfig implements WebMvcConfigurer {
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "PATCH", "OPTIONS")
                 .allowedHeaders("*")
                 .allowCredentials(true)
-                .exposedHeaders("Content-Disposition");
+                .exposedHeaders("Content-Disposition", "X-Next-Cursor");
     }
 
     @Bean
@@ -32,7 +32,7 @@ public class CorsConfig implements WebMvcConfigurer {
         config.setAllowCredentials(true);
         config.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "PATCH", "OPTIONS"));
         config.setAllowedHeaders(Arrays.asList("*"));
-        config.setExposedHeaders(Arrays.asList("Content-Disposition"));
+        config.setExposedHeaders(Arrays.asList("Content-Disposition", "X-Next-Cursor"));
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", config);
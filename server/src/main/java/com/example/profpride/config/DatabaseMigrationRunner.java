@@ -0,0 +1,99 @@
+package com.example.profpride.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Applies classpath:db/migration/V*__*.sql once each, in version order.
+ * Tables themselves are still created by ddl-auto=update, so this runs after the
+ * EntityManagerFactory is up and only carries what Hibernate can't express
+ * (partial indexes, constraints, sequences). It runs once all singletons exist, which is
+ * before the web server starts, so no request is served against an unmigrated schema.
+ *
+ * A failing script stops startup and is left unrecorded, so the next start retries it; its own
+ * error (e.g. V2's pointer to db/checks/booking_overlaps.sql) is carried in the startup failure.
+ */
+@Component
+@Lazy(false) // must run at startup even with spring.main.lazy-initialization
+public class DatabaseMigrationRunner implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(DatabaseMigrationRunner.class);
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Injected only to force schema creation before migrations run (lazy-initialization is on)
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            migrate();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list migration scripts", e);
+        }
+    }
+
+    private void migrate() throws IOException {
+        Resource[] scripts = new PathMatchingResourcePatternResolver().getResources("classpath:db/migration/V*__*.sql");
+        Arrays.sort(scripts, Comparator.comparingInt(DatabaseMigrationRunner::versionOf));
+
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.execute(
+            "CREATE TABLE IF NOT EXISTS schema_migration (" +
+            "version INTEGER PRIMARY KEY, script VARCHAR(255) NOT NULL, applied_at TIMESTAMP NOT NULL DEFAULT now())"));
+        Set<Integer> applied = new HashSet<>(transactionTemplate.execute(status ->
+            jdbcTemplate.queryForList("SELECT version FROM schema_migration", Integer.class)));
+
+        for (Resource script : scripts) {
+            int version = versionOf(script);
+            if (applied.contains(version)) {
+                continue;
+            }
+            log.info("Applying migration {}", script.getFilename());
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    ResourceDatabasePopulator populator = new ResourceDatabasePopulator(script);
+                    // Sent whole: the driver splits statements itself and, unlike ScriptUtils, knows $$-quoted DO blocks
+                    populator.setSeparator(ScriptUtils.EOF_STATEMENT_SEPARATOR);
+                    populator.execute(dataSource);
+                    jdbcTemplate.update("INSERT INTO schema_migration (version, script) VALUES (?, ?)", version, script.getFilename());
+                });
+            } catch (RuntimeException e) {
+                throw new IllegalStateException("Migration " + script.getFilename() + " failed: "
+                    + NestedExceptionUtils.getMostSpecificCause(e).getMessage(), e);
+            }
+        }
+    }
+
+    private static int versionOf(Resource script) {
+        String name = script.getFilename();
+        return Integer.parseInt(name.substring(1, name.indexOf("__")));
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.profpride.config;
+
+import com.example.profpride.services.NdjsonExporter;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Gives a streaming export its own async timeout. Spring starts a StreamingResponseBody with the
+ * global default; this interceptor runs just before the async request starts and, when the handler
+ * left NdjsonExporter.TIMEOUT_ATTRIBUTE on the request, applies that timeout to this request only.
+ * When the async request ends (completed, timed out or failed) it runs NdjsonExporter.ABANDON_ATTRIBUTE,
+ * so an export whose body never ran still returns its permit.
+ */
+@Configuration
+public class ExportTimeoutConfig implements WebMvcConfigurer {
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new CallableProcessingInterceptor() {
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                Object timeout = request.getAttribute(NdjsonExporter.TIMEOUT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+                if (timeout instanceof Long millis && request instanceof AsyncWebRequest asyncRequest) {
+                    asyncRequest.setTimeout(millis);
+                }
+            }
+
+            @Override
+            public <T> void afterCompletion(NativeWebRequest request, Callable<T> task) {
+                if (request.getAttribute(NdjsonExporter.ABANDON_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof Runnable abandon) {
+                    abandon.run();
+                }
+            }
+        });
+    }
+}
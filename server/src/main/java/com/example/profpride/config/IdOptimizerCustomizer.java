@@ -0,0 +1,58 @@
+package com.example.profpride.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Keeps entity ids at one nextval per row until migration V6 is recorded. Pooled-lo assumes a
+ * nextval returning v reserves v .. v + 49, which only holds once V6 has set every id sequence to
+ * INCREMENT BY 50; before that, two instances would hand out overlapping ids. Hibernate can't see
+ * the increment itself (use_jdbc_metadata_defaults=false), and DatabaseMigrationRunner only runs
+ * after the EntityManagerFactory exists, so this checks schema_migration while the factory is built
+ * and otherwise switches the optimizer to none, which draws one id per nextval whatever the increment.
+ * The start after V6 is applied uses pooled-lo.
+ */
+@Component
+public class IdOptimizerCustomizer implements HibernatePropertiesCustomizer {
+
+    private static final Logger log = LoggerFactory.getLogger(IdOptimizerCustomizer.class);
+
+    // V6__entity_id_sequences.sql
+    static final int ID_SEQUENCE_MIGRATION = 6;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        if (!idSequencesMigrated()) {
+            log.info("Migration V{} not applied yet; entity ids are drawn one per nextval until the next start",
+                ID_SEQUENCE_MIGRATION);
+            hibernateProperties.put(AvailableSettings.PREFERRED_POOLED_OPTIMIZER, "none");
+        }
+    }
+
+    // Any doubt (fresh database, no schema_migration yet, database unreachable) counts as not migrated
+    boolean idSequencesMigrated() {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT 1 FROM schema_migration WHERE version = ?")) {
+            statement.setInt(1, ID_SEQUENCE_MIGRATION);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next();
+            }
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.profpride.config;
+
+import org.hibernate.boot.model.naming.Identifier;
+import org.hibernate.boot.model.relational.QualifiedName;
+import org.hibernate.boot.model.relational.QualifiedSequenceName;
+import org.hibernate.engine.jdbc.env.spi.JdbcEnvironment;
+import org.hibernate.id.PersistentIdentifierGenerator;
+import org.hibernate.id.enhanced.ImplicitDatabaseObjectNamingStrategy;
+import org.hibernate.id.enhanced.StandardNamingStrategy;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.ServiceRegistry;
+
+import java.util.Map;
+
+/**
+ * Names each entity's id sequence {table}_id_seq, the name Postgres gave the sequence behind the
+ * old IDENTITY columns, so existing tables keep drawing ids from the sequence they already have
+ * (see migration V6). Registered as hibernate.id.db_structure_naming_strategy.
+ */
+public class IdSequenceNamingStrategy implements ImplicitDatabaseObjectNamingStrategy {
+
+    private final StandardNamingStrategy standard = new StandardNamingStrategy();
+
+    @Override
+    public QualifiedName determineSequenceName(Identifier catalogName, Identifier schemaName,
+                                               Map<?, ?> configValues, ServiceRegistry serviceRegistry) {
+        String table = ConfigurationHelper.getString(PersistentIdentifierGenerator.TABLE, configValues);
+        if (table == null) {
+            return standard.determineSequenceName(catalogName, schemaName, configValues, serviceRegistry);
+        }
+        JdbcEnvironment jdbcEnvironment = serviceRegistry.getService(JdbcEnvironment.class);
+        return new QualifiedSequenceName(catalogName, schemaName,
+            jdbcEnvironment.getIdentifierHelper().toIdentifier(table + "_id_seq"));
+    }
+
+    @Override
+    public QualifiedName determineTableName(Identifier catalogName, Identifier schemaName,
+                                            Map<?, ?> configValues, ServiceRegistry serviceRegistry) {
+        return standard.determineTableName(catalogName, schemaName, configValues, serviceRegistry);
+    }
+}
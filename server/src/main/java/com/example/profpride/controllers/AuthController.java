@@ -1,11 +1,18 @@
 package com.example.profpride.controllers;
 
+import com.example.profpride.services.PasswordService;
 import com.example.profpride.utils.JwtUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -14,9 +21,17 @@ import java.util.Map;
 @RequestMapping("/api/v1/auth")
 public class AuthController {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthController.class);
+
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    private PasswordService passwordService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     @Autowired
     private JwtUtils jwtUtils;
 
@@ -37,41 +52,51 @@ public class AuthController {
             // Query the users table to validate credentials
             String sql = "SELECT userid, password, role, name FROM users WHERE userid = ?";
             
+            Map<String, Object> user;
             try {
-                Map<String, Object> user = jdbcTemplate.queryForMap(sql, userId);
-                
-                // Check if password matches
-                if (password.equals(user.get("password"))) {
-                    // Generate JWT token
-                    String token = jwtUtils.generateToken(
-                        user.get("userid").toString(),
-                        user.get("role").toString(),
-                        user.get("name").toString()
-                    );
-                    
-                    response.put("success", true);
-                    response.put("message", "Login successful");
-                    response.put("token", token);
-                    response.put("user", Map.of(
-                        "userId", user.get("userid"),
-                        "name", user.get("name"),
-                        "role", user.get("role")
-                    ));
-                    
-                    return ResponseEntity.ok(response);
-                } else {
-                    response.put("success", false);
-                    response.put("message", "Invalid credentials");
-                    return ResponseEntity.badRequest().body(response);
-                }
-                
-            } catch (Exception e) {
+                user = jdbcTemplate.queryForMap(sql, userId);
+            } catch (EmptyResultDataAccessException e) {
                 // User not found
                 response.put("success", false);
                 response.put("message", "Invalid credentials");
                 return ResponseEntity.badRequest().body(response);
             }
-            
+
+            // Check if password matches
+            Object storedPassword = user.get("password");
+            PasswordService.PasswordCheck check = passwordService.verify(password, storedPassword != null ? storedPassword.toString() : null);
+            if (!check.matches()) {
+                response.put("success", false);
+                response.put("message", "Invalid credentials");
+                return ResponseEntity.badRequest().body(response);
+            }
+            if (check.needsRehash()) {
+                upgradePassword(user.get("userid").toString(), check.upgradedHash());
+            }
+
+            // Generate JWT token
+            String token = jwtUtils.generateToken(
+                user.get("userid").toString(),
+                user.get("role").toString(),
+                user.get("name").toString()
+            );
+
+            response.put("success", true);
+            response.put("message", "Login successful");
+            response.put("token", token);
+            response.put("user", Map.of(
+                "userId", user.get("userid"),
+                "name", user.get("name"),
+                "role", user.get("role")
+            ));
+
+            return ResponseEntity.ok(response);
+
+        } catch (ResponseStatusException e) {
+            // Password verification pool saturated
+            response.put("success", false);
+            response.put("message", e.getReason());
+            return ResponseEntity.status(e.getStatusCode()).body(response);
         } catch (Exception e) {
             response.put("success", false);
             response.put("message", "Login failed: " + e.getMessage());
@@ -79,6 +104,17 @@ public class AuthController {
         }
     }
 
+    // users is managed outside JPA; a failed upgrade leaves the legacy value and is retried next login
+    private void upgradePassword(String userId, String hash) {
+        try {
+            // Connections are not auto-commit, so the update needs its own transaction
+            transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.update("UPDATE users SET password = ? WHERE userid = ?", hash, userId));
+        } catch (DataAccessException e) {
+            log.warn("Could not upgrade stored password for user {}: {}", userId, e.getMessage());
+        }
+    }
+
     @PostMapping("/logout")
     public ResponseEntity<Map<String, Object>> logout(@RequestHeader("Authorization") String authHeader) {
         Map<String, Object> response = new HashMap<>();
@@ -1,48 +1,119 @@
 package com.example.profpride.controllers;
 
+import com.example.profpride.dto.BookingGrid;
 import com.example.profpride.models.Booking;
-import com.example.profpride.models.Customer;
 import com.example.profpride.models.Room;
 import com.example.profpride.models.Payment;
 import com.example.profpride.repositories.BookingRepository;
-import com.example.profpride.repositories.CustomerRepository;
-import com.example.profpride.repositories.RoomRepository;
 import com.example.profpride.repositories.PaymentRepository;
 import com.example.profpride.enums.BookingStatus;
 import com.example.profpride.enums.BookingDurationType;
 import com.example.profpride.enums.PaymentStatus;
+import com.example.profpride.services.BookingGridService;
+import com.example.profpride.services.RoomService;
+import com.example.profpride.services.BookingWriteCoordinator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import com.example.profpride.dto.KeysetPage;
+import com.example.profpride.dto.ListQuery;
+import com.example.profpride.repositories.ListSpecifications;
+import com.example.profpride.services.KeysetPager;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.format.annotation.DateTimeFormat;
+import com.example.profpride.services.NdjsonExporter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import com.example.profpride.services.CustomerDirectory;
 
 import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/v1/bookings")
 @CrossOrigin(origins = {"http://localhost:3000", "http://localhost:8081", "exp://192.168.1.12:8081"})
 public class BookingController {
 
+    private static final Set<String> SORTABLE = Set.of("checkInDate", "checkOutDate", "totalAmount");
+
     @Autowired
     private BookingRepository bookingRepository;
 
     @Autowired
-    private CustomerRepository customerRepository;
+    private CustomerDirectory customerDirectory;
 
     @Autowired
-    private RoomRepository roomRepository;
+    private RoomService roomService;
 
     @Autowired
     private PaymentRepository paymentRepository;
 
+    @Autowired
+    private BookingWriteCoordinator bookingWriteCoordinator;
+
+    @Autowired
+    private BookingGridService bookingGridService;
+
+    @Autowired
+    private KeysetPager keysetPager;
+
+    @Autowired
+    private NdjsonExporter ndjsonExporter;
+
     @GetMapping
-    public ResponseEntity<List<Booking>> getAllBookings() {
+    public ResponseEntity<?> getAllBookings(
+            @RequestParam(required = false) BookingStatus status,
+            @RequestParam(required = false) PaymentStatus paymentStatus,
+            @RequestParam(required = false) Long roomId,
+            @RequestParam(required = false) String customer,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            ListQuery query) {
         try {
-            List<Booking> bookings = bookingRepository.findAll();
-            return ResponseEntity.ok(bookings);
+            Specification<Booking> spec = Specification.<Booking>where(ListSpecifications.equalTo("bookingStatus", status))
+                .and(ListSpecifications.equalTo("paymentStatus", paymentStatus))
+                .and(ListSpecifications.equalTo("roomId", roomId))
+                .and(ListSpecifications.equalTo("customerPhoneNumber", customer))
+                .and(ListSpecifications.staysOverlapping("checkInDate", "checkOutDate", from, to));
+            KeysetPage<Booking> page = keysetPager.page(bookingRepository, spec, query, "id", Long::valueOf, SORTABLE);
+            return ResponseEntity.ok().headers(page.headers()).body(page.items());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    @GetMapping(value = "/export", produces = NdjsonExporter.NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportBookings() {
+        return ResponseEntity.ok()
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"bookings.ndjson\"")
+            .contentType(MediaType.parseMediaType(NdjsonExporter.NDJSON))
+            .body(ndjsonExporter.export(bookingRepository::streamAll));
+    }
+
+    @GetMapping("/grid")
+    public ResponseEntity<?> getBookingGrid(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+        try {
+            // Defaults match the web grid: yesterday through the next 30 days
+            LocalDate fromDate = from != null ? LocalDate.parse(from) : LocalDate.now().minusDays(1);
+            LocalDate toDate = to != null ? LocalDate.parse(to) : LocalDate.now().plusDays(30);
+            BookingGrid grid = bookingGridService.buildGrid(fromDate, toDate);
+            return ResponseEntity.ok(grid);
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
@@ -66,61 +137,57 @@ public class BookingController {
     public ResponseEntity<Booking> createBooking(@RequestBody Booking booking) {
         try {
             // Validate customer exists
-            Optional<Customer> customer = customerRepository.findById(booking.getCustomerPhoneNumber());
-            if (!customer.isPresent()) {
+            if (!customerDirectory.exists(booking.getCustomerPhoneNumber())) {
                 return ResponseEntity.badRequest().build();
             }
 
             // Validate room exists
-            Optional<Room> roomOpt = roomRepository.findById(booking.getRoomId());
+            Optional<Room> roomOpt = roomService.getRoomById(booking.getRoomId());
             if (!roomOpt.isPresent()) {
                 return ResponseEntity.badRequest().build();
             }
             
             Room room = roomOpt.get();
             
-            // Check room availability for the requested dates
-            List<Booking> existingBookings = bookingRepository.findByRoom(room);
-            boolean isRoomAvailable = existingBookings.stream()
-                .noneMatch(existingBooking -> {
-                    // Only check confirmed bookings
-                    if (existingBooking.getBookingStatus() == null || 
-                        !existingBooking.getBookingStatus().toString().equals("CONFIRMED")) {
-                        return false;
-                    }
-                    
-                    // Check for date overlap
-                    return (booking.getCheckInDate().isBefore(existingBooking.getCheckOutDate()) &&
-                           booking.getCheckOutDate().isAfter(existingBooking.getCheckInDate()));
-                });
+            // Availability check and insert run under the room's stripe so concurrent requests queue, not race
+            return bookingWriteCoordinator.withRoomLock(room.getId(), () -> {
+                // Check room availability for the requested dates
+                boolean isRoomAvailable = !bookingRepository.existsOverlappingBooking(
+                    room.getId(), booking.getCheckInDate(), booking.getCheckOutDate());
             
-            if (!isRoomAvailable) {
-                return ResponseEntity.status(HttpStatus.CONFLICT)
-                    .body(null); // Room is already booked for these dates
-            }
+                if (!isRoomAvailable) {
+                    return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(null); // Room is already booked for these dates
+                }
             
-            // Costs should be provided from frontend based on room configuration
-            // No need to set default costs from room as they are now managed by room configurations
+                // Costs should be provided from frontend based on room configuration
+                // No need to set default costs from room as they are now managed by room configurations
 
-            // Set default values
-            if (booking.getBookingStatus() == null) {
-                booking.setBookingStatus(BookingStatus.CONFIRMED);
-            }
-            if (booking.getPaymentStatus() == null) {
-                booking.setPaymentStatus(PaymentStatus.PENDING);
-            }
-            if (booking.getCreatedAt() == null) {
-                booking.setCreatedAt(LocalDateTime.now());
-            }
-            if (booking.getUpdatedAt() == null) {
-                booking.setUpdatedAt(LocalDateTime.now());
-            }
+                // Set default values
+                if (booking.getBookingStatus() == null) {
+                    booking.setBookingStatus(BookingStatus.CONFIRMED);
+                }
+                if (booking.getPaymentStatus() == null) {
+                    booking.setPaymentStatus(PaymentStatus.PENDING);
+                }
+                if (booking.getCreatedAt() == null) {
+                    booking.setCreatedAt(LocalDateTime.now());
+                }
+                if (booking.getUpdatedAt() == null) {
+                    booking.setUpdatedAt(LocalDateTime.now());
+                }
 
-            // Calculate total amount
-            calculateTotalAmount(booking);
+                // Calculate total amount
+                calculateTotalAmount(booking);
 
-            Booking savedBooking = bookingRepository.save(booking);
-            return ResponseEntity.status(HttpStatus.CREATED).body(savedBooking);
+                Booking savedBooking = bookingRepository.save(booking);
+                return ResponseEntity.status(HttpStatus.CREATED).body(savedBooking);
+            });
+        } catch (DataIntegrityViolationException e) {
+            if (isOverlapViolation(e)) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(null); // Lost the race to another booking for these dates
+            }
+            return ResponseEntity.internalServerError().build();
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
@@ -129,83 +196,79 @@ public class BookingController {
     @PutMapping("/{id}")
     public ResponseEntity<Booking> updateBooking(@PathVariable Long id, @RequestBody Booking updatedBooking) {
         try {
-            Optional<Booking> existingBooking = bookingRepository.findById(id);
-            if (!existingBooking.isPresent()) {
+            Optional<Long> roomId = bookingRepository.findRoomIdById(id);
+            if (!roomId.isPresent()) {
                 return ResponseEntity.notFound().build();
             }
 
-            Booking booking = existingBooking.get();
+            return bookingWriteCoordinator.withRoomLock(roomId.get(), () -> {
+                Optional<Booking> existingBooking = bookingRepository.findById(id);
+                if (!existingBooking.isPresent()) {
+                    return ResponseEntity.notFound().build();
+                }
+
+                Booking booking = existingBooking.get();
             
-            // Check room availability for the updated dates (if dates are being changed)
-            if (updatedBooking.getCheckInDate() != null || updatedBooking.getCheckOutDate() != null) {
-                LocalDateTime checkInDate = updatedBooking.getCheckInDate() != null ? 
-                    updatedBooking.getCheckInDate() : booking.getCheckInDate();
-                LocalDateTime checkOutDate = updatedBooking.getCheckOutDate() != null ? 
-                    updatedBooking.getCheckOutDate() : booking.getCheckOutDate();
+                // Check room availability for the updated dates (if dates are being changed)
+                if (updatedBooking.getCheckInDate() != null || updatedBooking.getCheckOutDate() != null) {
+                    LocalDateTime checkInDate = updatedBooking.getCheckInDate() != null ? 
+                        updatedBooking.getCheckInDate() : booking.getCheckInDate();
+                    LocalDateTime checkOutDate = updatedBooking.getCheckOutDate() != null ? 
+                        updatedBooking.getCheckOutDate() : booking.getCheckOutDate();
                 
-                List<Booking> existingBookings = bookingRepository.findByRoom(booking.getRoom());
-                boolean isRoomAvailable = existingBookings.stream()
-                    .noneMatch(existingBookingItem -> {
-                        // Skip the current booking being updated
-                        if (existingBookingItem.getId().equals(booking.getId())) {
-                            return false;
-                        }
-                        
-                        // Only check confirmed bookings
-                        if (existingBookingItem.getBookingStatus() == null || 
-                            !existingBookingItem.getBookingStatus().toString().equals("CONFIRMED")) {
-                            return false;
-                        }
-                        
-                        // Check for date overlap
-                        return (checkInDate.isBefore(existingBookingItem.getCheckOutDate()) &&
-                               checkOutDate.isAfter(existingBookingItem.getCheckInDate()));
-                    });
+                    boolean isRoomAvailable = !bookingRepository.existsOverlappingBookingExcluding(
+                        booking.getRoomId(), booking.getId(), checkInDate, checkOutDate);
                 
-                if (!isRoomAvailable) {
-                    return ResponseEntity.status(HttpStatus.CONFLICT)
-                        .body(null); // Room is already booked for these dates
+                    if (!isRoomAvailable) {
+                        return ResponseEntity.status(HttpStatus.CONFLICT)
+                            .body(null); // Room is already booked for these dates
+                    }
                 }
-            }
             
-            // Update fields
-            if (updatedBooking.getCheckInDate() != null) {
-                booking.setCheckInDate(updatedBooking.getCheckInDate());
-            }
-            if (updatedBooking.getCheckOutDate() != null) {
-                booking.setCheckOutDate(updatedBooking.getCheckOutDate());
-            }
-            if (updatedBooking.getBookingStatus() != null) {
-                booking.setBookingStatus(updatedBooking.getBookingStatus());
-            }
-            if (updatedBooking.getPaymentStatus() != null) {
-                booking.setPaymentStatus(updatedBooking.getPaymentStatus());
-            }
-            if (updatedBooking.getDailyCost() != null) {
-                booking.setDailyCost(updatedBooking.getDailyCost());
-            }
-            if (updatedBooking.getMonthlyCost() != null) {
-                booking.setMonthlyCost(updatedBooking.getMonthlyCost());
-            }
-            if (updatedBooking.getEarlyCheckinCost() != null) {
-                booking.setEarlyCheckinCost(updatedBooking.getEarlyCheckinCost());
-            }
-            if (updatedBooking.getLateCheckoutCost() != null) {
-                booking.setLateCheckoutCost(updatedBooking.getLateCheckoutCost());
-            }
+                // Update fields
+                if (updatedBooking.getCheckInDate() != null) {
+                    booking.setCheckInDate(updatedBooking.getCheckInDate());
+                }
+                if (updatedBooking.getCheckOutDate() != null) {
+                    booking.setCheckOutDate(updatedBooking.getCheckOutDate());
+                }
+                if (updatedBooking.getBookingStatus() != null) {
+                    booking.setBookingStatus(updatedBooking.getBookingStatus());
+                }
+                if (updatedBooking.getPaymentStatus() != null) {
+                    booking.setPaymentStatus(updatedBooking.getPaymentStatus());
+                }
+                if (updatedBooking.getDailyCost() != null) {
+                    booking.setDailyCost(updatedBooking.getDailyCost());
+                }
+                if (updatedBooking.getMonthlyCost() != null) {
+                    booking.setMonthlyCost(updatedBooking.getMonthlyCost());
+                }
+                if (updatedBooking.getEarlyCheckinCost() != null) {
+                    booking.setEarlyCheckinCost(updatedBooking.getEarlyCheckinCost());
+                }
+                if (updatedBooking.getLateCheckoutCost() != null) {
+                    booking.setLateCheckoutCost(updatedBooking.getLateCheckoutCost());
+                }
             
-            // Recalculate total amount
-            calculateTotalAmount(booking);
-            if (updatedBooking.getRemarks() != null) {
-                booking.setRemarks(updatedBooking.getRemarks());
-            }
-            if (updatedBooking.getNumberOfPeople() != null) {
-                booking.setNumberOfPeople(updatedBooking.getNumberOfPeople());
-            }
+                // Recalculate total amount
+                calculateTotalAmount(booking);
+                if (updatedBooking.getRemarks() != null) {
+                    booking.setRemarks(updatedBooking.getRemarks());
+                }
+                if (updatedBooking.getNumberOfPeople() != null) {
+                    booking.setNumberOfPeople(updatedBooking.getNumberOfPeople());
+                }
 
-            booking.setUpdatedAt(LocalDateTime.now());
-            Booking savedBooking = bookingRepository.save(booking);
-            return ResponseEntity.ok(savedBooking);
+                booking.setUpdatedAt(LocalDateTime.now());
+                Booking savedBooking = bookingRepository.save(booking);
+                return ResponseEntity.ok(savedBooking);
+            });
+        } catch (DataIntegrityViolationException e) {
+            if (isOverlapViolation(e)) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(null); // Lost the race to another booking for these dates
+            }
+            return ResponseEntity.internalServerError().build();
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
@@ -238,7 +301,7 @@ public class BookingController {
     @GetMapping("/room/{roomId}")
     public ResponseEntity<List<Booking>> getBookingsByRoom(@PathVariable Long roomId) {
         try {
-            Optional<Room> room = roomRepository.findById(roomId);
+            Optional<Room> room = roomService.getRoomById(roomId);
             if (!room.isPresent()) {
                 return ResponseEntity.notFound().build();
             }
@@ -263,22 +326,34 @@ public class BookingController {
     @PatchMapping("/{id}/checkin")
     public ResponseEntity<Booking> checkIn(@PathVariable Long id) {
         try {
-            Optional<Booking> bookingOpt = bookingRepository.findById(id);
-            if (bookingOpt.isPresent()) {
-                Booking booking = bookingOpt.get();
-                if (booking.getBookingStatus() == BookingStatus.CONFIRMED) {
-                    booking.setBookingStatus(BookingStatus.CHECKEDIN);
-                    // Set actual check-in date to current time
-                    booking.setCheckInDate(LocalDateTime.now());
-                    booking.setUpdatedAt(LocalDateTime.now());
-                    Booking updatedBooking = bookingRepository.save(booking);
-                    return ResponseEntity.ok(updatedBooking);
+            Optional<Long> roomId = bookingRepository.findRoomIdById(id);
+            if (!roomId.isPresent()) {
+                return ResponseEntity.notFound().build();
+            }
+
+            return bookingWriteCoordinator.withRoomLock(roomId.get(), () -> {
+                Optional<Booking> bookingOpt = bookingRepository.findById(id);
+                if (bookingOpt.isPresent()) {
+                    Booking booking = bookingOpt.get();
+                    if (booking.getBookingStatus() == BookingStatus.CONFIRMED) {
+                        booking.setBookingStatus(BookingStatus.CHECKEDIN);
+                        // Set actual check-in date to current time
+                        booking.setCheckInDate(LocalDateTime.now());
+                        booking.setUpdatedAt(LocalDateTime.now());
+                        Booking updatedBooking = bookingRepository.save(booking);
+                        return ResponseEntity.ok(updatedBooking);
+                    } else {
+                        return ResponseEntity.badRequest().build();
+                    }
                 } else {
-                    return ResponseEntity.badRequest().build();
+                    return ResponseEntity.notFound().build();
                 }
-            } else {
-                return ResponseEntity.notFound().build();
+            });
+        } catch (DataIntegrityViolationException e) {
+            if (isOverlapViolation(e)) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(null); // Early check-in runs into another booking of this room
             }
+            return ResponseEntity.internalServerError().build();
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
@@ -287,27 +362,44 @@ public class BookingController {
     @PatchMapping("/{id}/checkout")
     public ResponseEntity<Booking> checkOut(@PathVariable Long id) {
         try {
-            Optional<Booking> bookingOpt = bookingRepository.findById(id);
-            if (bookingOpt.isPresent()) {
-                Booking booking = bookingOpt.get();
-                if (booking.getBookingStatus() == BookingStatus.CHECKEDIN) {
-                    booking.setBookingStatus(BookingStatus.CHECKEDOUT);
-                    // Set actual check-out date to current time
-                    booking.setCheckOutDate(LocalDateTime.now());
-                    booking.setUpdatedAt(LocalDateTime.now());
-                    Booking updatedBooking = bookingRepository.save(booking);
-                    return ResponseEntity.ok(updatedBooking);
-                } else {
-                    return ResponseEntity.badRequest().build();
-                }
-            } else {
+            Optional<Long> roomId = bookingRepository.findRoomIdById(id);
+            if (!roomId.isPresent()) {
                 return ResponseEntity.notFound().build();
             }
+
+            return bookingWriteCoordinator.withRoomLock(roomId.get(), () -> {
+                Optional<Booking> bookingOpt = bookingRepository.findById(id);
+                if (bookingOpt.isPresent()) {
+                    Booking booking = bookingOpt.get();
+                    if (booking.getBookingStatus() == BookingStatus.CHECKEDIN) {
+                        booking.setBookingStatus(BookingStatus.CHECKEDOUT);
+                        // Set actual check-out date to current time
+                        booking.setCheckOutDate(LocalDateTime.now());
+                        booking.setUpdatedAt(LocalDateTime.now());
+                        Booking updatedBooking = bookingRepository.save(booking);
+                        return ResponseEntity.ok(updatedBooking);
+                    } else {
+                        return ResponseEntity.badRequest().build();
+                    }
+                } else {
+                    return ResponseEntity.notFound().build();
+                }
+            });
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
     }
 
+    // SQLSTATE 23P01 is raised by the booking_no_overlap exclusion constraint
+    private boolean isOverlapViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException && "23P01".equals(((SQLException) cause).getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private void calculateTotalAmount(Booking booking) {
         BigDecimal total = BigDecimal.ZERO;
         
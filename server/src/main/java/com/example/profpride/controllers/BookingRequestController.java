@@ -6,8 +6,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import com.example.profpride.dto.KeysetPage;
+import com.example.profpride.dto.ListQuery;
+import com.example.profpride.enums.BookingRequestStatus;
+import org.springframework.format.annotation.DateTimeFormat;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -24,9 +30,19 @@ public class BookingRequestController {
     }
 
     @GetMapping
-    public ResponseEntity<List<BookingRequest>> getAllBookingRequests() {
-        List<BookingRequest> requests = bookingRequestService.getAllBookingRequests();
-        return new ResponseEntity<>(requests, HttpStatus.OK);
+    public ResponseEntity<?> getAllBookingRequests(
+            @RequestParam(required = false) BookingRequestStatus status,
+            @RequestParam(required = false) String customer,
+            @RequestParam(required = false) Long roomId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            ListQuery query) {
+        try {
+            KeysetPage<BookingRequest> page = bookingRequestService.listBookingRequests(status, customer, roomId, from, to, query);
+            return ResponseEntity.ok().headers(page.headers()).body(page.items());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 
     @GetMapping("/{id}")
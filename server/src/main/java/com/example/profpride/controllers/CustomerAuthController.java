@@ -1,11 +1,15 @@
 package com.example.profpride.controllers;
 
+import com.example.profpride.dto.CustomerSummary;
 import com.example.profpride.models.Customer;
+import com.example.profpride.security.CustomerSession;
 import com.example.profpride.services.CustomerService;
+import com.example.profpride.utils.JwtUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -18,6 +22,9 @@ public class CustomerAuthController {
     @Autowired
     private CustomerService customerService;
 
+    @Autowired
+    private JwtUtils jwtUtils;
+
     @PostMapping("/register")
     public ResponseEntity<Map<String, Object>> registerCustomer(@RequestBody Customer customer) {
         Map<String, Object> response = new HashMap<>();
@@ -65,19 +72,18 @@ public class CustomerAuthController {
             
             // Validate credentials
             if (customerService.validateCustomerCredentials(phoneNumber, password)) {
-                // Generate simple token (in production, use JWT)
-                String token = "customer_token_" + phoneNumber + "_" + System.currentTimeMillis();
-                
-                Optional<Customer> customerOpt = customerService.getCustomerByPhoneNumber(phoneNumber);
+                Optional<CustomerSummary> customerOpt = customerService.getCustomerSummary(phoneNumber);
                 if (customerOpt.isPresent()) {
-                    Customer customer = customerOpt.get();
+                    CustomerSummary customer = customerOpt.get();
+                    // Signed, stateless session: the phone number is the subject, verified per request by JwtAuthenticationFilter
+                    String token = jwtUtils.generateToken(customer.phoneNumber(), CustomerSession.ROLE, customer.name());
                     
                     response.put("success", true);
                     response.put("message", "Login successful");
                     response.put("token", token);
                     response.put("customer", Map.of(
-                        "phoneNumber", customer.getPhoneNumber(),
-                        "name", customer.getName()
+                        "phoneNumber", customer.phoneNumber(),
+                        "name", customer.name()
                     ));
                     
                     return ResponseEntity.ok(response);
@@ -88,6 +94,11 @@ public class CustomerAuthController {
             response.put("message", "Invalid phone number or password");
             return ResponseEntity.badRequest().body(response);
             
+        } catch (ResponseStatusException e) {
+            // Password verification pool saturated
+            response.put("success", false);
+            response.put("message", e.getReason());
+            return ResponseEntity.status(e.getStatusCode()).body(response);
         } catch (Exception e) {
             response.put("success", false);
             response.put("message", "Login failed: " + e.getMessage());
@@ -115,36 +126,19 @@ public class CustomerAuthController {
     }
 
     @GetMapping("/profile")
-    public ResponseEntity<Map<String, Object>> getCustomerProfile(@RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<Map<String, Object>> getCustomerProfile() {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-                response.put("success", false);
-                response.put("message", "Invalid authorization header");
-                return ResponseEntity.badRequest().body(response);
-            }
-
-            String token = authHeader.substring(7);
-            
-            // Extract phone number from token
-            if (!token.startsWith("customer_token_")) {
+            Optional<String> phoneNumber = CustomerSession.currentPhoneNumber();
+            if (phoneNumber.isEmpty()) {
                 response.put("success", false);
-                response.put("message", "Invalid token");
-                return ResponseEntity.badRequest().body(response);
+                response.put("message", "Customer login required");
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
             }
 
-            String[] tokenParts = token.split("_");
-            if (tokenParts.length < 3) {
-                response.put("success", false);
-                response.put("message", "Invalid token format");
-                return ResponseEntity.badRequest().body(response);
-            }
-
-            String phoneNumber = tokenParts[2];
-            
             // Find customer
-            Optional<Customer> customerOpt = customerService.getCustomerByPhoneNumber(phoneNumber);
+            Optional<Customer> customerOpt = customerService.getCustomerByPhoneNumber(phoneNumber.get());
             if (!customerOpt.isPresent()) {
                 response.put("success", false);
                 response.put("message", "Customer not found");
@@ -3,18 +3,24 @@ package com.example.profpride.controllers;
 import com.example.profpride.models.Booking;
 import com.example.profpride.models.Customer;
 import com.example.profpride.services.CustomerService;
-import com.example.profpride.services.CloudinaryService;
+import com.example.profpride.services.DocumentUploader;
+import com.example.profpride.services.ParallelUploader;
+import com.example.profpride.security.CustomerSession;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import com.example.profpride.dto.KeysetPage;
+import com.example.profpride.dto.ListQuery;
+import com.example.profpride.dto.StoredUpload;
 import java.io.IOException;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.ArrayList;
 
 @RestController
 @RequestMapping("/api/v1/customer")
@@ -24,13 +30,21 @@ public class CustomerController {
     private CustomerService customerService;
 
     @Autowired
-    private CloudinaryService cloudinaryService;
+    private DocumentUploader documentUploader;
+
+    @Autowired
+    private ParallelUploader parallelUploader;
 
     @GetMapping
-    public ResponseEntity<List<Customer>> getAllCustomers() {
+    public ResponseEntity<?> getAllCustomers(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) Boolean idProofSubmitted,
+            ListQuery query) {
         try {
-            List<Customer> customers = customerService.getAllCustomers();
-            return ResponseEntity.ok(customers);
+            KeysetPage<Customer> page = customerService.listCustomers(name, idProofSubmitted, query);
+            return ResponseEntity.ok().headers(page.headers()).body(page.items());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
@@ -51,34 +65,16 @@ public class CustomerController {
     }
 
     @GetMapping("/bookings")
-    public ResponseEntity<List<Booking>> getCustomerBookings(@RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<List<Booking>> getCustomerBookings() {
         try {
-            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-                return ResponseEntity.badRequest().build();
-            }
-
-            String token = authHeader.substring(7);
-            
-            // Extract phone number from token (simple implementation)
-            if (!token.startsWith("customer_token_")) {
-                return ResponseEntity.badRequest().build();
-            }
-
-            String[] tokenParts = token.split("_");
-            if (tokenParts.length < 3) {
-                return ResponseEntity.badRequest().build();
-            }
-
-            String phoneNumber = tokenParts[2];
-            
-            // Find customer
-            Optional<Customer> customerOpt = customerService.getCustomerByPhoneNumber(phoneNumber);
-            if (!customerOpt.isPresent()) {
-                return ResponseEntity.badRequest().build();
+            // Phone number comes from the verified customer token; no customer lookup needed
+            Optional<String> phoneNumber = CustomerSession.currentPhoneNumber();
+            if (phoneNumber.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
             }
 
             // Get bookings for this customer
-            List<Booking> bookings = customerService.getCustomerBookings(phoneNumber);
+            List<Booking> bookings = customerService.getCustomerBookings(phoneNumber.get());
             
             return ResponseEntity.ok(bookings);
 
@@ -88,36 +84,19 @@ public class CustomerController {
     }
 
     @GetMapping("/profile")
-    public ResponseEntity<Map<String, Object>> getCustomerProfile(@RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<Map<String, Object>> getCustomerProfile() {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-                response.put("success", false);
-                response.put("message", "Invalid authorization header");
-                return ResponseEntity.badRequest().body(response);
-            }
-
-            String token = authHeader.substring(7);
-            
-            // Extract phone number from token
-            if (!token.startsWith("customer_token_")) {
-                response.put("success", false);
-                response.put("message", "Invalid token");
-                return ResponseEntity.badRequest().body(response);
-            }
-
-            String[] tokenParts = token.split("_");
-            if (tokenParts.length < 3) {
+            Optional<String> phoneNumber = CustomerSession.currentPhoneNumber();
+            if (phoneNumber.isEmpty()) {
                 response.put("success", false);
-                response.put("message", "Invalid token format");
-                return ResponseEntity.badRequest().body(response);
+                response.put("message", "Customer login required");
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
             }
 
-            String phoneNumber = tokenParts[2];
-            
             // Find customer
-            Optional<Customer> customerOpt = customerService.getCustomerByPhoneNumber(phoneNumber);
+            Optional<Customer> customerOpt = customerService.getCustomerByPhoneNumber(phoneNumber.get());
             if (!customerOpt.isPresent()) {
                 response.put("success", false);
                 response.put("message", "Customer not found");
@@ -145,45 +124,19 @@ public class CustomerController {
 
     @PutMapping("/profile")
     public ResponseEntity<Map<String, Object>> updateCustomerProfile(
-            @RequestHeader("Authorization") String authHeader,
             @RequestBody Map<String, String> request) {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-                response.put("success", false);
-                response.put("message", "Invalid authorization header");
-                return ResponseEntity.badRequest().body(response);
-            }
-
-            String token = authHeader.substring(7);
-            
-            // Extract phone number from token
-            if (!token.startsWith("customer_token_")) {
-                response.put("success", false);
-                response.put("message", "Invalid token");
-                return ResponseEntity.badRequest().body(response);
-            }
-
-            String[] tokenParts = token.split("_");
-            if (tokenParts.length < 3) {
-                response.put("success", false);
-                response.put("message", "Invalid token format");
-                return ResponseEntity.badRequest().body(response);
-            }
-
-            String phoneNumber = tokenParts[2];
-            
-            // Find customer
-            Optional<Customer> customerOpt = customerService.getCustomerByPhoneNumber(phoneNumber);
-            if (!customerOpt.isPresent()) {
+            Optional<String> phoneNumber = CustomerSession.currentPhoneNumber();
+            if (phoneNumber.isEmpty()) {
                 response.put("success", false);
-                response.put("message", "Customer not found");
-                return ResponseEntity.badRequest().body(response);
+                response.put("message", "Customer login required");
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
             }
 
             // Update customer profile
-            Customer updatedCustomer = customerService.updateCustomerProfile(phoneNumber, request);
+            Customer updatedCustomer = customerService.updateCustomerProfile(phoneNumber.get(), request);
             
             response.put("success", true);
             response.put("message", "Profile updated successfully");
@@ -196,6 +149,10 @@ public class CustomerController {
 
             return ResponseEntity.ok(response);
 
+        } catch (ResponseStatusException e) {
+            response.put("success", false);
+            response.put("message", "Customer not found");
+            return ResponseEntity.badRequest().body(response);
         } catch (Exception e) {
             response.put("success", false);
             response.put("message", "Failed to update profile: " + e.getMessage());
@@ -208,13 +165,13 @@ public class CustomerController {
             @PathVariable String phoneNumber,
             @RequestParam("file") MultipartFile file) {
         try {
-            String photoIdUrl = cloudinaryService.uploadPhotoIdProof(file, phoneNumber);
+            StoredUpload photoId = documentUploader.storeIdProof(file, phoneNumber);
             
             // Update customer record with photo ID URL and mark ID proof as submitted
-            customerService.updateCustomerPhotoIdUrl(phoneNumber, photoIdUrl);
+            customerService.updateCustomerPhotoIdUrl(phoneNumber, photoId);
             customerService.updateCustomerIdProofSubmitted(phoneNumber, true);
             
-            return ResponseEntity.ok(photoIdUrl);
+            return ResponseEntity.ok(photoId.url());
         } catch (IOException e) {
             return ResponseEntity.internalServerError().body("Failed to upload photo ID proof: " + e.getMessage());
         }
@@ -225,37 +182,17 @@ public class CustomerController {
             @PathVariable String phoneNumber,
             @RequestParam("files") MultipartFile[] files) {
         try {
-            List<String> uploadedUrls = new ArrayList<>();
+            // Files upload in parallel; results come back in request order
+            List<StoredUpload> uploads = parallelUploader.uploadAll(files, file -> documentUploader.storeIdProof(file, phoneNumber));
+            List<String> uploadedUrls = uploads.stream().map(StoredUpload::url).toList();
             
-            // Upload each file
-            for (MultipartFile file : files) {
-                if (!file.isEmpty()) {
-                    String photoIdUrl = cloudinaryService.uploadPhotoIdProof(file, phoneNumber);
-                    uploadedUrls.add(photoIdUrl);
-                }
-            }
-            
-            // Update customer record with new ID proof URLs
-            Optional<Customer> customerOpt = customerService.getCustomerByPhoneNumber(phoneNumber);
-            if (customerOpt.isPresent()) {
-                Customer customer = customerOpt.get();
-                
-                // Initialize the list if it's null
-                if (customer.getIdProofUrls() == null) {
-                    customer.setIdProofUrls(new ArrayList<>());
-                }
-                
-                // Add new URLs to existing ones
-                customer.getIdProofUrls().addAll(uploadedUrls);
-                customerService.updateCustomerIdProofUrls(phoneNumber, customer.getIdProofUrls());
-                
-                // Mark ID proof as submitted
-                customerService.updateCustomerIdProofSubmitted(phoneNumber, true);
-            }
+            // Append the new URLs and mark ID proof as submitted in one save
+            customerService.addIdProofs(phoneNumber, uploads);
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("uploadedUrls", uploadedUrls);
+            response.put("thumbnailUrls", uploads.stream().map(StoredUpload::thumbnailUrl).toList());
             response.put("message", "Successfully uploaded " + uploadedUrls.size() + " ID proof(s)");
             
             return ResponseEntity.ok(response);
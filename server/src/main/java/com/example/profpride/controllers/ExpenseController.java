@@ -6,8 +6,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import com.example.profpride.dto.KeysetPage;
+import com.example.profpride.dto.ListQuery;
+import com.example.profpride.enums.ExpenseCategory;
+import org.springframework.format.annotation.DateTimeFormat;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -23,10 +29,27 @@ public class ExpenseController {
         return new ResponseEntity<>(savedExpense, HttpStatus.CREATED);
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<?> createExpenses(@RequestBody List<Expense> expenses) {
+        try {
+            return new ResponseEntity<>(expenseService.createExpenses(expenses), HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @GetMapping
-    public ResponseEntity<List<Expense>> getAllExpenses() {
-        List<Expense> expenses = expenseService.getAllExpenses();
-        return new ResponseEntity<>(expenses, HttpStatus.OK);
+    public ResponseEntity<?> getAllExpenses(
+            @RequestParam(required = false) ExpenseCategory category,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            ListQuery query) {
+        try {
+            KeysetPage<Expense> page = expenseService.listExpenses(category, from, to, query);
+            return ResponseEntity.ok().headers(page.headers()).body(page.items());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 
     @GetMapping("/{id}")
@@ -0,0 +1,57 @@
+package com.example.profpride.controllers;
+
+import com.example.profpride.dto.InvoiceBatchProgress;
+import com.example.profpride.services.InvoiceBatchService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/v1/invoices/batches")
+public class InvoiceBatchController {
+
+    @Autowired
+    private InvoiceBatchService invoiceBatchService;
+
+    // Starts (or resumes a failed) month-end batch; poll GET /{period} for progress
+    @PostMapping
+    public ResponseEntity<?> startBatch(@RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth period) {
+        try {
+            InvoiceBatchProgress progress = invoiceBatchService.start(period != null ? period : YearMonth.now());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(progress);
+        } catch (ResponseStatusException e) {
+            return ResponseEntity.status(e.getStatusCode()).body(Map.of("error", e.getReason()));
+        }
+    }
+
+    @GetMapping("/{period}")
+    public ResponseEntity<InvoiceBatchProgress> getBatch(@PathVariable @DateTimeFormat(pattern = "yyyy-MM") YearMonth period) {
+        return invoiceBatchService.progress(period)
+            .map(ResponseEntity::ok)
+            .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    @RequestMapping(value = "/{period}/download", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void downloadBatch(@PathVariable @DateTimeFormat(pattern = "yyyy-MM") YearMonth period,
+                              HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Optional<Path> zip = invoiceBatchService.zipFile(period);
+        if (zip.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=invoices_" + period + ".zip");
+        FileResponses.send(request, response, zip.get(), "no-cache");
+    }
+}
@@ -3,11 +3,24 @@ package com.example.profpride.controllers;
 import com.example.profpride.models.Invoice;
 import com.example.profpride.services.InvoiceService;
 import org.springframework.beans.factory.annotation.Autowired;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import com.example.profpride.dto.KeysetPage;
+import com.example.profpride.dto.ListQuery;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -24,9 +37,18 @@ public class InvoiceController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Invoice>> getAllInvoices() {
-        List<Invoice> invoices = invoiceService.getAllInvoices();
-        return new ResponseEntity<>(invoices, HttpStatus.OK);
+    public ResponseEntity<?> getAllInvoices(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Long bookingId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            ListQuery query) {
+        try {
+            KeysetPage<Invoice> page = invoiceService.listInvoices(status, bookingId, from, to, query);
+            return ResponseEntity.ok().headers(page.headers()).body(page.items());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 
     @GetMapping("/{id}")
@@ -65,7 +87,7 @@ public class InvoiceController {
         return new ResponseEntity<>(invoices, HttpStatus.OK);
     }
 
-    @GetMapping("/{id}/download")
+    @GetMapping("/{id}/download-url")
     public ResponseEntity<String> downloadInvoice(@PathVariable Long id) {
         try {
             String downloadUrl = invoiceService.generateInvoiceDownloadUrl(id);
@@ -76,25 +98,33 @@ public class InvoiceController {
     }
 
     @GetMapping("/{bookingId}/preview")
-    public ResponseEntity<String> previewInvoice(@PathVariable Long bookingId) {
+    public ResponseEntity<byte[]> previewInvoice(@PathVariable Long bookingId) {
         try {
-            String htmlContent = invoiceService.generateInvoicePreview(bookingId);
-            return new ResponseEntity<>(htmlContent, HttpStatus.OK);
+            byte[] htmlContent = invoiceService.generateInvoicePreview(bookingId);
+            return ResponseEntity.ok()
+                .contentType(new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8))
+                .contentLength(htmlContent.length)
+                .body(htmlContent);
         } catch (Exception e) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
 
-    @GetMapping("/{bookingId}/download")
-    public ResponseEntity<byte[]> downloadInvoiceByBooking(@PathVariable Long bookingId) {
+    // Pre-rendered file with ETag/Last-Modified and Range support; renders only when the booking changed since
+    @RequestMapping(value = "/{bookingId}/download", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void downloadInvoiceByBooking(@PathVariable Long bookingId, HttpServletRequest request,
+                                         HttpServletResponse response) throws IOException {
         try {
-            byte[] pdfBytes = invoiceService.generateInvoicePdf(bookingId);
-            return ResponseEntity.ok()
-                .header("Content-Type", "application/pdf")
-                .header("Content-Disposition", "attachment; filename=invoice_" + bookingId + ".pdf")
-                .body(pdfBytes);
-        } catch (Exception e) {
-            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            Optional<Path> pdf = invoiceService.getInvoicePdf(bookingId);
+            if (pdf.isEmpty()) {
+                response.sendError(HttpServletResponse.SC_NOT_FOUND);
+                return;
+            }
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=invoice_" + bookingId + ".pdf");
+            // Same URL, changing content: clients revalidate with the ETag every time
+            FileResponses.send(request, response, pdf.get(), "no-cache");
+        } catch (ResponseStatusException e) {
+            response.sendError(e.getStatusCode().value(), e.getReason());
         }
     }
 }
@@ -0,0 +1,47 @@
+package com.example.profpride.controllers;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+/**
+ * Serves files written by the local storage backend. Stored names are unique per upload (or per
+ * content or invoice version), so responses are cacheable forever; conditional and range requests
+ * are answered by FileResponses.
+ */
+@RestController
+public class LocalFileController {
+
+    private static final String PREFIX = "/uploads/";
+
+    @Value("${file.upload.path:uploads}")
+    private String uploadPath;
+
+    @Value("${storage.local.cache-max-age:365d}")
+    private Duration cacheMaxAge;
+
+    @RequestMapping(value = "/uploads/**", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void serveFile(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path root = Paths.get(uploadPath).toAbsolutePath().normalize();
+        String relative = UriUtils.decode(
+            request.getRequestURI().substring(request.getContextPath().length() + PREFIX.length()), StandardCharsets.UTF_8);
+        Path file = root.resolve(relative).normalize();
+        if (!file.startsWith(root) || !Files.isRegularFile(file)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        FileResponses.send(request, response, file, "public, max-age=" + cacheMaxAge.toSeconds() + ", immutable");
+    }
+}
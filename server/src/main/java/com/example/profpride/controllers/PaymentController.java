@@ -2,14 +2,27 @@ package com.example.profpride.controllers;
 
 import com.example.profpride.models.Payment;
 import com.example.profpride.services.PaymentService;
-import com.example.profpride.services.CloudinaryService;
+import com.example.profpride.services.DocumentUploader;
+import com.example.profpride.dto.StoredUpload;
+import com.example.profpride.services.UploadJobService;
+import com.example.profpride.dto.UploadJob;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import com.example.profpride.dto.KeysetPage;
+import com.example.profpride.dto.ListQuery;
+import com.example.profpride.enums.PaymentStatus;
+import org.springframework.format.annotation.DateTimeFormat;
+import com.example.profpride.services.NdjsonExporter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -23,7 +36,13 @@ public class PaymentController {
     private PaymentService paymentService;
 
     @Autowired
-    private CloudinaryService cloudinaryService;
+    private DocumentUploader documentUploader;
+
+    @Autowired
+    private NdjsonExporter ndjsonExporter;
+
+    @Autowired
+    private UploadJobService uploadJobService;
 
     @PostMapping
     public ResponseEntity<?> createPayment(@RequestBody Payment payment) {
@@ -40,9 +59,26 @@ public class PaymentController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Payment>> getAllPayments() {
-        List<Payment> payments = paymentService.getAllPayments();
-        return new ResponseEntity<>(payments, HttpStatus.OK);
+    public ResponseEntity<?> getAllPayments(
+            @RequestParam(required = false) PaymentStatus status,
+            @RequestParam(required = false) Long bookingId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            ListQuery query) {
+        try {
+            KeysetPage<Payment> page = paymentService.listPayments(status, bookingId, from, to, query);
+            return ResponseEntity.ok().headers(page.headers()).body(page.items());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping(value = "/export", produces = NdjsonExporter.NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportPayments() {
+        return ResponseEntity.ok()
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"payments.ndjson\"")
+            .contentType(MediaType.parseMediaType(NdjsonExporter.NDJSON))
+            .body(ndjsonExporter.export(paymentService::streamAllPayments));
     }
 
     @GetMapping("/{id}")
@@ -88,7 +124,8 @@ public class PaymentController {
     @PostMapping("/upload-screenshot-new")
     public ResponseEntity<Map<String, Object>> uploadPaymentScreenshotNew(
             @RequestParam("file") MultipartFile file,
-            @RequestParam(value = "phoneNumber", required = false) String phoneNumber) {
+            @RequestParam(value = "phoneNumber", required = false) String phoneNumber,
+            @RequestParam(defaultValue = "false") boolean async) {
         
         Map<String, Object> response = new HashMap<>();
         
@@ -116,14 +153,26 @@ public class PaymentController {
 
             // Use provided phone number or default if not provided
             String phoneNumberToUse = (phoneNumber != null && !phoneNumber.isEmpty()) ? phoneNumber : "default";
-            String paymentScreenshotUrl = cloudinaryService.uploadPaymentScreenshot(file, phoneNumberToUse);
+            if (async) {
+                UploadJob job = uploadJobService.submit(file,
+                    staged -> documentUploader.storePaymentScreenshot(staged, phoneNumberToUse),
+                    stored -> { });
+                return UploadController.accepted(job, response);
+            }
+
+            StoredUpload screenshot = documentUploader.storePaymentScreenshot(file, phoneNumberToUse);
             
             response.put("success", true);
-            response.put("fileUrl", paymentScreenshotUrl);
+            response.put("fileUrl", screenshot.url());
+            response.put("thumbnailUrl", screenshot.thumbnailUrl());
             response.put("message", "Payment screenshot uploaded successfully");
             
             return ResponseEntity.ok(response);
             
+        } catch (ResponseStatusException e) {
+            response.put("success", false);
+            response.put("message", e.getReason());
+            return ResponseEntity.status(e.getStatusCode()).body(response);
         } catch (IOException e) {
             response.put("success", false);
             response.put("message", "Failed to upload payment screenshot: " + e.getMessage());
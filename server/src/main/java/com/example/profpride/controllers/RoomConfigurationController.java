@@ -6,6 +6,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import com.example.profpride.dto.KeysetPage;
+import com.example.profpride.dto.ListQuery;
 
 import java.util.List;
 import java.util.Map;
@@ -19,9 +21,17 @@ public class RoomConfigurationController {
     private RoomConfigurationService roomConfigurationService;
 
     @GetMapping
-    public ResponseEntity<List<RoomConfiguration>> getAllRoomConfigurations() {
-        List<RoomConfiguration> configurations = roomConfigurationService.getAllRoomConfigurations();
-        return new ResponseEntity<>(configurations, HttpStatus.OK);
+    public ResponseEntity<?> getAllRoomConfigurations(
+            @RequestParam(required = false) Long roomId,
+            @RequestParam(required = false) Integer personCount,
+            @RequestParam(required = false) Boolean available,
+            ListQuery query) {
+        try {
+            KeysetPage<RoomConfiguration> page = roomConfigurationService.listRoomConfigurations(roomId, personCount, available, query);
+            return ResponseEntity.ok().headers(page.headers()).body(page.items());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 
     @GetMapping("/room/{roomId}")
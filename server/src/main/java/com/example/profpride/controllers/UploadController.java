@@ -1,9 +1,16 @@
 package com.example.profpride.controllers;
 
-import com.example.profpride.services.CloudinaryService;
+import com.example.profpride.services.FileStorage;
+import com.example.profpride.services.ParallelUploader;
 import com.example.profpride.services.CustomerService;
+import com.example.profpride.services.UploadJobService;
+import com.example.profpride.dto.StoredUpload;
+import com.example.profpride.dto.UploadJob;
+import com.example.profpride.services.DocumentUploader;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -17,15 +24,25 @@ import java.util.Map;
 public class UploadController {
 
     @Autowired
-    private CloudinaryService cloudinaryService;
+    private FileStorage fileStorage;
+
+    @Autowired
+    private ParallelUploader parallelUploader;
+
+    @Autowired
+    private DocumentUploader documentUploader;
     
     @Autowired
     private CustomerService customerService;
 
+    @Autowired
+    private UploadJobService uploadJobService;
+
     @PostMapping("/photo-id-proof")
     public ResponseEntity<Map<String, Object>> uploadPhotoIdProof(
             @RequestParam("file") MultipartFile file,
-            @RequestParam("phoneNumber") String phoneNumber) {
+            @RequestParam("phoneNumber") String phoneNumber,
+            @RequestParam(defaultValue = "false") boolean async) {
         
         Map<String, Object> response = new HashMap<>();
         
@@ -51,7 +68,15 @@ public class UploadController {
                 return ResponseEntity.badRequest().body(response);
             }
 
-                  String photoIdUrl = cloudinaryService.uploadPhotoIdProof(file, phoneNumber);
+            if (async) {
+                // Stage locally and return at once; the worker uploads and then flags the customer
+                UploadJob job = uploadJobService.submit(file,
+                    staged -> documentUploader.storeIdProof(staged, phoneNumber),
+                    stored -> customerService.updateCustomerIdProofSubmitted(phoneNumber, true));
+                return accepted(job, response);
+            }
+
+            StoredUpload photoId = documentUploader.storeIdProof(file, phoneNumber);
             
             // Update customer's ID proof submitted status
             try {
@@ -62,11 +87,16 @@ public class UploadController {
             }
             
             response.put("success", true);
-            response.put("url", photoIdUrl);
+            response.put("url", photoId.url());
+            response.put("thumbnailUrl", photoId.thumbnailUrl());
             response.put("message", "Photo ID proof uploaded successfully");
             
             return ResponseEntity.ok(response);
             
+        } catch (ResponseStatusException e) {
+            response.put("success", false);
+            response.put("message", e.getReason());
+            return ResponseEntity.status(e.getStatusCode()).body(response);
         } catch (IOException e) {
             response.put("success", false);
             response.put("message", "Failed to upload photo ID proof: " + e.getMessage());
@@ -88,7 +118,8 @@ public class UploadController {
                 return ResponseEntity.badRequest().body(response);
             }
 
-                  List<String> uploadedUrls = cloudinaryService.uploadMultipleFiles(files, phoneNumber);
+            List<StoredUpload> uploads = parallelUploader.uploadAll(files, file -> documentUploader.storeIdProof(file, phoneNumber));
+            List<String> uploadedUrls = uploads.stream().map(StoredUpload::url).toList();
             
             // Update customer's ID proof submitted status
             try {
@@ -100,6 +131,7 @@ public class UploadController {
             
             response.put("success", true);
             response.put("uploadedUrls", uploadedUrls);
+            response.put("thumbnailUrls", uploads.stream().map(StoredUpload::thumbnailUrl).toList());
             response.put("message", "Successfully uploaded " + uploadedUrls.size() + " ID proof(s)");
             
             return ResponseEntity.ok(response);
@@ -114,7 +146,8 @@ public class UploadController {
     @PostMapping("/payment-screenshot")
     public ResponseEntity<Map<String, Object>> uploadPaymentScreenshot(
             @RequestParam("file") MultipartFile file,
-            @RequestParam("phoneNumber") String phoneNumber) {
+            @RequestParam("phoneNumber") String phoneNumber,
+            @RequestParam(defaultValue = "false") boolean async) {
         
         Map<String, Object> response = new HashMap<>();
         
@@ -140,14 +173,26 @@ public class UploadController {
                 return ResponseEntity.badRequest().body(response);
             }
 
-                  String paymentScreenshotUrl = cloudinaryService.uploadPaymentScreenshot(file, phoneNumber);
+            if (async) {
+                UploadJob job = uploadJobService.submit(file,
+                    staged -> documentUploader.storePaymentScreenshot(staged, phoneNumber),
+                    stored -> { });
+                return accepted(job, response);
+            }
+
+            StoredUpload screenshot = documentUploader.storePaymentScreenshot(file, phoneNumber);
             
             response.put("success", true);
-            response.put("url", paymentScreenshotUrl);
+            response.put("url", screenshot.url());
+            response.put("thumbnailUrl", screenshot.thumbnailUrl());
             response.put("message", "Payment screenshot uploaded successfully");
             
             return ResponseEntity.ok(response);
             
+        } catch (ResponseStatusException e) {
+            response.put("success", false);
+            response.put("message", e.getReason());
+            return ResponseEntity.status(e.getStatusCode()).body(response);
         } catch (IOException e) {
             response.put("success", false);
             response.put("message", "Failed to upload payment screenshot: " + e.getMessage());
@@ -155,27 +200,34 @@ public class UploadController {
         }
     }
 
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<UploadJob> getUploadJob(@PathVariable String id) {
+        return uploadJobService.find(id)
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
     @GetMapping("/test-connectivity")
     public ResponseEntity<Map<String, Object>> testConnectivity() {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            // Test if Cloudinary is working
-            boolean isConnected = cloudinaryService.testConnection();
+            // Test if the configured storage backend is reachable
+            boolean isConnected = fileStorage.testConnection();
             
             if (isConnected) {
                 response.put("success", true);
-                response.put("message", "Cloudinary connectivity test successful");
+                response.put("message", "Storage connectivity test successful");
             } else {
                 response.put("success", false);
-                response.put("message", "Cloudinary connectivity test failed");
+                response.put("message", "Storage connectivity test failed");
             }
             
             return ResponseEntity.ok(response);
             
         } catch (Exception e) {
             response.put("success", false);
-                response.put("message", "Cloudinary connectivity test failed: " + e.getMessage());
+                response.put("message", "Storage connectivity test failed: " + e.getMessage());
             return ResponseEntity.internalServerError().body(response);
         }
     }
@@ -194,7 +246,7 @@ public class UploadController {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            String url = cloudinaryService.uploadPhotoIdProof(file, "test-phone");
+            String url = fileStorage.uploadPhotoIdProof(file, "test-phone");
             response.put("success", true);
             response.put("message", "Upload successful");
             response.put("url", url);
@@ -205,4 +257,14 @@ public class UploadController {
             return ResponseEntity.internalServerError().body(response);
         }
     }
+
+    static ResponseEntity<Map<String, Object>> accepted(UploadJob job, Map<String, Object> response) {
+        String statusUrl = "/api/v1/upload/jobs/" + job.id();
+        response.put("success", true);
+        response.put("jobId", job.id());
+        response.put("status", job.status());
+        response.put("statusUrl", statusUrl);
+        response.put("message", "Upload accepted; poll statusUrl for the result");
+        return ResponseEntity.status(HttpStatus.ACCEPTED).header("Location", statusUrl).body(response);
+    }
 }
@@ -0,0 +1,29 @@
+package com.example.profpride.dto;
+
+import com.example.profpride.enums.BookingStatus;
+import com.example.profpride.enums.PaymentStatus;
+import com.example.profpride.models.Booking;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// The booking fields daily_snapshot rows are derived from; captured on load so a write can be applied as a delta
+public record BookingFacts(
+    Long id,
+    Long roomId,
+    LocalDateTime checkInDate,
+    LocalDateTime checkOutDate,
+    BookingStatus bookingStatus,
+    PaymentStatus paymentStatus,
+    BigDecimal totalAmount
+) {
+
+    public static BookingFacts of(Booking booking) {
+        return new BookingFacts(booking.getId(), booking.getRoomId(), booking.getCheckInDate(), booking.getCheckOutDate(),
+            booking.getBookingStatus(), booking.getPaymentStatus(), booking.getTotalAmount());
+    }
+
+    public boolean isBlocking() {
+        return bookingStatus != null && bookingStatus.isBlocking() && roomId != null
+            && checkInDate != null && checkOutDate != null;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.profpride.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Columnar room x day occupancy matrix. cells.get(i) is the run-length encoding of rooms.get(i)'s row
+ * over dates: flattened [bookingId, runLength, bookingId, runLength, ...] pairs, bookingId 0 = free.
+ */
+public record BookingGrid(
+    LocalDate from,
+    LocalDate to,
+    List<LocalDate> dates,
+    List<GridRoom> rooms,
+    List<long[]> cells,
+    Map<Long, GridBooking> bookings
+) {
+}
@@ -0,0 +1,12 @@
+package com.example.profpride.dto;
+
+import com.example.profpride.enums.BookingStatus;
+
+public record BookingSummary(
+    Long bookingId,
+    String customerName,
+    String roomNumber,
+    String phoneNumber,
+    BookingStatus bookingStatus
+) {
+}
@@ -0,0 +1,22 @@
+package com.example.profpride.dto;
+
+import com.example.profpride.models.Customer;
+
+// Cacheable view of a customer: scalar columns only, no credentials and no ID proof collection
+public record CustomerSummary(
+    String phoneNumber,
+    String name,
+    String email,
+    String additionalPhoneNumber,
+    Boolean idProofSubmitted
+) {
+
+    public static CustomerSummary of(Customer customer) {
+        return new CustomerSummary(customer.getPhoneNumber(), customer.getName(), customer.getEmail(),
+            customer.getAdditionalPhoneNumber(), customer.getIdProofSubmitted());
+    }
+
+    public CustomerSummary withIdProofSubmitted(Boolean submitted) {
+        return new CustomerSummary(phoneNumber, name, email, additionalPhoneNumber, submitted);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.profpride.dto;
+
+import java.math.BigDecimal;
+
+// Native-query projection used to (re)build one daily_snapshot row
+public interface DailyAggregates {
+    Long getCheckInsDue();
+    Long getCheckOutsDue();
+    Long getTodayBookings();
+    Long getBookedRooms();
+    BigDecimal getRevenue();
+    Long getPendingDuesCount();
+    BigDecimal getPendingDuesAmount();
+    BigDecimal getCollectedAmount();
+}
@@ -0,0 +1,8 @@
+package com.example.profpride.dto;
+
+// Native-query projection: customer and room counts for the summary card in one round trip
+public interface DashboardTotals {
+    Long getTotalCustomers();
+    Long getTotalRooms();
+    Long getAvailableRooms();
+}
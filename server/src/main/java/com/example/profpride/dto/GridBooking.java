@@ -0,0 +1,26 @@
+package com.example.profpride.dto;
+
+import com.example.profpride.enums.BookingDurationType;
+import com.example.profpride.enums.BookingStatus;
+import com.example.profpride.enums.PaymentStatus;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Side-table entry of the booking grid: what the cell tooltip and details modal need, nothing more
+public record GridBooking(
+    Long id,
+    Long roomId,
+    String customerPhoneNumber,
+    String customerName,
+    String customerEmail,
+    BookingStatus bookingStatus,
+    PaymentStatus paymentStatus,
+    LocalDateTime checkInDate,
+    LocalDateTime checkOutDate,
+    BookingDurationType bookingDurationType,
+    Integer numberOfPeople,
+    BigDecimal dailyCost,
+    BigDecimal monthlyCost,
+    BigDecimal totalAmount
+) {
+}
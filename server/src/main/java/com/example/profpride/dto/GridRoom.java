@@ -0,0 +1,10 @@
+package com.example.profpride.dto;
+
+import com.example.profpride.enums.BathroomType;
+
+public record GridRoom(
+    Long id,
+    String roomNumber,
+    BathroomType bathroomType
+) {
+}
@@ -0,0 +1,10 @@
+package com.example.profpride.dto;
+
+import java.math.BigDecimal;
+
+// Native-query projection: one GROUP BY bucket with its row count and amount
+public interface GroupTotal {
+    String getKey();
+    Long getCount();
+    BigDecimal getAmount();
+}
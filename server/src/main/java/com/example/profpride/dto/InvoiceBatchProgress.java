@@ -0,0 +1,17 @@
+package com.example.profpride.dto;
+
+import com.example.profpride.enums.InvoiceBatchStatus;
+
+// invoicesPerSecond covers the current run on this instance; zero when the batch is not running here
+public record InvoiceBatchProgress(
+    String period,
+    InvoiceBatchStatus status,
+    int totalBookings,
+    int processedBookings,
+    int createdInvoices,
+    double percentComplete,
+    double invoicesPerSecond,
+    boolean zipReady,
+    String error
+) {
+}
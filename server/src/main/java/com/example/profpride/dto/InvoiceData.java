@@ -0,0 +1,56 @@
+package com.example.profpride.dto;
+
+import com.example.profpride.enums.BookingDurationType;
+import com.example.profpride.models.Booking;
+import com.example.profpride.models.Payment;
+import java.math.BigDecimal;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+// Everything an invoice prints, loaded in one query; the HTML and PDF renderers both format from here
+public record InvoiceData(
+    Booking booking,
+    String customerName,
+    String roomNumber,
+    String issuedNumber,
+    List<Payment> payments
+) {
+
+    // The booking's latest issued Invoice number; a booking that has none is marked as a draft
+    public String invoiceNumber() {
+        return issuedNumber != null ? issuedNumber : "DRAFT-" + booking.getId();
+    }
+
+    public String customerNameOrDefault() {
+        return customerName != null ? customerName : "Unknown Customer";
+    }
+
+    public String roomNumberOrDefault() {
+        return roomNumber != null ? roomNumber : "Unknown Room";
+    }
+
+    public boolean isDaily() {
+        return booking.getBookingDurationType() == BookingDurationType.DAILY;
+    }
+
+    public String durationLabel() {
+        return isDaily()
+            ? ChronoUnit.DAYS.between(booking.getCheckInDate().toLocalDate(), booking.getCheckOutDate().toLocalDate()) + " days"
+            : "1 month";
+    }
+
+    public BigDecimal rate() {
+        return isDaily() ? booking.getDailyCost() : booking.getMonthlyCost();
+    }
+
+    public BigDecimal totalPaid() {
+        return payments.stream()
+            .map(Payment::getAmount)
+            .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    public BigDecimal dueAmount() {
+        BigDecimal total = booking.getTotalAmount() != null ? booking.getTotalAmount() : BigDecimal.ZERO;
+        return total.subtract(totalPaid());
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.profpride.dto;
+
+import java.time.LocalDateTime;
+
+// Changes whenever anything printed on a booking's invoice changes: the booking row, any of its payments or a new invoice
+public record InvoiceVersion(
+    LocalDateTime bookingUpdatedAt,
+    Long latestInvoiceId,
+    Long latestPaymentId,
+    Long paymentCount,
+    LocalDateTime paymentsUpdatedAt
+) {
+}
@@ -0,0 +1,23 @@
+package com.example.profpride.dto;
+
+import org.springframework.http.HttpHeaders;
+
+import java.io.Serializable;
+import java.util.List;
+
+// One page of a list endpoint; nextCursor is null on the last page
+public record KeysetPage<T>(
+    List<T> items,
+    String nextCursor
+) implements Serializable {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    public HttpHeaders headers() {
+        HttpHeaders headers = new HttpHeaders();
+        if (nextCursor != null) {
+            headers.add(NEXT_CURSOR_HEADER, nextCursor);
+        }
+        return headers;
+    }
+}
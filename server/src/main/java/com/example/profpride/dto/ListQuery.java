@@ -0,0 +1,13 @@
+package com.example.profpride.dto;
+
+/**
+ * Paging/sorting parameters shared by the list endpoints: ?after=<id>&limit=&sort=&direction=.
+ * after is the id of the last row of the previous page (the X-Next-Cursor header value).
+ */
+public record ListQuery(
+    String after,
+    Integer limit,
+    String sort,
+    String direction
+) {
+}
@@ -0,0 +1,16 @@
+package com.example.profpride.dto;
+
+import com.example.profpride.models.Payment;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// The payment fields daily_snapshot rows are derived from; captured on load so a write can be applied as a delta
+public record PaymentFacts(
+    LocalDateTime paymentDate,
+    BigDecimal amount
+) {
+
+    public static PaymentFacts of(Payment payment) {
+        return new PaymentFacts(payment.getPaymentDate(), payment.getAmount());
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.profpride.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record PendingDueSummary(
+    Long bookingId,
+    String customerName,
+    String roomNumber,
+    String phoneNumber,
+    BigDecimal dueAmount,
+    @JsonFormat(pattern = "yyyy-MM-dd") LocalDateTime checkInDate,
+    @JsonFormat(pattern = "yyyy-MM-dd") LocalDateTime checkOutDate
+) {
+}
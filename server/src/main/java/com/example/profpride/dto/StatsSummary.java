@@ -0,0 +1,27 @@
+package com.example.profpride.dto;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+public record StatsSummary(
+    String date,
+    BigDecimal todayRevenue,
+    BigDecimal thisMonthRevenue,
+    BigDecimal todayExpensesTotal,
+    BigDecimal thisMonthExpensesTotal,
+    long totalBookings,
+    long confirmedBookings,
+    long pendingBookings,
+    BigDecimal avgBookingValue,
+    double avgStayDuration,
+    double paymentCollectionRate,
+    long totalCustomers,
+    long customersWithBookings,
+    double customerRetentionRate,
+    double bookingConversionRate,
+    String topRoomId,
+    long topRoomBookings,
+    Map<String, Long> paymentMethods,
+    Map<String, BigDecimal> expenseCategories
+) {
+}
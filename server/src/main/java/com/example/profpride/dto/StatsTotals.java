@@ -0,0 +1,20 @@
+package com.example.profpride.dto;
+
+import java.math.BigDecimal;
+
+// Native-query projection: the stats screen's headline numbers in one round trip
+public interface StatsTotals {
+    BigDecimal getTodayRevenue();
+    BigDecimal getMonthRevenue();
+    BigDecimal getTodayExpenses();
+    BigDecimal getMonthExpenses();
+    Long getTotalBookings();
+    Long getActiveBookings();
+    Long getPendingBookings();
+    BigDecimal getAvgBookingValue();
+    Double getAvgStayDays();
+    Long getTotalPayments();
+    Long getCompletedPayments();
+    Long getTotalCustomers();
+    Long getCustomersWithBookings();
+}
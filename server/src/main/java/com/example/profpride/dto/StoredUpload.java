@@ -0,0 +1,5 @@
+package com.example.profpride.dto;
+
+// Where an upload ended up; thumbnailUrl is null for documents that are not decodable images (PDFs, HEIC)
+public record StoredUpload(String url, String thumbnailUrl) {
+}
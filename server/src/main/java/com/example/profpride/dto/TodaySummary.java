@@ -0,0 +1,21 @@
+package com.example.profpride.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record TodaySummary(
+    String date,
+    long totalCustomers,
+    long totalRooms,
+    long availableRooms,
+    long occupiedRooms,
+    double occupancyRate,
+    long todayBookings,
+    List<BookingSummary> checkIns,
+    List<BookingSummary> checkOuts,
+    List<PendingDueSummary> pendingDues,
+    BigDecimal revenue,
+    BigDecimal pendingDuesAmount,
+    BigDecimal collectedAmount
+) {
+}
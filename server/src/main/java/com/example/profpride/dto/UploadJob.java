@@ -0,0 +1,39 @@
+package com.example.profpride.dto;
+
+import com.example.profpride.enums.UploadJobStatus;
+
+import java.time.LocalDateTime;
+
+// Snapshot of a background upload; replaced wholesale on every state change
+public record UploadJob(
+    String id,
+    UploadJobStatus status,
+    String url,
+    String thumbnailUrl,
+    String error,
+    int attempts,
+    LocalDateTime createdAt,
+    LocalDateTime updatedAt
+) {
+
+    public static UploadJob pending(String id) {
+        LocalDateTime now = LocalDateTime.now();
+        return new UploadJob(id, UploadJobStatus.PENDING, null, null, null, 0, now, now);
+    }
+
+    public UploadJob running() {
+        return new UploadJob(id, UploadJobStatus.RUNNING, null, null, error, attempts + 1, createdAt, LocalDateTime.now());
+    }
+
+    public UploadJob retrying(String lastError) {
+        return new UploadJob(id, UploadJobStatus.PENDING, null, null, lastError, attempts, createdAt, LocalDateTime.now());
+    }
+
+    public UploadJob succeeded(StoredUpload result) {
+        return new UploadJob(id, UploadJobStatus.SUCCEEDED, result.url(), result.thumbnailUrl(), null, attempts, createdAt, LocalDateTime.now());
+    }
+
+    public UploadJob failed(String lastError) {
+        return new UploadJob(id, UploadJobStatus.FAILED, null, null, lastError, attempts, createdAt, LocalDateTime.now());
+    }
+}
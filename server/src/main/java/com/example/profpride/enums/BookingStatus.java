@@ -1,5 +1,8 @@
 package com.example.profpride.enums;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum BookingStatus {
     PENDING,        // New booking request awaiting confirmation
     CONFIRMED,      // Booking confirmed and ready for check-in
@@ -7,5 +10,12 @@ public enum BookingStatus {
     CHECKEDOUT,     // Guest has checked out
     CANCELLED,      // Booking cancelled
     NO_SHOW,        // Guest didn't show up for check-in
-    COMPLETED       // Booking completed (alternative to CHECKEDOUT)
+    COMPLETED;      // Booking completed (alternative to CHECKEDOUT)
+
+    // Statuses that hold the room for their date range
+    public static final Set<BookingStatus> BLOCKING = EnumSet.of(CONFIRMED, CHECKEDIN);
+
+    public boolean isBlocking() {
+        return BLOCKING.contains(this);
+    }
 }
@@ -0,0 +1,5 @@
+package com.example.profpride.enums;
+
+public enum UploadJobStatus {
+    PENDING, RUNNING, SUCCEEDED, FAILED
+}
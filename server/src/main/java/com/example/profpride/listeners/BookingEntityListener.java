@@ -0,0 +1,55 @@
+package com.example.profpride.listeners;
+
+import com.example.profpride.dto.BookingFacts;
+import com.example.profpride.models.Booking;
+import com.example.profpride.services.DailySnapshotService;
+import com.example.profpride.services.InvoicePdfService;
+import com.example.profpride.services.RoomAvailabilityIndex;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+public class BookingEntityListener {
+
+    // Resolved lazily: Hibernate creates listeners while the EntityManagerFactory is still being built
+    @Autowired
+    private ObjectProvider<RoomAvailabilityIndex> availabilityIndex;
+
+    @Autowired
+    private ObjectProvider<DailySnapshotService> dailySnapshotService;
+
+    @Autowired
+    private ObjectProvider<InvoicePdfService> invoicePdfService;
+
+    @PostLoad
+    public void afterLoad(Booking booking) {
+        booking.setLoadedFacts(BookingFacts.of(booking));
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void afterSave(Booking booking) {
+        BookingFacts before = booking.getLoadedFacts();
+        BookingFacts after = BookingFacts.of(booking);
+        booking.setLoadedFacts(after);
+        // Snapshot deltas join the writing transaction, so they commit or roll back with the booking
+        dailySnapshotService.getObject().onBookingWritten(before, after);
+        AfterCommit.run(() -> {
+            availabilityIndex.getObject().onBookingSaved(booking);
+            invoicePdfService.getObject().requestRender(booking.getId());
+        });
+    }
+
+    @PostRemove
+    public void afterDelete(Booking booking) {
+        Long bookingId = booking.getId();
+        BookingFacts before = booking.getLoadedFacts() != null ? booking.getLoadedFacts() : BookingFacts.of(booking);
+        dailySnapshotService.getObject().onBookingWritten(before, null);
+        AfterCommit.run(() -> availabilityIndex.getObject().onBookingDeleted(bookingId));
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.profpride.listeners;
+
+import com.example.profpride.models.Invoice;
+import com.example.profpride.services.InvoiceNumberService;
+import jakarta.persistence.PrePersist;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+public class InvoiceEntityListener {
+
+    @Autowired
+    private ObjectProvider<InvoiceNumberService> invoiceNumberService;
+
+    @PrePersist
+    public void assignNumber(Invoice invoice) {
+        if (invoice.getInvoiceNumber() == null) {
+            invoice.setInvoiceNumber(invoiceNumberService.getObject().next());
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.profpride.listeners;
+
+import com.example.profpride.dto.PaymentFacts;
+import com.example.profpride.models.Payment;
+import com.example.profpride.services.DailySnapshotService;
+import com.example.profpride.services.InvoicePdfService;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PaymentEntityListener {
+
+    @Autowired
+    private ObjectProvider<DailySnapshotService> dailySnapshotService;
+
+    @Autowired
+    private ObjectProvider<InvoicePdfService> invoicePdfService;
+
+    @PostLoad
+    public void afterLoad(Payment payment) {
+        payment.setLoadedFacts(PaymentFacts.of(payment));
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void afterSave(Payment payment) {
+        PaymentFacts before = payment.getLoadedFacts();
+        PaymentFacts after = PaymentFacts.of(payment);
+        payment.setLoadedFacts(after);
+        dailySnapshotService.getObject().onPaymentWritten(before, after);
+        requestRender(payment.getBookingId());
+    }
+
+    @PostRemove
+    public void afterDelete(Payment payment) {
+        PaymentFacts before = payment.getLoadedFacts() != null ? payment.getLoadedFacts() : PaymentFacts.of(payment);
+        dailySnapshotService.getObject().onPaymentWritten(before, null);
+        requestRender(payment.getBookingId());
+    }
+
+    private void requestRender(Long bookingId) {
+        AfterCommit.run(() -> invoicePdfService.getObject().requestRender(bookingId));
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.profpride.listeners;
+
+import com.example.profpride.models.Room;
+import com.example.profpride.services.RoomAvailabilityIndex;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+public class RoomEntityListener {
+
+    @Autowired
+    private ObjectProvider<RoomAvailabilityIndex> availabilityIndex;
+
+    @PostPersist
+    @PostUpdate
+    public void afterSave(Room room) {
+        AfterCommit.run(() -> availabilityIndex.getObject().onRoomSaved(room));
+    }
+
+    @PostRemove
+    public void afterDelete(Room room) {
+        Long roomId = room.getId();
+        AfterCommit.run(() -> availabilityIndex.getObject().onRoomDeleted(roomId));
+    }
+}
@@ -3,15 +3,18 @@ package com.example.profpride.models;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import java.io.Serializable;
 import java.time.LocalDateTime;
 
 @MappedSuperclass
 @Getter
 @Setter
-public abstract class BaseEntity {
+public abstract class BaseEntity implements Serializable {
     
+    // From {table}_id_seq in blocks of 50 (pooled-lo), so inserts can be JDBC-batched; see IdSequenceNamingStrategy
+    // and IdOptimizerCustomizer
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
     private Long id;
     
     @Column(name = "created_at")
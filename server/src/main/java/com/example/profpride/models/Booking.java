@@ -1,6 +1,8 @@
 package com.example.profpride.models;
 
 import jakarta.persistence.*;
+import com.example.profpride.dto.BookingFacts;
+import com.example.profpride.listeners.BookingEntityListener;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -13,6 +15,7 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(BookingEntityListener.class)
 @Table(name = "booking")
 @Getter
 @Setter
@@ -69,4 +72,9 @@ public class Booking extends BaseEntity {
     
     @Column(name = "remarks", length = 500)
     private String remarks;
+
+    // State as last loaded or written, for the daily_snapshot deltas in the entity listener
+    @Transient
+    @JsonIgnore
+    private BookingFacts loadedFacts;
 }
@@ -1,11 +1,13 @@
 package com.example.profpride.models;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import java.util.List;
+import java.util.Map;
 
 @Entity
 @Table(name = "customer")
@@ -25,6 +27,8 @@ public class Customer extends BaseEntityWithCustomId {
     @Column(name = "email")
     private String email;
     
+    // Accepted on register, never echoed back: the stored value is a hash
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     @Column(name = "password")
     private String password;
     
@@ -45,6 +49,13 @@ public class Customer extends BaseEntityWithCustomId {
     @Column(name = "id_proof_url", columnDefinition = "TEXT")
     private List<String> idProofUrls;
     
+    // Preview-sized copy of each image proof, keyed by the full-size URL (PDFs have no entry)
+    @ElementCollection
+    @CollectionTable(name = "customer_id_proof_thumbnails", joinColumns = @JoinColumn(name = "customer_phone_number"))
+    @MapKeyColumn(name = "id_proof_url", columnDefinition = "TEXT")
+    @Column(name = "thumbnail_url", columnDefinition = "TEXT")
+    private Map<String, String> idProofThumbnailUrls;
+    
     @Column(name = "remarks", columnDefinition = "TEXT")
     private String remarks;
     
@@ -0,0 +1,58 @@
+package com.example.profpride.models;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "daily_snapshot")
+@Getter
+@Setter
+@NoArgsConstructor
+public class DailySnapshot extends BaseEntityWithCustomId {
+
+    @Id
+    @Column(name = "snapshot_date")
+    private LocalDate snapshotDate;
+
+    @Column(name = "check_ins_due", nullable = false)
+    private Long checkInsDue = 0L;
+
+    @Column(name = "check_outs_due", nullable = false)
+    private Long checkOutsDue = 0L;
+
+    @Column(name = "today_bookings", nullable = false)
+    private Long todayBookings = 0L;
+
+    // Rooms held by a CONFIRMED/CHECKEDIN booking at any point of the day
+    @Column(name = "booked_rooms", nullable = false)
+    private Long bookedRooms = 0L;
+
+    @Column(name = "revenue", precision = 14, scale = 2, nullable = false)
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    @Column(name = "pending_dues_count", nullable = false)
+    private Long pendingDuesCount = 0L;
+
+    @Column(name = "pending_dues_amount", precision = 14, scale = 2, nullable = false)
+    private BigDecimal pendingDuesAmount = BigDecimal.ZERO;
+
+    // Payments dated on this day
+    @Column(name = "collected_amount", precision = 14, scale = 2, nullable = false)
+    private BigDecimal collectedAmount = BigDecimal.ZERO;
+
+    // Set by booking/payment listeners; a stale row is recomputed on next read or by the nightly job
+    @Column(name = "is_stale", nullable = false)
+    private Boolean stale = false;
+
+    @Version
+    @Column(name = "version")
+    private Long version;
+
+    public DailySnapshot(LocalDate snapshotDate) {
+        this.snapshotDate = snapshotDate;
+    }
+}
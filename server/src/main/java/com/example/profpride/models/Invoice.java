@@ -5,9 +5,11 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import com.example.profpride.listeners.InvoiceEntityListener;
 import java.math.BigDecimal;
 
 @Entity
+@EntityListeners(InvoiceEntityListener.class)
 @Table(name = "invoice")
 @Getter
 @Setter
@@ -18,6 +20,7 @@ public class Invoice extends BaseEntity {
     @Column(name = "booking_id", nullable = false)
     private Long bookingId;
 
+    // Assigned by InvoiceEntityListener from InvoiceNumberService when not given
     @Column(name = "invoice_number", length = 50, nullable = false, unique = true)
     private String invoiceNumber;
 
@@ -39,11 +42,7 @@ public class Invoice extends BaseEntity {
     @Column(name = "pdf_url", length = 500)
     private String pdfUrl;
 
-    @PrePersist
-    protected void onCreate() {
-        super.onCreate();
-        if (invoiceNumber == null) {
-            invoiceNumber = "INV-" + System.currentTimeMillis();
-        }
-    }
+    // yyyy-MM for invoices issued by the month-end batch; null for ad-hoc invoices
+    @Column(name = "billing_period", length = 7)
+    private String billingPeriod;
 }
@@ -0,0 +1,55 @@
+package com.example.profpride.models;
+
+import com.example.profpride.enums.InvoiceBatchStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.time.LocalDateTime;
+
+// One month-end invoicing run; lastBookingId is the checkpoint a restarted run resumes after
+@Entity
+@Table(name = "invoice_batch")
+@Getter
+@Setter
+@NoArgsConstructor
+public class InvoiceBatch extends BaseEntity {
+
+    // yyyy-MM
+    @Column(name = "period", length = 7, nullable = false, unique = true)
+    private String period;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 20, nullable = false)
+    private InvoiceBatchStatus status = InvoiceBatchStatus.RUNNING;
+
+    @Column(name = "total_bookings", nullable = false)
+    private Integer totalBookings = 0;
+
+    @Column(name = "processed_bookings", nullable = false)
+    private Integer processedBookings = 0;
+
+    @Column(name = "created_invoices", nullable = false)
+    private Integer createdInvoices = 0;
+
+    @Column(name = "last_booking_id", nullable = false)
+    private Long lastBookingId = 0L;
+
+    @Column(name = "zip_path", length = 500)
+    private String zipPath;
+
+    @Column(name = "error_message", length = 500)
+    private String errorMessage;
+
+    // Refreshed with every checkpoint; a RUNNING batch whose heartbeat is older than the lease is resumed
+    @Column(name = "heartbeat_at")
+    private LocalDateTime heartbeatAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    // Two instances resuming the same batch: the second checkpoint fails and that run stops
+    @Version
+    @Column(name = "version")
+    private Long version;
+}
@@ -1,16 +1,20 @@
 package com.example.profpride.models;
 
 import jakarta.persistence.*;
+import com.example.profpride.dto.PaymentFacts;
 import lombok.AllArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import com.example.profpride.enums.PaymentMode;
 import com.example.profpride.enums.PaymentStatus;
+import com.example.profpride.listeners.PaymentEntityListener;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(PaymentEntityListener.class)
 @Table(name = "payment")
 @Getter
 @Setter
@@ -35,12 +39,20 @@ public class Payment extends BaseEntity {
     @Column(name = "payment_screenshot_url", length = 500)
     private String paymentScreenshotUrl;
 
+    @Column(name = "payment_screenshot_thumbnail_url", length = 500)
+    private String paymentScreenshotThumbnailUrl;
+
     @Column(name = "transaction_id", length = 255)
     private String transactionId;
 
     @Column(name = "payment_date")
     private LocalDateTime paymentDate;
 
+    // State as last loaded or written, for the daily_snapshot deltas in the entity listener
+    @Transient
+    @JsonIgnore
+    private PaymentFacts loadedFacts;
+
     @PrePersist
     protected void onCreate() {
         super.onCreate();
@@ -6,8 +6,10 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import com.example.profpride.enums.BathroomType;
+import com.example.profpride.listeners.RoomEntityListener;
 
 @Entity
+@EntityListeners(RoomEntityListener.class)
 @Table(name = "room")
 @Getter
 @Setter
@@ -0,0 +1,37 @@
+package com.example.profpride.models;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Dedup index: one row per distinct upload (by SHA-256 of its bytes) per owner, folder and backend
+@Entity
+@Table(name = "stored_document", uniqueConstraints = @UniqueConstraint(
+    name = "uk_stored_document_content", columnNames = {"backend", "owner", "folder", "sha256"}))
+@Getter
+@Setter
+@NoArgsConstructor
+public class StoredDocument extends BaseEntity {
+
+    @Column(name = "backend", nullable = false, length = 20)
+    private String backend;
+
+    @Column(name = "owner", nullable = false, length = 64)
+    private String owner;
+
+    @Column(name = "folder", nullable = false, length = 64)
+    private String folder;
+
+    @Column(name = "sha256", nullable = false, length = 64)
+    private String sha256;
+
+    @Column(name = "url", nullable = false, length = 500)
+    private String url;
+
+    @Column(name = "thumbnail_url", length = 500)
+    private String thumbnailUrl;
+
+    @Column(name = "size_bytes", nullable = false)
+    private Long sizeBytes;
+}
@@ -1,17 +1,33 @@
 package com.example.profpride.repositories;
 
+import com.example.profpride.dto.BookingSummary;
+import com.example.profpride.dto.DailyAggregates;
+import com.example.profpride.dto.GridBooking;
+import com.example.profpride.dto.GroupTotal;
+import com.example.profpride.dto.InvoiceVersion;
+import com.example.profpride.dto.PendingDueSummary;
+import com.example.profpride.dto.StatsTotals;
 import com.example.profpride.models.Booking;
 import com.example.profpride.models.Room;
+import com.example.profpride.enums.BookingDurationType;
 import com.example.profpride.enums.BookingStatus;
 import com.example.profpride.enums.PaymentStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.QueryHints;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, JpaSpecificationExecutor<Booking> {
     List<Booking> findByRoom(Room room);
     List<Booking> findByCustomerPhoneNumber(String customerPhoneNumber);
     List<Booking> findByBookingStatus(BookingStatus status);
@@ -27,4 +43,152 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
         List<Booking> findByCheckInDateBetweenOrCheckOutDateBetween(LocalDateTime start1, LocalDateTime end1, LocalDateTime start2, LocalDateTime end2);
         
         List<Booking> findByPaymentStatus(PaymentStatus paymentStatus);
+
+    // The room-holding statuses (BookingStatus.BLOCKING) written out as literals. Postgres only uses a partial
+    // index when the query itself implies the index predicate, which a bound IN (?, ?) list never does.
+    String BLOCKING_STATUSES = "(com.example.profpride.enums.BookingStatus.CONFIRMED, " +
+                               "com.example.profpride.enums.BookingStatus.CHECKEDIN)";
+
+    // Set-based availability: one anti-join instead of loading each room's booking history.
+    // Served by the partial (room_id, check_in_date, check_out_date) index from V1__booking_room_dates_index.sql
+    @Query("SELECT r FROM Room r WHERE NOT EXISTS (" +
+           "SELECT 1 FROM Booking b WHERE b.roomId = r.id AND b.bookingStatus IN " + BLOCKING_STATUSES + " " +
+           "AND b.checkInDate < :checkOut AND b.checkOutDate > :checkIn) ORDER BY r.id")
+    List<Room> findAvailableRooms(LocalDateTime checkIn, LocalDateTime checkOut);
+
+    @Query("SELECT COUNT(b) > 0 FROM Booking b WHERE b.roomId = :roomId AND b.bookingStatus IN " + BLOCKING_STATUSES + " " +
+           "AND b.checkInDate < :checkOut AND b.checkOutDate > :checkIn")
+    boolean existsOverlappingBooking(Long roomId, LocalDateTime checkIn, LocalDateTime checkOut);
+
+    @Query("SELECT COUNT(b) > 0 FROM Booking b WHERE b.roomId = :roomId AND b.id <> :bookingId " +
+           "AND b.bookingStatus IN " + BLOCKING_STATUSES + " AND b.checkInDate < :checkOut AND b.checkOutDate > :checkIn")
+    boolean existsOverlappingBookingExcluding(Long roomId, Long bookingId, LocalDateTime checkIn, LocalDateTime checkOut);
+
+    @Query("SELECT b.roomId FROM Booking b WHERE b.id = :id")
+    Optional<Long> findRoomIdById(Long id);
+
+    // Dashboard projections: booking joined to customer and room in the same statement, no per-row lookups
+    @Query("SELECT new com.example.profpride.dto.BookingSummary(b.id, COALESCE(c.name, 'Unknown Customer'), " +
+           "COALESCE(r.roomNumber, CONCAT('Room ', CAST(b.roomId AS String))), b.customerPhoneNumber, b.bookingStatus) " +
+           "FROM Booking b LEFT JOIN b.room r LEFT JOIN Customer c ON c.phoneNumber = b.customerPhoneNumber " +
+           "WHERE b.checkInDate BETWEEN :start AND :end AND b.bookingStatus = :status")
+    List<BookingSummary> findCheckInSummaries(LocalDateTime start, LocalDateTime end, BookingStatus status);
+
+    @Query("SELECT new com.example.profpride.dto.BookingSummary(b.id, COALESCE(c.name, 'Unknown Customer'), " +
+           "COALESCE(r.roomNumber, CONCAT('Room ', CAST(b.roomId AS String))), b.customerPhoneNumber, b.bookingStatus) " +
+           "FROM Booking b LEFT JOIN b.room r LEFT JOIN Customer c ON c.phoneNumber = b.customerPhoneNumber " +
+           "WHERE b.checkOutDate BETWEEN :start AND :end AND b.bookingStatus = :status")
+    List<BookingSummary> findCheckOutSummaries(LocalDateTime start, LocalDateTime end, BookingStatus status);
+
+    @Query("SELECT new com.example.profpride.dto.PendingDueSummary(b.id, COALESCE(c.name, 'Unknown Customer'), " +
+           "COALESCE(r.roomNumber, CONCAT('Room ', CAST(b.roomId AS String))), b.customerPhoneNumber, b.totalAmount, " +
+           "b.checkInDate, b.checkOutDate) " +
+           "FROM Booking b LEFT JOIN b.room r LEFT JOIN Customer c ON c.phoneNumber = b.customerPhoneNumber " +
+           "WHERE b.paymentStatus = :paymentStatus")
+    List<PendingDueSummary> findPendingDueSummaries(PaymentStatus paymentStatus);
+
+    @Query(value = "SELECT " +
+                   "(SELECT COUNT(*) FROM booking WHERE check_in_date >= :start AND check_in_date < :end " +
+                   "AND booking_status = 'CONFIRMED') AS \"checkInsDue\", " +
+                   "(SELECT COUNT(*) FROM booking WHERE check_out_date >= :start AND check_out_date < :end " +
+                   "AND booking_status = 'CHECKEDIN') AS \"checkOutsDue\", " +
+                   "(SELECT COUNT(*) FROM booking WHERE (check_in_date >= :start AND check_in_date < :end) " +
+                   "OR (check_out_date >= :start AND check_out_date < :end)) AS \"todayBookings\", " +
+                   "(SELECT COUNT(DISTINCT room_id) FROM booking WHERE booking_status IN ('CONFIRMED', 'CHECKEDIN') " +
+                   "AND check_in_date < :end AND check_out_date > :start) AS \"bookedRooms\", " +
+                   "(SELECT COALESCE(SUM(total_amount), 0) FROM booking) AS \"revenue\", " +
+                   "(SELECT COUNT(*) FROM booking WHERE payment_status = 'PENDING') AS \"pendingDuesCount\", " +
+                   "(SELECT COALESCE(SUM(total_amount), 0) FROM booking WHERE payment_status = 'PENDING') AS \"pendingDuesAmount\", " +
+                   "(SELECT COALESCE(SUM(amount), 0) FROM payment WHERE payment_date >= :start " +
+                   "AND payment_date < :end) AS \"collectedAmount\"",
+           nativeQuery = true)
+    DailyAggregates computeDailyAggregates(LocalDateTime start, LocalDateTime end);
+
+    // Stats screen: totals over booking, payment, expense and customer without loading any rows
+    @Query(value = "SELECT " +
+                   "(SELECT COALESCE(SUM(amount), 0) FROM payment WHERE payment_date >= :dayStart " +
+                   "AND payment_date < :dayEnd) AS \"todayRevenue\", " +
+                   "(SELECT COALESCE(SUM(amount), 0) FROM payment WHERE payment_date >= :monthStart " +
+                   "AND payment_date < :monthEnd) AS \"monthRevenue\", " +
+                   "(SELECT COALESCE(SUM(amount), 0) FROM expense WHERE expense_date = CAST(:dayStart AS date)) AS \"todayExpenses\", " +
+                   "(SELECT COALESCE(SUM(amount), 0) FROM expense WHERE expense_date >= CAST(:monthStart AS date) " +
+                   "AND expense_date < CAST(:monthEnd AS date)) AS \"monthExpenses\", " +
+                   "(SELECT COUNT(*) FROM booking) AS \"totalBookings\", " +
+                   "(SELECT COUNT(*) FROM booking WHERE booking_status IN ('CONFIRMED', 'CHECKEDIN')) AS \"activeBookings\", " +
+                   "(SELECT COUNT(*) FROM booking WHERE booking_status = 'PENDING') AS \"pendingBookings\", " +
+                   "(SELECT COALESCE(AVG(total_amount), 0) FROM booking) AS \"avgBookingValue\", " +
+                   "(SELECT COALESCE(AVG(CEIL(ABS(EXTRACT(EPOCH FROM check_out_date - check_in_date)) / 86400)), 0) " +
+                   "FROM booking) AS \"avgStayDays\", " +
+                   "(SELECT COUNT(*) FROM payment) AS \"totalPayments\", " +
+                   "(SELECT COUNT(*) FROM payment WHERE payment_status = 'COMPLETED') AS \"completedPayments\", " +
+                   "(SELECT COUNT(*) FROM customer) AS \"totalCustomers\", " +
+                   "(SELECT COUNT(DISTINCT customer_phone_number) FROM booking) AS \"customersWithBookings\"",
+           nativeQuery = true)
+    StatsTotals findStatsTotals(LocalDateTime dayStart, LocalDateTime dayEnd, LocalDateTime monthStart, LocalDateTime monthEnd);
+
+    @Query(value = "SELECT CAST(room_id AS varchar) AS \"key\", COUNT(*) AS \"count\", " +
+                   "COALESCE(SUM(total_amount), 0) AS \"amount\" FROM booking " +
+                   "GROUP BY room_id ORDER BY COUNT(*) DESC LIMIT 1",
+           nativeQuery = true)
+    Optional<GroupTotal> findBusiestRoom();
+
+    // Booking grid: every non-cancelled stay intersecting the window, with the customer joined in
+    @Query("SELECT new com.example.profpride.dto.GridBooking(b.id, b.roomId, b.customerPhoneNumber, " +
+           "COALESCE(c.name, CONCAT('Customer ', b.customerPhoneNumber)), c.email, b.bookingStatus, b.paymentStatus, " +
+           "b.checkInDate, b.checkOutDate, b.bookingDurationType, b.numberOfPeople, b.dailyCost, b.monthlyCost, b.totalAmount) " +
+           "FROM Booking b LEFT JOIN Customer c ON c.phoneNumber = b.customerPhoneNumber " +
+           "WHERE b.bookingStatus <> :excluded AND b.checkInDate <= :lastDayStart AND b.checkOutDate > :firstDayStart " +
+           "ORDER BY b.id")
+    List<GridBooking> findGridBookings(LocalDateTime firstDayStart, LocalDateTime lastDayStart, BookingStatus excluded);
+
+    // NDJSON export: server-side cursor read 500 rows per round trip, no dirty checking
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b FROM Booking b ORDER BY b.id")
+    Stream<Booking> streamAll();
+
+    // Invoice data in one statement: one row per payment (a single row with a null payment when there are none)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT b, r.roomNumber, c.name, p, " +
+           "(SELECT i.invoiceNumber FROM Invoice i WHERE i.id = (SELECT MAX(li.id) FROM Invoice li WHERE li.bookingId = b.id)) " +
+           "FROM Booking b LEFT JOIN b.room r " +
+           "LEFT JOIN Customer c ON c.phoneNumber = b.customerPhoneNumber " +
+           "LEFT JOIN Payment p ON p.bookingId = b.id WHERE b.id = :bookingId ORDER BY p.paymentDate, p.id")
+    List<Object[]> findInvoiceRows(Long bookingId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT b, r.roomNumber, c.name, p, " +
+           "(SELECT i.invoiceNumber FROM Invoice i WHERE i.id = (SELECT MAX(li.id) FROM Invoice li WHERE li.bookingId = b.id)) " +
+           "FROM Booking b LEFT JOIN b.room r " +
+           "LEFT JOIN Customer c ON c.phoneNumber = b.customerPhoneNumber " +
+           "LEFT JOIN Payment p ON p.bookingId = b.id WHERE b.id IN :bookingIds ORDER BY b.id, p.paymentDate, p.id")
+    List<Object[]> findInvoiceRowsByIds(Collection<Long> bookingIds);
+
+    @Query("SELECT new com.example.profpride.dto.InvoiceVersion(b.updatedAt, " +
+           "(SELECT MAX(i.id) FROM Invoice i WHERE i.bookingId = b.id), MAX(p.id), COUNT(p), MAX(p.updatedAt)) " +
+           "FROM Booking b LEFT JOIN Payment p ON p.bookingId = b.id WHERE b.id = :bookingId GROUP BY b.id, b.updatedAt")
+    Optional<InvoiceVersion> findInvoiceVersion(Long bookingId);
+
+    // Month-end batch: keyset over bookings whose stay overlaps the billing period, resumable after any id
+    @Query("SELECT b FROM Booking b WHERE b.bookingDurationType = :durationType AND b.bookingStatus IN :statuses " +
+           "AND b.checkInDate < :periodEnd AND b.checkOutDate > :periodStart AND b.id > :afterId ORDER BY b.id")
+    List<Booking> findBillableAfter(BookingDurationType durationType, Collection<BookingStatus> statuses,
+                                    LocalDateTime periodStart, LocalDateTime periodEnd, Long afterId, Pageable page);
+
+    @Query("SELECT COUNT(b) FROM Booking b WHERE b.bookingDurationType = :durationType AND b.bookingStatus IN :statuses " +
+           "AND b.checkInDate < :periodEnd AND b.checkOutDate > :periodStart")
+    long countBillable(BookingDurationType durationType, Collection<BookingStatus> statuses,
+                       LocalDateTime periodStart, LocalDateTime periodEnd);
+
+    // Availability index bulk load - only the columns needed to place a booking on a room timeline
+    List<BookingSpan> findByBookingStatusIn(Collection<BookingStatus> statuses);
+
+    interface BookingSpan {
+        Long getId();
+        Long getRoomId();
+        LocalDateTime getCheckInDate();
+        LocalDateTime getCheckOutDate();
+    }
 }
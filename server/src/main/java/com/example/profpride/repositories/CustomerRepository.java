@@ -1,10 +1,36 @@
 package com.example.profpride.repositories;
 
+import com.example.profpride.dto.CustomerSummary;
 import com.example.profpride.models.Customer;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
 
 @Repository
-public interface CustomerRepository extends JpaRepository<Customer, String> {
+public interface CustomerRepository extends JpaRepository<Customer, String>, JpaSpecificationExecutor<Customer> {
     Customer findByPhoneNumber(String phoneNumber);
+
+    // Scalar columns only; keeps the idProofUrls collection out of the near-cache load
+    @Query("SELECT new com.example.profpride.dto.CustomerSummary(c.phoneNumber, c.name, c.email, c.additionalPhoneNumber, c.idProofSubmitted) " +
+           "FROM Customer c WHERE c.phoneNumber = :phoneNumber")
+    Optional<CustomerSummary> findSummaryByPhoneNumber(String phoneNumber);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Customer c SET c.idProofSubmitted = :idProofSubmitted, c.updatedAt = :updatedAt WHERE c.phoneNumber = :phoneNumber")
+    int updateIdProofSubmitted(String phoneNumber, Boolean idProofSubmitted, LocalDateTime updatedAt);
+
+    @Query("SELECT c.password FROM Customer c WHERE c.phoneNumber = :phoneNumber")
+    Optional<String> findPasswordByPhoneNumber(String phoneNumber);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Customer c SET c.password = :password WHERE c.phoneNumber = :phoneNumber")
+    int updatePassword(String phoneNumber, String password);
 }
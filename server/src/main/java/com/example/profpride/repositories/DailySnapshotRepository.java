@@ -0,0 +1,14 @@
+package com.example.profpride.repositories;
+
+import com.example.profpride.models.DailySnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailySnapshotRepository extends JpaRepository<DailySnapshot, LocalDate> {
+
+    List<DailySnapshot> findByStaleTrue();
+}
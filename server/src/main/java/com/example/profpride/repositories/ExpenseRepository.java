@@ -1,12 +1,20 @@
 package com.example.profpride.repositories;
 
+import com.example.profpride.dto.GroupTotal;
 import com.example.profpride.models.Expense;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
 @Repository
-public interface ExpenseRepository extends JpaRepository<Expense, Long> {
+public interface ExpenseRepository extends JpaRepository<Expense, Long>, JpaSpecificationExecutor<Expense> {
     List<Expense> findByCategory(com.example.profpride.enums.ExpenseCategory category);
+
+    @Query(value = "SELECT category AS \"key\", COUNT(*) AS \"count\", COALESCE(SUM(amount), 0) AS \"amount\" " +
+                   "FROM expense GROUP BY category",
+           nativeQuery = true)
+    List<GroupTotal> totalsByCategory();
 }
@@ -0,0 +1,17 @@
+package com.example.profpride.repositories;
+
+import com.example.profpride.enums.InvoiceBatchStatus;
+import com.example.profpride.models.InvoiceBatch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface InvoiceBatchRepository extends JpaRepository<InvoiceBatch, Long> {
+
+    Optional<InvoiceBatch> findByPeriod(String period);
+
+    List<InvoiceBatch> findByStatus(InvoiceBatchStatus status);
+}
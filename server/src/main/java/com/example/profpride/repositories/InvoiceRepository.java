@@ -2,11 +2,30 @@ package com.example.profpride.repositories;
 
 import com.example.profpride.models.Invoice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
+public interface InvoiceRepository extends JpaRepository<Invoice, Long>, JpaSpecificationExecutor<Invoice> {
     List<Invoice> findByBookingId(Long bookingId);
+
+    boolean existsByBookingId(Long bookingId);
+
+    // (bookingId, invoiceNumber) pairs already issued for a billing period
+    @Query("SELECT i.bookingId, i.invoiceNumber FROM Invoice i WHERE i.billingPeriod = :billingPeriod")
+    List<Object[]> findNumbersByBillingPeriod(String billingPeriod);
+
+    @Query("SELECT i.bookingId, i.invoiceNumber FROM Invoice i WHERE i.billingPeriod = :billingPeriod AND i.bookingId IN :bookingIds")
+    List<Object[]> findNumbersByBillingPeriod(String billingPeriod, Collection<Long> bookingIds);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Invoice i SET i.pdfUrl = :pdfUrl WHERE i.bookingId = :bookingId")
+    int updatePdfUrl(Long bookingId, String pdfUrl);
 }
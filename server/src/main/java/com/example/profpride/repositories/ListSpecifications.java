@@ -0,0 +1,67 @@
+package com.example.profpride.repositories;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Filter building blocks for the list endpoints. Each returns null for a missing value so
+ * callers can chain optional filters with Specification.and without null checks.
+ */
+public final class ListSpecifications {
+
+    private ListSpecifications() {
+    }
+
+    public static <T> Specification<T> equalTo(String attribute, Object value) {
+        if (value == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get(attribute), value);
+    }
+
+    public static <T> Specification<T> containsIgnoreCase(String attribute, String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String pattern = "%" + value.trim().toLowerCase() + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.get(attribute)), pattern);
+    }
+
+    // [from, to] inclusive by calendar day on a LocalDateTime column
+    public static <T> Specification<T> onDays(String attribute, LocalDate from, LocalDate to) {
+        Specification<T> spec = Specification.where(null);
+        if (from != null) {
+            spec = spec.and((root, query, cb) -> cb.greaterThanOrEqualTo(root.<LocalDateTime>get(attribute), from.atStartOfDay()));
+        }
+        if (to != null) {
+            spec = spec.and((root, query, cb) -> cb.lessThan(root.<LocalDateTime>get(attribute), to.plusDays(1).atStartOfDay()));
+        }
+        return spec;
+    }
+
+    // [from, to] inclusive on a LocalDate column
+    public static <T> Specification<T> betweenDates(String attribute, LocalDate from, LocalDate to) {
+        Specification<T> spec = Specification.where(null);
+        if (from != null) {
+            spec = spec.and((root, query, cb) -> cb.greaterThanOrEqualTo(root.<LocalDate>get(attribute), from));
+        }
+        if (to != null) {
+            spec = spec.and((root, query, cb) -> cb.lessThanOrEqualTo(root.<LocalDate>get(attribute), to));
+        }
+        return spec;
+    }
+
+    // Stays [start, end) that touch any day of [from, to]
+    public static <T> Specification<T> staysOverlapping(String startAttribute, String endAttribute, LocalDate from, LocalDate to) {
+        Specification<T> spec = Specification.where(null);
+        if (from != null) {
+            spec = spec.and((root, query, cb) -> cb.greaterThan(root.<LocalDateTime>get(endAttribute), from.atStartOfDay()));
+        }
+        if (to != null) {
+            spec = spec.and((root, query, cb) -> cb.lessThan(root.<LocalDateTime>get(startAttribute), to.plusDays(1).atStartOfDay()));
+        }
+        return spec;
+    }
+}
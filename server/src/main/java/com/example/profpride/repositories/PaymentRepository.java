@@ -1,12 +1,32 @@
 package com.example.profpride.repositories;
 
+import com.example.profpride.dto.GroupTotal;
 import com.example.profpride.models.Payment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface PaymentRepository extends JpaRepository<Payment, Long> {
+public interface PaymentRepository extends JpaRepository<Payment, Long>, JpaSpecificationExecutor<Payment> {
     List<Payment> findByBookingId(Long bookingId);
+
+    // NDJSON export: server-side cursor read 500 rows per round trip, no dirty checking
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Payment p ORDER BY p.id")
+    Stream<Payment> streamAll();
+
+    @Query(value = "SELECT payment_method AS \"key\", COUNT(*) AS \"count\", COALESCE(SUM(amount), 0) AS \"amount\" " +
+                   "FROM payment GROUP BY payment_method",
+           nativeQuery = true)
+    List<GroupTotal> totalsByMethod();
 }
@@ -2,12 +2,13 @@ package com.example.profpride.repositories;
 
 import com.example.profpride.models.RoomConfiguration;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
 @Repository
-public interface RoomConfigurationRepository extends JpaRepository<RoomConfiguration, Long> {
+public interface RoomConfigurationRepository extends JpaRepository<RoomConfiguration, Long>, JpaSpecificationExecutor<RoomConfiguration> {
     
     List<RoomConfiguration> findByRoomId(Long roomId);
     
@@ -1,10 +1,18 @@
 package com.example.profpride.repositories;
 
+import com.example.profpride.dto.DashboardTotals;
 import com.example.profpride.models.Room;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface RoomRepository extends JpaRepository<Room, Long> {
     long countByIsAvailableTrue();
+
+    @Query(value = "SELECT (SELECT COUNT(*) FROM customer) AS \"totalCustomers\", " +
+                   "(SELECT COUNT(*) FROM room) AS \"totalRooms\", " +
+                   "(SELECT COUNT(*) FROM room WHERE is_available = true) AS \"availableRooms\"",
+           nativeQuery = true)
+    DashboardTotals findDashboardTotals();
 }
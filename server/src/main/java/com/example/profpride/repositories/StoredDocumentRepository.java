@@ -0,0 +1,13 @@
+package com.example.profpride.repositories;
+
+import com.example.profpride.models.StoredDocument;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface StoredDocumentRepository extends JpaRepository<StoredDocument, Long> {
+
+    Optional<StoredDocument> findByBackendAndOwnerAndFolderAndSha256(String backend, String owner, String folder, String sha256);
+}
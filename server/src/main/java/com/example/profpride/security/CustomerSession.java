@@ -0,0 +1,31 @@
+package com.example.profpride.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Optional;
+
+/**
+ * Customer-portal identity. Customer logins issue JwtUtils tokens with the CUSTOMER role and the
+ * phone number as subject; JwtAuthenticationFilter has already verified it, so controllers read
+ * the phone number from the SecurityContext instead of the Authorization header.
+ */
+public final class CustomerSession {
+
+    public static final String ROLE = "CUSTOMER";
+
+    private static final String AUTHORITY = "ROLE_" + ROLE;
+
+    private CustomerSession() {
+    }
+
+    public static Optional<String> currentPhoneNumber() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof String phoneNumber)) {
+            return Optional.empty();
+        }
+        boolean customer = authentication.getAuthorities().stream()
+            .anyMatch(authority -> AUTHORITY.equals(authority.getAuthority()));
+        return customer ? Optional.of(phoneNumber) : Optional.empty();
+    }
+}
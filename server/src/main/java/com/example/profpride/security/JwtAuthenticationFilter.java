@@ -14,7 +14,9 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -31,27 +33,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
             
-            try {
-                if (jwtUtils.isTokenValid(token) && !jwtUtils.isTokenExpired(token)) {
-                    String userId = jwtUtils.extractUserId(token);
-                    String role = jwtUtils.extractRole(token);
-                    String name = jwtUtils.extractName(token);
-                    
-                    // Create authentication object
-                    UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
-                        userId, 
-                        null, 
-                        Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role))
-                    );
-                    
-                    // Set additional details
-                    auth.setDetails(Map.of("role", role, "name", name));
-                    
-                    SecurityContextHolder.getContext().setAuthentication(auth);
-                }
-            } catch (Exception e) {
-                // Token is invalid, continue without authentication
-                SecurityContextHolder.clearContext();
+            // One signature check per token, not one per claim; repeat tokens hit the verified cache
+            Optional<TokenClaims> claims = jwtUtils.verify(token);
+            if (claims.isPresent()) {
+                TokenClaims verified = claims.get();
+
+                // Create authentication object
+                UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
+                    verified.userId(),
+                    null,
+                    Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + verified.role()))
+                );
+
+                // Set additional details
+                Map<String, Object> details = new HashMap<>();
+                details.put("role", verified.role());
+                details.put("name", verified.name());
+                auth.setDetails(details);
+
+                SecurityContextHolder.getContext().setAuthentication(auth);
             }
         }
         
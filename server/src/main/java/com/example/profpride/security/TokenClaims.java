@@ -0,0 +1,12 @@
+package com.example.profpride.security;
+
+import java.time.Instant;
+
+// The claims a request needs, read from the token once
+public record TokenClaims(
+    String userId,
+    String role,
+    String name,
+    Instant expiresAt
+) {
+}
@@ -0,0 +1,116 @@
+package com.example.profpride.services;
+
+import com.example.profpride.dto.BookingGrid;
+import com.example.profpride.dto.GridBooking;
+import com.example.profpride.dto.GridRoom;
+import com.example.profpride.enums.BookingStatus;
+import com.example.profpride.models.Room;
+import com.example.profpride.repositories.BookingRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the room x day occupancy grid from one range query instead of shipping every booking,
+ * room and customer to the client. A booking occupies a day when it has checked in by the start
+ * of that day and checks out after it - the rule the web grid applied client-side.
+ */
+@Service
+public class BookingGridService {
+
+    public static final int MAX_DAYS = 366;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private RoomService roomService;
+
+    public BookingGrid buildGrid(LocalDate from, LocalDate to) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new IllegalArgumentException("'to' must not be before 'from'");
+        }
+        int days = (int) ChronoUnit.DAYS.between(from, to) + 1;
+        if (days > MAX_DAYS) {
+            throw new IllegalArgumentException("Grid range cannot exceed " + MAX_DAYS + " days");
+        }
+
+        List<LocalDate> dates = new ArrayList<>(days);
+        for (int i = 0; i < days; i++) {
+            dates.add(from.plusDays(i));
+        }
+
+        List<GridBooking> bookings = bookingRepository.findGridBookings(
+            from.atStartOfDay(), to.atStartOfDay(), BookingStatus.CANCELLED);
+
+        // Bookings arrive ordered by id; the first one to claim a cell keeps it, as the client grid did
+        Map<Long, long[]> occupancy = new HashMap<>();
+        Map<Long, GridBooking> bookingsById = new LinkedHashMap<>();
+        for (GridBooking booking : bookings) {
+            if (booking.roomId() == null) {
+                continue;
+            }
+            long[] row = occupancy.computeIfAbsent(booking.roomId(), id -> new long[days]);
+            int first = firstOccupiedDay(from, booking.checkInDate());
+            int last = lastOccupiedDay(from, booking.checkOutDate(), days);
+            for (int day = first; day <= last; day++) {
+                if (row[day] == 0) {
+                    row[day] = booking.id();
+                }
+            }
+            bookingsById.put(booking.id(), booking);
+        }
+
+        List<GridRoom> rooms = new ArrayList<>();
+        List<long[]> cells = new ArrayList<>();
+        for (Room room : roomService.getAllRooms()) {
+            rooms.add(new GridRoom(room.getId(), room.getRoomNumber(), room.getBathroomType()));
+            long[] row = occupancy.get(room.getId());
+            cells.add(row != null ? runLengthEncode(row) : new long[] {0, days});
+        }
+
+        return new BookingGrid(from, to, dates, rooms, cells, bookingsById);
+    }
+
+    // First day index whose start is at or after check-in
+    private static int firstOccupiedDay(LocalDate from, LocalDateTime checkIn) {
+        LocalDate day = checkIn.toLocalDate();
+        if (!checkIn.toLocalTime().equals(LocalTime.MIDNIGHT)) {
+            day = day.plusDays(1);
+        }
+        return (int) Math.max(0, ChronoUnit.DAYS.between(from, day));
+    }
+
+    // Last day index whose start is strictly before check-out
+    private static int lastOccupiedDay(LocalDate from, LocalDateTime checkOut, int days) {
+        LocalDate day = checkOut.toLocalDate();
+        if (checkOut.toLocalTime().equals(LocalTime.MIDNIGHT)) {
+            day = day.minusDays(1);
+        }
+        return (int) Math.min(days - 1, ChronoUnit.DAYS.between(from, day));
+    }
+
+    private static long[] runLengthEncode(long[] row) {
+        long[] runs = new long[row.length * 2];
+        int size = 0;
+        int start = 0;
+        for (int i = 1; i <= row.length; i++) {
+            if (i == row.length || row[i] != row[start]) {
+                runs[size++] = row[start];
+                runs[size++] = i - start;
+                start = i;
+            }
+        }
+        return Arrays.copyOf(runs, size);
+    }
+}
@@ -3,28 +3,38 @@ package com.example.profpride.services;
 import com.example.profpride.models.BookingRequest;
 import com.example.profpride.models.Room;
 import com.example.profpride.repositories.BookingRequestRepository;
-import com.example.profpride.repositories.RoomRepository;
 import com.example.profpride.enums.BookingRequestStatus;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
+import com.example.profpride.dto.KeysetPage;
+import com.example.profpride.dto.ListQuery;
+import com.example.profpride.repositories.ListSpecifications;
+import org.springframework.data.jpa.domain.Specification;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class BookingRequestService {
 
+    private static final Set<String> SORTABLE = Set.of("checkInDate", "totalAmount");
+
     @Autowired
     private BookingRequestRepository bookingRequestRepository;
 
     @Autowired
-    private RoomRepository roomRepository;
+    private KeysetPager keysetPager;
+
+    @Autowired
+    private RoomService roomService;
 
     public BookingRequest createBookingRequest(BookingRequest bookingRequest) {
         // Verify room exists
-        Optional<Room> roomOpt = roomRepository.findById(bookingRequest.getRoomId());
+        Optional<Room> roomOpt = roomService.getRoomById(bookingRequest.getRoomId());
         if (!roomOpt.isPresent()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Room not found");
         }
@@ -33,8 +43,13 @@ public class BookingRequestService {
         return bookingRequestRepository.save(bookingRequest);
     }
 
-    public List<BookingRequest> getAllBookingRequests() {
-        return bookingRequestRepository.findAll();
+    public KeysetPage<BookingRequest> listBookingRequests(BookingRequestStatus status, String customerPhone, Long roomId,
+                                                         LocalDate from, LocalDate to, ListQuery query) {
+        Specification<BookingRequest> spec = Specification.<BookingRequest>where(ListSpecifications.equalTo("status", status))
+            .and(ListSpecifications.equalTo("customerPhone", customerPhone))
+            .and(ListSpecifications.equalTo("roomId", roomId))
+            .and(ListSpecifications.staysOverlapping("checkInDate", "checkOutDate", from, to));
+        return keysetPager.page(bookingRequestRepository, spec, query, "id", Long::valueOf, SORTABLE);
     }
 
     public List<BookingRequest> getPendingBookingRequests() {
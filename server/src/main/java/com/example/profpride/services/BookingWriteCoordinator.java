@@ -0,0 +1,50 @@
+package com.example.profpride.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Serializes booking read-check-write sequences per room using a fixed array of lock stripes.
+ * Writes to rooms on different stripes run in parallel; writes to the same room queue up
+ * instead of racing into the booking_no_overlap constraint. Only covers this JVM - the
+ * database constraint remains the guard across instances.
+ */
+@Service
+public class BookingWriteCoordinator {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    public BookingWriteCoordinator(@Value("${booking.lock.stripes:64}") int stripeCount) {
+        // Round up to a power of two so the stripe is a mask, not a modulo
+        int size = stripeCount > 1 ? Integer.highestOneBit(stripeCount - 1) << 1 : 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    public <T> T withRoomLock(Long roomId, Supplier<T> action) {
+        ReentrantLock lock = stripeFor(roomId);
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int stripeCount() {
+        return stripes.length;
+    }
+
+    private ReentrantLock stripeFor(Long roomId) {
+        int h = roomId == null ? 0 : roomId.hashCode();
+        h ^= (h >>> 16);
+        return stripes[h & mask];
+    }
+}
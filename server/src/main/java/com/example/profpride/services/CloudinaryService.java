@@ -3,16 +3,17 @@ package com.example.profpride.services;
 import com.cloudinary.Cloudinary;
 import com.cloudinary.utils.ObjectUtils;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 @Service
-public class CloudinaryService {
+@ConditionalOnProperty(name = "storage.backend", havingValue = "cloudinary", matchIfMissing = true)
+public class CloudinaryService implements FileStorage {
 
     private Cloudinary cloudinary;
 
@@ -36,41 +37,23 @@ public class CloudinaryService {
         return cloudinary;
     }
 
-    public String uploadPhotoIdProof(MultipartFile file, String phoneNumber) throws IOException {
+    @Override
+    public String store(Path file, String owner, String folder, String objectName) throws IOException {
+        // Cloudinary keeps the format separately; the public_id carries no extension
+        int dot = objectName.lastIndexOf('.');
+        String name = dot > 0 ? objectName.substring(0, dot) : objectName;
         Map<String, Object> params = ObjectUtils.asMap(
-            "public_id", phoneNumber + "/id-proof/" + System.currentTimeMillis(),
-            "folder", phoneNumber + "/id-proof",
+            "public_id", owner + "/" + folder + "/" + name,
+            "folder", owner + "/" + folder,
             "resource_type", "auto"
         );
-        
-        Map<?, ?> uploadResult = getCloudinary().uploader().upload(file.getBytes(), params);
-        return (String) uploadResult.get("secure_url");
-    }
-
-    public List<String> uploadMultipleFiles(MultipartFile[] files, String phoneNumber) throws IOException {
-        List<String> uploadedUrls = new java.util.ArrayList<>();
-        
-        for (MultipartFile file : files) {
-            if (!file.isEmpty()) {
-                String url = uploadPhotoIdProof(file, phoneNumber);
-                uploadedUrls.add(url);
-            }
-        }
-        
-        return uploadedUrls;
-    }
 
-    public String uploadPaymentScreenshot(MultipartFile file, String phoneNumber) throws IOException {
-        Map<String, Object> params = ObjectUtils.asMap(
-            "public_id", phoneNumber + "/payments/" + System.currentTimeMillis(),
-            "folder", phoneNumber + "/payments",
-            "resource_type", "auto"
-        );
-        
-        Map<?, ?> uploadResult = getCloudinary().uploader().upload(file.getBytes(), params);
+        // Passing a File lets the SDK stream the multipart body from disk instead of a byte[]
+        Map<?, ?> uploadResult = getCloudinary().uploader().upload(file.toFile(), params);
         return (String) uploadResult.get("secure_url");
     }
 
+    @Override
     public boolean testConnection() {
         try {
             // Test with a simple API call - just check if credentials are set
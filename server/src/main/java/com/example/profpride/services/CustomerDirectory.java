@@ -0,0 +1,94 @@
+package com.example.profpride.services;
+
+import com.example.profpride.dto.CustomerSummary;
+import com.example.profpride.models.Customer;
+import com.example.profpride.repositories.CustomerRepository;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Bounded near-cache of customer summaries keyed by phone number. Reads load the scalar
+ * columns with one projection query (idProofUrls is never touched); CustomerService writes
+ * through after every save so the cache never lags this instance's own updates.
+ *
+ * Misses load through the cache's own get(key, loader), so a put or evict that lands while a load
+ * is in flight replaces or drops the pending entry and the load's result is discarded; it can never
+ * bring back a customer that was just deleted. The cache is asynchronous and the query runs on a
+ * virtual thread, so no JDBC call runs under Caffeine's map-bin lock (virtual-thread pinning).
+ */
+@Service
+public class CustomerDirectory {
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    private final AsyncCache<String, CustomerSummary> summaries;
+    private final ExecutorService loader = Executors.newVirtualThreadPerTaskExecutor();
+
+    public CustomerDirectory(@Value("${customer.cache.max-size:10000}") long maxSize,
+                             @Value("${customer.cache.ttl:10m}") Duration ttl,
+                             MeterRegistry meterRegistry) {
+        // TTL only bounds staleness from writes made by other instances
+        this.summaries = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, summaries, "customerSummaries");
+    }
+
+    public Optional<CustomerSummary> find(String phoneNumber) {
+        if (phoneNumber == null) {
+            return Optional.empty();
+        }
+        // A null result removes the entry, so a customer registered elsewhere is seen on the next lookup
+        CompletableFuture<CustomerSummary> summary = summaries.get(phoneNumber, (key, executor) ->
+            CompletableFuture.supplyAsync(() -> customerRepository.findSummaryByPhoneNumber(key).orElse(null), loader));
+        try {
+            return Optional.ofNullable(summary.join());
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public boolean exists(String phoneNumber) {
+        return find(phoneNumber).isPresent();
+    }
+
+    public void put(Customer customer) {
+        if (customer != null && customer.getPhoneNumber() != null) {
+            summaries.put(customer.getPhoneNumber(), CompletableFuture.completedFuture(CustomerSummary.of(customer)));
+        }
+    }
+
+    public void put(CustomerSummary summary) {
+        summaries.put(summary.phoneNumber(), CompletableFuture.completedFuture(summary));
+    }
+
+    public void evict(String phoneNumber) {
+        if (phoneNumber != null) {
+            summaries.synchronous().invalidate(phoneNumber);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        loader.shutdown();
+    }
+}
@@ -8,32 +8,67 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
-
+import com.example.profpride.dto.KeysetPage;
+import com.example.profpride.dto.ListQuery;
+import com.example.profpride.repositories.ListSpecifications;
+import org.springframework.data.jpa.domain.Specification;
+import com.example.profpride.dto.CustomerSummary;
+import com.example.profpride.dto.StoredUpload;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 
 @Service
 public class CustomerService {
 
+    private static final Set<String> SORTABLE = Set.of("name");
+
     @Autowired
     private CustomerRepository customerRepository;
 
+    @Autowired
+    private KeysetPager keysetPager;
+
+    @Autowired
+    private CustomerDirectory customerDirectory;
+
     @Autowired
     private BookingRepository bookingRepository;
 
+    @Autowired
+    private PasswordService passwordService;
+
     public Customer createCustomer(Customer customer) {
-        return customerRepository.save(customer);
+        if (customer.getPassword() != null) {
+            customer.setPassword(passwordService.hash(customer.getPassword()));
+        }
+        Customer savedCustomer = customerRepository.save(customer);
+        customerDirectory.put(savedCustomer);
+        return savedCustomer;
     }
 
-    public List<Customer> getAllCustomers() {
-        return customerRepository.findAll();
+    public KeysetPage<Customer> listCustomers(String name, Boolean idProofSubmitted, ListQuery query) {
+        Specification<Customer> spec = Specification.<Customer>where(ListSpecifications.containsIgnoreCase("name", name))
+            .and(ListSpecifications.equalTo("idProofSubmitted", idProofSubmitted));
+        return keysetPager.page(customerRepository, spec, query, "phoneNumber", Function.identity(), SORTABLE);
     }
 
     public Optional<Customer> getCustomerByPhoneNumber(String phoneNumber) {
         return customerRepository.findById(phoneNumber);
     }
 
+    // Cached scalar view for lookups that only need name/contact details
+    public Optional<CustomerSummary> getCustomerSummary(String phoneNumber) {
+        return customerDirectory.find(phoneNumber);
+    }
+
     public Customer updateCustomer(String phoneNumber, Customer updatedCustomer) {
         return customerRepository.findById(phoneNumber).map(customer -> {
             // If phone number is being changed, we need to handle it specially
@@ -53,6 +88,7 @@ public class CustomerService {
                 newCustomer.setDocumentsFolderLink(updatedCustomer.getDocumentsFolderLink());
                 newCustomer.setPhotoIdProofUrl(updatedCustomer.getPhotoIdProofUrl());
                 newCustomer.setIdProofUrls(customer.getIdProofUrls()); // Keep existing ID proofs
+                newCustomer.setIdProofThumbnailUrls(customer.getIdProofThumbnailUrls() != null ? new HashMap<>(customer.getIdProofThumbnailUrls()) : null);
                 newCustomer.setIdProofSubmitted(updatedCustomer.getIdProofSubmitted());
                 newCustomer.setRemarks(updatedCustomer.getRemarks());
                 newCustomer.setCreatedAt(customer.getCreatedAt()); // Keep original creation date
@@ -61,6 +97,8 @@ public class CustomerService {
                 // Save new customer and delete old one
                 Customer savedCustomer = customerRepository.save(newCustomer);
                 customerRepository.deleteById(phoneNumber);
+                customerDirectory.evict(phoneNumber);
+                customerDirectory.put(savedCustomer);
                 return savedCustomer;
             } else {
                 // Normal update without phone number change
@@ -72,7 +110,7 @@ public class CustomerService {
                 customer.setIdProofSubmitted(updatedCustomer.getIdProofSubmitted());
                 customer.setRemarks(updatedCustomer.getRemarks());
                 customer.setUpdatedAt(java.time.LocalDateTime.now());
-                return customerRepository.save(customer);
+                return saveAndCache(customer);
             }
         }).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Customer not found"));
     }
@@ -88,29 +126,53 @@ public class CustomerService {
             if (profileData.containsKey("remarks")) {
                 customer.setRemarks(profileData.get("remarks"));
             }
-            return customerRepository.save(customer);
+            return saveAndCache(customer);
         }).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Customer not found"));
     }
 
-    public Customer updateCustomerPhotoIdUrl(String phoneNumber, String photoIdUrl) {
+    public Customer updateCustomerPhotoIdUrl(String phoneNumber, StoredUpload photoId) {
         return customerRepository.findById(phoneNumber).map(customer -> {
-            customer.setPhotoIdProofUrl(photoIdUrl);
-            return customerRepository.save(customer);
+            customer.setPhotoIdProofUrl(photoId.url());
+            putThumbnail(customer, photoId);
+            return saveAndCache(customer);
         }).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Customer not found"));
     }
 
     public Customer updateCustomerIdProofUrls(String phoneNumber, List<String> idProofUrls) {
         return customerRepository.findById(phoneNumber).map(customer -> {
             customer.setIdProofUrls(idProofUrls);
-            return customerRepository.save(customer);
+            // Drop thumbnails whose proof is gone
+            if (customer.getIdProofThumbnailUrls() != null) {
+                customer.getIdProofThumbnailUrls().keySet().removeIf(url ->
+                    !idProofUrls.contains(url) && !url.equals(customer.getPhotoIdProofUrl()));
+            }
+            return saveAndCache(customer);
         }).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Customer not found"));
     }
 
-    public Customer updateCustomerIdProofSubmitted(String phoneNumber, Boolean idProofSubmitted) {
+    // Appends a batch of uploaded proofs and marks them submitted in a single load and save
+    public Optional<Customer> addIdProofs(String phoneNumber, List<StoredUpload> uploads) {
         return customerRepository.findById(phoneNumber).map(customer -> {
-            customer.setIdProofSubmitted(idProofSubmitted);
-            return customerRepository.save(customer);
-        }).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Customer not found"));
+            List<String> urls = customer.getIdProofUrls() != null ? new ArrayList<>(customer.getIdProofUrls()) : new ArrayList<>();
+            for (StoredUpload upload : uploads) {
+                urls.add(upload.url());
+                putThumbnail(customer, upload);
+            }
+            customer.setIdProofUrls(urls);
+            customer.setIdProofSubmitted(true);
+            return saveAndCache(customer);
+        });
+    }
+
+    public void updateCustomerIdProofSubmitted(String phoneNumber, Boolean idProofSubmitted) {
+        CustomerSummary summary = customerDirectory.find(phoneNumber)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Customer not found"));
+        // Every upload sets the flag; after the first one there is nothing to write
+        if (Objects.equals(summary.idProofSubmitted(), idProofSubmitted)) {
+            return;
+        }
+        customerRepository.updateIdProofSubmitted(phoneNumber, idProofSubmitted, LocalDateTime.now());
+        customerDirectory.put(summary.withIdProofSubmitted(idProofSubmitted));
     }
 
     public List<Booking> getCustomerBookings(String phoneNumber) {
@@ -118,20 +180,44 @@ public class CustomerService {
     }
 
     public boolean customerExists(String phoneNumber) {
-        return customerRepository.existsById(phoneNumber);
+        return customerDirectory.exists(phoneNumber);
     }
 
     public boolean deleteCustomer(String phoneNumber) {
         if (customerRepository.existsById(phoneNumber)) {
             customerRepository.deleteById(phoneNumber);
+            customerDirectory.evict(phoneNumber);
             return true;
         }
         return false;
     }
 
+    private static void putThumbnail(Customer customer, StoredUpload upload) {
+        if (upload.thumbnailUrl() == null) {
+            return;
+        }
+        if (customer.getIdProofThumbnailUrls() == null) {
+            customer.setIdProofThumbnailUrls(new HashMap<>());
+        }
+        customer.getIdProofThumbnailUrls().put(upload.url(), upload.thumbnailUrl());
+    }
+
+    private Customer saveAndCache(Customer customer) {
+        Customer savedCustomer = customerRepository.save(customer);
+        customerDirectory.put(savedCustomer);
+        return savedCustomer;
+    }
+
     public boolean validateCustomerCredentials(String phoneNumber, String password) {
-        return customerRepository.findById(phoneNumber)
-                .map(customer -> password.equals(customer.getPassword()))
-                .orElse(false);
+        Optional<String> storedPassword = customerRepository.findPasswordByPhoneNumber(phoneNumber);
+        if (storedPassword.isEmpty()) {
+            return false;
+        }
+        PasswordService.PasswordCheck check = passwordService.verify(password, storedPassword.get());
+        if (check.needsRehash()) {
+            // Legacy plaintext (or older cost) row: store the fresh hash computed during verification
+            customerRepository.updatePassword(phoneNumber, check.upgradedHash());
+        }
+        return check.matches();
     }
 }
@@ -0,0 +1,366 @@
+package com.example.profpride.services;
+
+import com.example.profpride.dto.BookingFacts;
+import com.example.profpride.dto.DailyAggregates;
+import com.example.profpride.dto.PaymentFacts;
+import com.example.profpride.enums.BookingStatus;
+import com.example.profpride.enums.PaymentStatus;
+import com.example.profpride.models.DailySnapshot;
+import com.example.profpride.repositories.BookingRepository;
+import com.example.profpride.repositories.DailySnapshotRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Maintains the daily_snapshot table behind the dashboard. Booking and payment writes are applied
+ * to the existing rows as deltas from the entity listeners, inside the writing transaction, so the
+ * dashboard reads one row and never rescans the booking table under write traffic. A missing or
+ * stale row is rebuilt from one aggregate query on its next read, and the nightly job rebuilds a
+ * window around today plus anything still stale, correcting any drift.
+ *
+ * Deltas run in the writer's transaction rather than after commit: a concurrent rebuild of the
+ * same row then either reads before the write commits and loses its version check to the delta's
+ * version bump, or reads after and the delta lands on a row version it has already seen.
+ *
+ * Each write first claims its days near today (inserts, in date order) and then locks every row it
+ * will touch, the as-of totals range included, with one SELECT ... FOR UPDATE ordered by date. No
+ * UPDATE runs before that lock, so all writers take rows in the same order and cannot deadlock.
+ * Writes flush at commit, so the rows are held only for the commit itself.
+ */
+@Service
+@Lazy(false) // hosts a @Scheduled job; must exist even with spring.main.lazy-initialization
+public class DailySnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(DailySnapshotService.class);
+
+    private static final String DAY_DELTA =
+        "UPDATE daily_snapshot SET check_ins_due = check_ins_due + ?, check_outs_due = check_outs_due + ?, " +
+        "today_bookings = today_bookings + ?, booked_rooms = booked_rooms + ?, collected_amount = collected_amount + ?, " +
+        "version = version + 1, updated_at = now() WHERE snapshot_date = ?";
+    // Revenue and pending dues are as-of totals, carried by every row from today on
+    private static final String TOTALS_DELTA =
+        "UPDATE daily_snapshot SET revenue = revenue + ?, pending_dues_count = pending_dues_count + ?, " +
+        "pending_dues_amount = pending_dues_amount + ?, version = version + 1, updated_at = now() WHERE snapshot_date >= ?";
+    // A stale row claims the day, so a first-time rebuild racing this write fails its insert and retries later
+    private static final String STALE_PLACEHOLDER =
+        "INSERT INTO daily_snapshot (snapshot_date, check_ins_due, check_outs_due, today_bookings, booked_rooms, revenue, " +
+        "pending_dues_count, pending_dues_amount, collected_amount, is_stale, version, created_at, updated_at) " +
+        "VALUES (?, 0, 0, 0, 0, 0, 0, 0, 0, true, 0, now(), now()) ON CONFLICT (snapshot_date) DO NOTHING";
+    // Completed with one "snapshot_date BETWEEN ? AND ?" per range and, for totals, "snapshot_date >= ?"
+    private static final String LOCK_DAYS =
+        "SELECT snapshot_date FROM daily_snapshot WHERE %s ORDER BY snapshot_date FOR UPDATE";
+    private static final String OTHER_HOLDERS =
+        "SELECT check_in_date, check_out_date FROM booking WHERE room_id = ? AND id <> ? " +
+        "AND booking_status IN ('CONFIRMED', 'CHECKEDIN') AND check_in_date < ? AND check_out_date > ?";
+
+    private static final class DayDelta {
+        long checkInsDue;
+        long checkOutsDue;
+        long todayBookings;
+        long bookedRooms;
+        BigDecimal collected = BigDecimal.ZERO;
+
+        boolean isZero() {
+            return checkInsDue == 0 && checkOutsDue == 0 && todayBookings == 0 && bookedRooms == 0
+                && collected.signum() == 0;
+        }
+    }
+
+    @Autowired
+    private DailySnapshotRepository dailySnapshotRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${dashboard.snapshot.reconcile-window-days:7}")
+    private int reconcileWindowDays;
+
+    public DailySnapshot getSnapshot(LocalDate date) {
+        DailySnapshot snapshot = dailySnapshotRepository.findById(date).orElse(null);
+        if (snapshot != null && !Boolean.TRUE.equals(snapshot.getStale())) {
+            return snapshot;
+        }
+        return refresh(date, snapshot);
+    }
+
+    /** Applies a booking write to the snapshot rows; before is null for an insert, after for a delete. */
+    public void onBookingWritten(BookingFacts before, BookingFacts after) {
+        if (Objects.equals(before, after)) {
+            // Nothing the snapshot counts changed (e.g. only the guest count); don't lock its days
+            return;
+        }
+        List<LocalDate[]> ranges = new ArrayList<>();
+        for (BookingFacts facts : new BookingFacts[] {before, after}) {
+            if (facts != null && facts.checkInDate() != null && facts.checkOutDate() != null) {
+                LocalDate checkIn = facts.checkInDate().toLocalDate();
+                LocalDate checkOut = facts.checkOutDate().toLocalDate();
+                ranges.add(new LocalDate[] {checkIn, checkOut.isBefore(checkIn) ? checkIn : checkOut});
+            }
+        }
+        BigDecimal revenue = amount(after).subtract(amount(before));
+        long pendingCount = (isPending(after) ? 1 : 0) - (isPending(before) ? 1 : 0);
+        BigDecimal pendingAmount = (isPending(after) ? amount(after) : BigDecimal.ZERO)
+            .subtract(isPending(before) ? amount(before) : BigDecimal.ZERO);
+        boolean totalsChanged = revenue.signum() != 0 || pendingCount != 0 || pendingAmount.signum() != 0;
+        if (ranges.isEmpty() && !totalsChanged) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+
+        TreeMap<LocalDate, DayDelta> deltas = new TreeMap<>();
+        for (LocalDate day : lockDays(ranges, totalsChanged ? today : null)) {
+            if (inRanges(ranges, day)) {
+                deltas.put(day, new DayDelta());
+            }
+        }
+        if (!deltas.isEmpty()) {
+            countStay(deltas, before, -1);
+            countStay(deltas, after, 1);
+            countBookedRoom(deltas, before, after);
+            applyDayDeltas(deltas);
+        }
+        if (totalsChanged) {
+            jdbcTemplate.update(TOTALS_DELTA, revenue, pendingCount, pendingAmount, Date.valueOf(today));
+        }
+    }
+
+    /** Applies a payment write to the snapshot rows; before is null for an insert, after for a delete. */
+    public void onPaymentWritten(PaymentFacts before, PaymentFacts after) {
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        List<LocalDate[]> ranges = new ArrayList<>();
+        for (PaymentFacts facts : new PaymentFacts[] {before, after}) {
+            if (facts != null && facts.paymentDate() != null) {
+                LocalDate day = facts.paymentDate().toLocalDate();
+                ranges.add(new LocalDate[] {day, day});
+            }
+        }
+        if (ranges.isEmpty()) {
+            return;
+        }
+        Map<LocalDate, DayDelta> deltas = new TreeMap<>();
+        for (LocalDate day : lockDays(ranges, null)) {
+            deltas.put(day, new DayDelta());
+        }
+        addCollected(deltas, before, -1);
+        addCollected(deltas, after, 1);
+        applyDayDeltas(deltas);
+    }
+
+    @Scheduled(cron = "${dashboard.snapshot.reconcile-cron:0 5 0 * * *}")
+    public void reconcile() {
+        LocalDate today = LocalDate.now();
+        int rebuilt = 0;
+        for (LocalDate date = today.minusDays(reconcileWindowDays); !date.isAfter(today.plusDays(reconcileWindowDays)); date = date.plusDays(1)) {
+            refresh(date, dailySnapshotRepository.findById(date).orElse(null));
+            rebuilt++;
+        }
+        for (DailySnapshot snapshot : dailySnapshotRepository.findByStaleTrue()) {
+            refresh(snapshot.getSnapshotDate(), snapshot);
+            rebuilt++;
+        }
+        log.info("Reconciled {} daily snapshot rows", rebuilt);
+    }
+
+    private DailySnapshot refresh(LocalDate date, DailySnapshot existing) {
+        DailyAggregates aggregates = bookingRepository.computeDailyAggregates(
+            date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+
+        DailySnapshot snapshot = existing != null ? existing : new DailySnapshot(date);
+        snapshot.setCheckInsDue(aggregates.getCheckInsDue());
+        snapshot.setCheckOutsDue(aggregates.getCheckOutsDue());
+        snapshot.setTodayBookings(aggregates.getTodayBookings());
+        snapshot.setBookedRooms(aggregates.getBookedRooms());
+        snapshot.setRevenue(aggregates.getRevenue());
+        snapshot.setPendingDuesCount(aggregates.getPendingDuesCount());
+        snapshot.setPendingDuesAmount(aggregates.getPendingDuesAmount());
+        snapshot.setCollectedAmount(aggregates.getCollectedAmount());
+        snapshot.setStale(false);
+
+        try {
+            return dailySnapshotRepository.save(snapshot);
+        } catch (ObjectOptimisticLockingFailureException | DataIntegrityViolationException e) {
+            // A write touched the row (or claimed the day) while we computed; serve what we have, the row is left as it is
+            return snapshot;
+        }
+    }
+
+    /**
+     * Claims the days near today a dashboard read may be rebuilding, then locks the rows in the
+     * ranges (and from totalsFrom on, when not null) in date order; returns the days that have a row.
+     */
+    private List<LocalDate> lockDays(List<LocalDate[]> ranges, LocalDate totalsFrom) {
+        LocalDate today = LocalDate.now();
+        LocalDate windowStart = today.minusDays(reconcileWindowDays);
+        LocalDate windowEnd = today.plusDays(reconcileWindowDays);
+        TreeSet<LocalDate> claims = new TreeSet<>();
+        List<Object> args = new ArrayList<>();
+        StringJoiner where = new StringJoiner(" OR ");
+        for (LocalDate[] range : ranges) {
+            LocalDate claimFrom = range[0].isBefore(windowStart) ? windowStart : range[0];
+            LocalDate claimTo = range[1].isAfter(windowEnd) ? windowEnd : range[1];
+            for (LocalDate day = claimFrom; !day.isAfter(claimTo); day = day.plusDays(1)) {
+                claims.add(day);
+            }
+            where.add("snapshot_date BETWEEN ? AND ?");
+            args.add(Date.valueOf(range[0]));
+            args.add(Date.valueOf(range[1]));
+        }
+        if (totalsFrom != null) {
+            for (LocalDate day = totalsFrom; !day.isAfter(windowEnd); day = day.plusDays(1)) {
+                claims.add(day);
+            }
+            where.add("snapshot_date >= ?");
+            args.add(Date.valueOf(totalsFrom));
+        }
+        if (!claims.isEmpty()) {
+            // Ascending, like the lock below: a claim waits only on days before the ones it already holds
+            List<Object[]> days = new ArrayList<>(claims.size());
+            for (LocalDate day : claims) {
+                days.add(new Object[] {Date.valueOf(day)});
+            }
+            jdbcTemplate.batchUpdate(STALE_PLACEHOLDER, days);
+        }
+        return jdbcTemplate.queryForList(String.format(LOCK_DAYS, where), LocalDate.class, args.toArray());
+    }
+
+    private static boolean inRanges(List<LocalDate[]> ranges, LocalDate day) {
+        for (LocalDate[] range : ranges) {
+            if (!day.isBefore(range[0]) && !day.isAfter(range[1])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Check-ins/outs due and the day's booking count, mirroring computeDailyAggregates
+    private static void countStay(Map<LocalDate, DayDelta> deltas, BookingFacts facts, int sign) {
+        if (facts == null || facts.checkInDate() == null || facts.checkOutDate() == null) {
+            return;
+        }
+        LocalDate checkIn = facts.checkInDate().toLocalDate();
+        LocalDate checkOut = facts.checkOutDate().toLocalDate();
+        DayDelta checkInDay = deltas.get(checkIn);
+        DayDelta checkOutDay = deltas.get(checkOut);
+        if (checkInDay != null) {
+            checkInDay.todayBookings += sign;
+            if (facts.bookingStatus() == BookingStatus.CONFIRMED) {
+                checkInDay.checkInsDue += sign;
+            }
+        }
+        if (checkOutDay != null) {
+            if (!checkOut.equals(checkIn)) {
+                checkOutDay.todayBookings += sign;
+            }
+            if (facts.bookingStatus() == BookingStatus.CHECKEDIN) {
+                checkOutDay.checkOutsDue += sign;
+            }
+        }
+    }
+
+    // booked_rooms counts distinct rooms, so a day changes only when no other booking holds the room that day
+    private void countBookedRoom(TreeMap<LocalDate, DayDelta> deltas, BookingFacts before, BookingFacts after) {
+        Set<Long> rooms = new HashSet<>();
+        if (before != null && before.isBlocking()) {
+            rooms.add(before.roomId());
+        }
+        if (after != null && after.isBlocking()) {
+            rooms.add(after.roomId());
+        }
+        for (Long roomId : rooms) {
+            BookingFacts held = after != null && after.isBlocking() && roomId.equals(after.roomId()) ? after : null;
+            BookingFacts released = before != null && before.isBlocking() && roomId.equals(before.roomId()) ? before : null;
+            List<LocalDateTime[]> others = null;
+            for (Map.Entry<LocalDate, DayDelta> day : deltas.entrySet()) {
+                LocalDateTime start = day.getKey().atStartOfDay();
+                LocalDateTime end = start.plusDays(1);
+                int change = (holds(held, start, end) ? 1 : 0) - (holds(released, start, end) ? 1 : 0);
+                if (change == 0) {
+                    continue;
+                }
+                if (others == null) {
+                    others = otherHolders(roomId, held != null ? held.id() : released.id(),
+                        deltas.firstKey().atStartOfDay(), deltas.lastKey().plusDays(1).atStartOfDay());
+                }
+                if (!heldByOthers(others, start, end)) {
+                    day.getValue().bookedRooms += change;
+                }
+            }
+        }
+    }
+
+    private List<LocalDateTime[]> otherHolders(Long roomId, Long bookingId, LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.query(OTHER_HOLDERS, (rs, rowNum) -> new LocalDateTime[] {
+            rs.getTimestamp(1).toLocalDateTime(), rs.getTimestamp(2).toLocalDateTime()
+        }, roomId, bookingId != null ? bookingId : -1L, to, from);
+    }
+
+    private static boolean heldByOthers(List<LocalDateTime[]> others, LocalDateTime start, LocalDateTime end) {
+        for (LocalDateTime[] stay : others) {
+            if (stay[0].isBefore(end) && stay[1].isAfter(start)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean holds(BookingFacts facts, LocalDateTime start, LocalDateTime end) {
+        return facts != null && facts.checkInDate().isBefore(end) && facts.checkOutDate().isAfter(start);
+    }
+
+    private static void addCollected(Map<LocalDate, DayDelta> deltas, PaymentFacts facts, int sign) {
+        if (facts != null && facts.paymentDate() != null && facts.amount() != null) {
+            DayDelta day = deltas.get(facts.paymentDate().toLocalDate());
+            if (day != null) {
+                day.collected = sign > 0 ? day.collected.add(facts.amount()) : day.collected.subtract(facts.amount());
+            }
+        }
+    }
+
+    private void applyDayDeltas(Map<LocalDate, DayDelta> deltas) {
+        List<Object[]> updates = new ArrayList<>();
+        deltas.forEach((day, delta) -> {
+            if (!delta.isZero()) {
+                updates.add(new Object[] {delta.checkInsDue, delta.checkOutsDue, delta.todayBookings,
+                    delta.bookedRooms, delta.collected, Date.valueOf(day)});
+            }
+        });
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(DAY_DELTA, updates);
+        }
+    }
+
+    private static BigDecimal amount(BookingFacts facts) {
+        return facts != null && facts.totalAmount() != null ? facts.totalAmount() : BigDecimal.ZERO;
+    }
+
+    private static boolean isPending(BookingFacts facts) {
+        return facts != null && facts.paymentStatus() == PaymentStatus.PENDING;
+    }
+}
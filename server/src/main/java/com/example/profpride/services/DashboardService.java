@@ -0,0 +1,124 @@
+package com.example.profpride.services;
+
+import com.example.profpride.dto.BookingSummary;
+import com.example.profpride.dto.DashboardTotals;
+import com.example.profpride.dto.GroupTotal;
+import com.example.profpride.dto.PendingDueSummary;
+import com.example.profpride.dto.StatsSummary;
+import com.example.profpride.dto.StatsTotals;
+import com.example.profpride.dto.TodaySummary;
+import com.example.profpride.enums.BookingStatus;
+import com.example.profpride.enums.PaymentStatus;
+import com.example.profpride.models.DailySnapshot;
+import com.example.profpride.repositories.BookingRepository;
+import com.example.profpride.repositories.ExpenseRepository;
+import com.example.profpride.repositories.PaymentRepository;
+import com.example.profpride.repositories.RoomRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class DashboardService {
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private DailySnapshotService dailySnapshotService;
+
+    // Aggregates come from the day's snapshot row; only the short per-day lists touch the booking table
+    public TodaySummary getTodaySummary(LocalDate targetDate) {
+        LocalDateTime startOfDay = targetDate.atStartOfDay();
+        LocalDateTime endOfDay = targetDate.plusDays(1).atStartOfDay();
+
+        DailySnapshot snapshot = dailySnapshotService.getSnapshot(targetDate);
+        DashboardTotals totals = roomRepository.findDashboardTotals();
+
+        // CONFIRMED bookings due for check-in today, CHECKEDIN bookings due for check-out today
+        List<BookingSummary> checkIns = bookingRepository.findCheckInSummaries(startOfDay, endOfDay, BookingStatus.CONFIRMED);
+        List<BookingSummary> checkOuts = bookingRepository.findCheckOutSummaries(startOfDay, endOfDay, BookingStatus.CHECKEDIN);
+        List<PendingDueSummary> pendingDues = bookingRepository.findPendingDueSummaries(PaymentStatus.PENDING);
+
+        long totalRooms = totals.getTotalRooms();
+        long availableRooms = totals.getAvailableRooms();
+        long occupiedRooms = totalRooms - availableRooms;
+        double occupancyRate = totalRooms > 0 ? (double) occupiedRooms / totalRooms * 100 : 0;
+
+        return new TodaySummary(
+            targetDate.toString(),
+            totals.getTotalCustomers(),
+            totalRooms,
+            availableRooms,
+            occupiedRooms,
+            Math.round(occupancyRate * 100.0) / 100.0,
+            snapshot.getTodayBookings(),
+            checkIns,
+            checkOuts,
+            pendingDues,
+            snapshot.getRevenue(),
+            snapshot.getPendingDuesAmount(),
+            snapshot.getCollectedAmount()
+        );
+    }
+
+    // All-time and month-to-date figures for the stats screen; four aggregate queries whatever the table sizes
+    public StatsSummary getStats(LocalDate targetDate) {
+        LocalDate monthStart = targetDate.withDayOfMonth(1);
+        StatsTotals totals = bookingRepository.findStatsTotals(targetDate.atStartOfDay(), targetDate.plusDays(1).atStartOfDay(),
+            monthStart.atStartOfDay(), monthStart.plusMonths(1).atStartOfDay());
+        GroupTotal busiestRoom = bookingRepository.findBusiestRoom().orElse(null);
+
+        Map<String, Long> paymentMethods = new LinkedHashMap<>();
+        for (GroupTotal method : paymentRepository.totalsByMethod()) {
+            paymentMethods.put(method.getKey() != null ? method.getKey() : "UNKNOWN", method.getCount());
+        }
+        Map<String, BigDecimal> expenseCategories = new LinkedHashMap<>();
+        for (GroupTotal category : expenseRepository.totalsByCategory()) {
+            expenseCategories.put(category.getKey() != null ? category.getKey() : "OTHER", category.getAmount());
+        }
+
+        long totalBookings = totals.getTotalBookings();
+        long totalCustomers = totals.getTotalCustomers();
+        return new StatsSummary(
+            targetDate.toString(),
+            totals.getTodayRevenue(),
+            totals.getMonthRevenue(),
+            totals.getTodayExpenses(),
+            totals.getMonthExpenses(),
+            totalBookings,
+            totals.getActiveBookings(),
+            totals.getPendingBookings(),
+            totals.getAvgBookingValue(),
+            totals.getAvgStayDays(),
+            percent(totals.getCompletedPayments(), totals.getTotalPayments()),
+            totalCustomers,
+            totals.getCustomersWithBookings(),
+            percent(totals.getCustomersWithBookings(), totalCustomers),
+            percent(totals.getActiveBookings(), totalBookings),
+            busiestRoom != null ? busiestRoom.getKey() : "N/A",
+            busiestRoom != null ? busiestRoom.getCount() : 0,
+            paymentMethods,
+            expenseCategories
+        );
+    }
+
+    private static double percent(long part, long whole) {
+        return whole > 0 ? (double) part / whole * 100 : 0;
+    }
+}
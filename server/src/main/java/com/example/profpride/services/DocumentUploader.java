@@ -0,0 +1,163 @@
+package com.example.profpride.services;
+
+import com.example.profpride.dto.StoredUpload;
+import com.example.profpride.models.StoredDocument;
+import com.example.profpride.repositories.StoredDocumentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Upload entry point for ID proofs and payment screenshots: images are normalised by
+ * ImageProcessor and stored as a bounded master plus a thumbnail in a sibling "-thumbs" folder;
+ * anything else is stored as uploaded.
+ *
+ * Uploads are content-addressed: objects are named by the SHA-256 of the uploaded bytes, and
+ * StoredDocument maps that hash to the stored URLs per owner and folder, so re-uploading the same
+ * document returns the existing URLs without processing or transferring it again.
+ */
+@Service
+public class DocumentUploader {
+
+    private static final String THUMBNAIL_SUFFIX = "-thumbs";
+    private static final int HASH_BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    private FileStorage fileStorage;
+
+    @Autowired
+    private ImageProcessor imageProcessor;
+
+    @Autowired
+    private StoredDocumentRepository storedDocumentRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${storage.backend:cloudinary}")
+    private String backend;
+
+    private Counter deduplicated;
+
+    @PostConstruct
+    void registerMetrics() {
+        deduplicated = Counter.builder("uploads.deduplicated")
+            .description("Uploads answered from the content index instead of being stored again")
+            .register(meterRegistry);
+    }
+
+    public StoredUpload storeIdProof(MultipartFile file, String phoneNumber) throws IOException {
+        return store(file, phoneNumber, FileStorage.ID_PROOF_FOLDER);
+    }
+
+    public StoredUpload storeIdProof(Path stagedFile, String phoneNumber) throws IOException {
+        return store(stagedFile, phoneNumber, FileStorage.ID_PROOF_FOLDER);
+    }
+
+    public StoredUpload storePaymentScreenshot(MultipartFile file, String phoneNumber) throws IOException {
+        return store(file, phoneNumber, FileStorage.PAYMENT_FOLDER);
+    }
+
+    public StoredUpload storePaymentScreenshot(Path stagedFile, String phoneNumber) throws IOException {
+        return store(stagedFile, phoneNumber, FileStorage.PAYMENT_FOLDER);
+    }
+
+    private StoredUpload store(MultipartFile file, String owner, String folder) throws IOException {
+        // Staged before hashing: every part is spooled to disk (file-size-threshold=0B), so transferTo is
+        // a rename and the hash below is the only pass over the bytes, duplicate or not
+        Path staged = Files.createTempFile("upload-", FileStorage.extensionOf(file.getOriginalFilename()));
+        try {
+            file.transferTo(staged.toFile());
+            return store(staged, owner, folder);
+        } finally {
+            Files.deleteIfExists(staged);
+        }
+    }
+
+    private StoredUpload store(Path file, String owner, String folder) throws IOException {
+        String sha256;
+        try (InputStream in = Files.newInputStream(file)) {
+            sha256 = sha256(in);
+        }
+        Optional<StoredUpload> existing = findExisting(owner, folder, sha256);
+        return existing.isPresent() ? existing.get() : storeNew(file, owner, folder, sha256);
+    }
+
+    private Optional<StoredUpload> findExisting(String owner, String folder, String sha256) {
+        Optional<StoredUpload> existing = storedDocumentRepository
+            .findByBackendAndOwnerAndFolderAndSha256(backend, owner, folder, sha256)
+            .map(document -> new StoredUpload(document.getUrl(), document.getThumbnailUrl()));
+        if (existing.isPresent()) {
+            deduplicated.increment();
+        }
+        return existing;
+    }
+
+    private StoredUpload storeNew(Path file, String owner, String folder, String sha256) throws IOException {
+        StoredUpload stored;
+        Optional<ImageProcessor.ProcessedImage> processed = imageProcessor.process(file);
+        if (processed.isEmpty()) {
+            String url = fileStorage.store(file, owner, folder, objectName(sha256, file));
+            stored = new StoredUpload(url, null);
+        } else {
+            ImageProcessor.ProcessedImage image = processed.get();
+            try {
+                String url = fileStorage.store(image.master(), owner, folder, objectName(sha256, image.master()));
+                String thumbnailUrl = fileStorage.store(image.thumbnail(), owner, folder + THUMBNAIL_SUFFIX,
+                    objectName(sha256, image.thumbnail()));
+                stored = new StoredUpload(url, thumbnailUrl);
+            } finally {
+                image.delete();
+            }
+        }
+
+        StoredDocument document = new StoredDocument();
+        document.setBackend(backend);
+        document.setOwner(owner);
+        document.setFolder(folder);
+        document.setSha256(sha256);
+        document.setUrl(stored.url());
+        document.setThumbnailUrl(stored.thumbnailUrl());
+        document.setSizeBytes(Files.size(file));
+        try {
+            storedDocumentRepository.save(document);
+        } catch (DataIntegrityViolationException e) {
+            // The same content was stored concurrently under the same name; its row serves as well
+        }
+        return stored;
+    }
+
+    // Same bytes, same name: a repeat store overwrites an identical object instead of adding one
+    private static String objectName(String sha256, Path file) {
+        return sha256 + FileStorage.extensionOf(file.getFileName().toString());
+    }
+
+    private static String sha256(InputStream in) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        byte[] buffer = new byte[HASH_BUFFER_SIZE];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            digest.update(buffer, 0, read);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
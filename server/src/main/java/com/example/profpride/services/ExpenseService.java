@@ -4,22 +4,45 @@ import com.example.profpride.models.Expense;
 import com.example.profpride.repositories.ExpenseRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import com.example.profpride.dto.KeysetPage;
+import com.example.profpride.dto.ListQuery;
+import com.example.profpride.enums.ExpenseCategory;
+import com.example.profpride.repositories.ListSpecifications;
+import org.springframework.data.jpa.domain.Specification;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class ExpenseService {
 
+    private static final Set<String> SORTABLE = Set.of("expenseDate", "amount");
+    private static final int MAX_BULK_SIZE = 500;
+
     @Autowired
     private ExpenseRepository expenseRepository;
 
+    @Autowired
+    private KeysetPager keysetPager;
+
     public Expense createExpense(Expense expense) {
         return expenseRepository.save(expense);
     }
 
-    public List<Expense> getAllExpenses() {
-        return expenseRepository.findAll();
+    // One transaction; with sequence ids Hibernate sends the inserts as JDBC batches
+    public List<Expense> createExpenses(List<Expense> expenses) {
+        if (expenses.isEmpty() || expenses.size() > MAX_BULK_SIZE) {
+            throw new IllegalArgumentException("Between 1 and " + MAX_BULK_SIZE + " expenses can be created at once");
+        }
+        return expenseRepository.saveAll(expenses);
+    }
+
+    public KeysetPage<Expense> listExpenses(ExpenseCategory category, LocalDate from, LocalDate to, ListQuery query) {
+        Specification<Expense> spec = Specification.<Expense>where(ListSpecifications.equalTo("category", category))
+            .and(ListSpecifications.betweenDates("expenseDate", from, to));
+        return keysetPager.page(expenseRepository, spec, query, "id", Long::valueOf, SORTABLE);
     }
 
     public Optional<Expense> getExpenseById(Long id) {
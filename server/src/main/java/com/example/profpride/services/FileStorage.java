@@ -0,0 +1,87 @@
+package com.example.profpride.services;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Where uploaded documents live. Exactly one implementation is active, chosen by storage.backend
+ * (cloudinary, local or s3); callers only ever see the public URL it returns.
+ */
+public interface FileStorage {
+
+    String ID_PROOF_FOLDER = "id-proof";
+    String PAYMENT_FOLDER = "payments";
+    String INVOICE_FOLDER = "invoices";
+
+    Pattern SAFE_SEGMENT = Pattern.compile("[A-Za-z0-9+_.-]{1,100}");
+
+    /**
+     * Stores a file that is already on local disk as {owner}/{folder}/{objectName} and returns its
+     * URL. Storing the same name again replaces the object, but backends serve objects as immutable,
+     * so content that changes must be stored under a new name. The caller still owns the file and
+     * deletes it afterwards.
+     */
+    String store(Path file, String owner, String folder, String objectName) throws IOException;
+
+    // Under a fresh unique name
+    default String store(Path file, String owner, String folder) throws IOException {
+        return store(file, owner, folder, newObjectName(extensionOf(file.getFileName().toString())));
+    }
+
+    boolean testConnection();
+
+    default String store(MultipartFile file, String owner, String folder) throws IOException {
+        // For a part Tomcat already spooled to disk, transferTo is a move rather than a copy
+        Path staged = Files.createTempFile("upload-", extensionOf(file.getOriginalFilename()));
+        try {
+            file.transferTo(staged.toFile());
+            return store(staged, owner, folder);
+        } finally {
+            Files.deleteIfExists(staged);
+        }
+    }
+
+    default String uploadPhotoIdProof(MultipartFile file, String phoneNumber) throws IOException {
+        return store(file, phoneNumber, ID_PROOF_FOLDER);
+    }
+
+    default String uploadPhotoIdProof(Path stagedFile, String phoneNumber) throws IOException {
+        return store(stagedFile, phoneNumber, ID_PROOF_FOLDER);
+    }
+
+    default String uploadPaymentScreenshot(MultipartFile file, String phoneNumber) throws IOException {
+        return store(file, phoneNumber, PAYMENT_FOLDER);
+    }
+
+    default String uploadPaymentScreenshot(Path stagedFile, String phoneNumber) throws IOException {
+        return store(stagedFile, phoneNumber, PAYMENT_FOLDER);
+    }
+
+    // Lower-cased ".ext" of a client-supplied name, or "" when absent or not plain alphanumerics
+    static String extensionOf(String filename) {
+        if (filename == null || filename.lastIndexOf('.') < 0) {
+            return "";
+        }
+        String extension = filename.substring(filename.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+        return extension.matches("[a-z0-9]{1,10}") ? "." + extension : "";
+    }
+
+    // Unique per call: parallel uploads for one owner can land in the same millisecond
+    static String newObjectName(String extension) {
+        return System.currentTimeMillis() + "-" + UUID.randomUUID().toString().substring(0, 8) + extension;
+    }
+
+    // Owner, folder and object name become path or key segments; keep them from escaping their prefix
+    static String checkSegment(String segment) {
+        if (segment == null || !SAFE_SEGMENT.matcher(segment).matches() || segment.startsWith(".")) {
+            throw new IllegalArgumentException("Invalid storage path segment: " + segment);
+        }
+        return segment;
+    }
+}
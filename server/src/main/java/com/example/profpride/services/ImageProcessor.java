@@ -0,0 +1,304 @@
+package com.example.profpride.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.imageio.IIOException;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Normalises uploaded photos before they are stored: decodes with subsampling so a large phone
+ * photo never sits in memory at full resolution, applies the EXIF orientation, and re-encodes a
+ * size-bounded master plus a thumbnail. Re-encoding drops all metadata (EXIF, GPS, camera data).
+ * Decoding is memory-heavy, so it runs on a small bounded pool; overflow is rejected with 503.
+ */
+@Service
+public class ImageProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageProcessor.class);
+
+    private static final int EXIF_ORIENTATION_TAG = 0x0112;
+
+    // Temp files holding the re-encoded images; the caller stores and then deletes them
+    public record ProcessedImage(Path master, Path thumbnail) {
+
+        public void delete() throws IOException {
+            Files.deleteIfExists(master);
+            Files.deleteIfExists(thumbnail);
+        }
+    }
+
+    private final boolean enabled;
+    private final int masterMaxEdge;
+    private final int thumbnailEdge;
+    private final float jpegQuality;
+    private final long timeoutMillis;
+    private final ThreadPoolExecutor executor;
+    private final Counter rejected;
+
+    public ImageProcessor(@Value("${image.processing.enabled:true}") boolean enabled,
+                          @Value("${image.master-max-edge:2048}") int masterMaxEdge,
+                          @Value("${image.thumbnail-edge:320}") int thumbnailEdge,
+                          @Value("${image.jpeg-quality:0.85}") float jpegQuality,
+                          @Value("${image.threads:2}") int threads,
+                          @Value("${image.queue:16}") int queueCapacity,
+                          @Value("${image.timeout-ms:30000}") long timeoutMillis,
+                          MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.masterMaxEdge = masterMaxEdge;
+        this.thumbnailEdge = thumbnailEdge;
+        this.jpegQuality = jpegQuality;
+        this.timeoutMillis = timeoutMillis;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("image-"),
+            new ThreadPoolExecutor.AbortPolicy());
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "imageProcessing");
+        this.rejected = Counter.builder("image.processing.rejected")
+            .description("Image processing tasks rejected because the pool and queue were full")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Produces a normalised master and thumbnail for a decodable image. Empty for anything else
+     * (PDFs, formats ImageIO cannot read, corrupt files), which callers store unchanged.
+     */
+    public Optional<ProcessedImage> process(Path source) throws IOException {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Future<Optional<ProcessedImage>> future;
+        try {
+            future = executor.submit(() -> doProcess(source));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many uploads being processed, please retry shortly");
+        }
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new IOException("Image processing timed out");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IOException("Image processing interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Image processing failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private Optional<ProcessedImage> doProcess(Path source) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : null;
+            if (readers == null || !readers.hasNext()) {
+                return Optional.empty();
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                boolean jpeg = reader.getFormatName().toLowerCase(Locale.ROOT).startsWith("jp");
+                int longEdge = Math.max(reader.getWidth(0), reader.getHeight(0));
+
+                // Integer subsampling while decoding keeps the decoded image at or above the master size
+                ImageReadParam param = reader.getDefaultReadParam();
+                int factor = Math.max(1, longEdge / masterMaxEdge);
+                param.setSourceSubsampling(factor, factor, 0, 0);
+                BufferedImage image = reader.read(0, param);
+
+                image = orient(image, jpeg ? readExifOrientation(source) : 1);
+                // Screenshots stay lossless PNG (keeping transparency); photos become JPEG
+                BufferedImage master = scaleToFit(image, masterMaxEdge, !jpeg && image.getColorModel().hasAlpha());
+                BufferedImage thumbnail = scaleToFit(master, thumbnailEdge, false);
+
+                Path masterFile = write(master, jpeg ? "jpg" : "png");
+                try {
+                    return Optional.of(new ProcessedImage(masterFile, write(thumbnail, "jpg")));
+                } catch (IOException e) {
+                    Files.deleteIfExists(masterFile);
+                    throw e;
+                }
+            } catch (IIOException e) {
+                log.info("Storing undecodable image {} as uploaded: {}", source.getFileName(), e.getMessage());
+                return Optional.empty();
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Downscales in halving steps; one bilinear pass from far above the target size aliases badly
+    private static BufferedImage scaleToFit(BufferedImage source, int maxEdge, boolean keepAlpha) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double scale = Math.min(1.0, (double) maxEdge / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+        int type = keepAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+
+        // Always at least one pass, which also normalises indexed/CMYK/BGR sources to the output type
+        BufferedImage current = source;
+        do {
+            width = width / 2 >= targetWidth ? width / 2 : targetWidth;
+            height = height / 2 >= targetHeight ? height / 2 : targetHeight;
+            current = draw(current, width, height, type, null);
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    // EXIF orientations 2-8 as a transform from the stored pixels to the upright image
+    private static BufferedImage orient(BufferedImage image, int orientation) {
+        if (orientation < 2 || orientation > 8) {
+            return image;
+        }
+        int w = image.getWidth();
+        int h = image.getHeight();
+        AffineTransform t = new AffineTransform();
+        switch (orientation) {
+            case 2 -> { t.translate(w, 0); t.scale(-1, 1); }
+            case 3 -> { t.translate(w, h); t.rotate(Math.PI); }
+            case 4 -> { t.translate(0, h); t.scale(1, -1); }
+            case 5 -> { t.rotate(-Math.PI / 2); t.scale(-1, 1); }
+            case 6 -> { t.translate(h, 0); t.rotate(Math.PI / 2); }
+            case 7 -> { t.translate(h, w); t.scale(-1, -1); t.rotate(-Math.PI / 2); t.scale(-1, 1); }
+            default -> { t.translate(0, w); t.rotate(3 * Math.PI / 2); }
+        }
+        boolean swap = orientation >= 5;
+        int type = image.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        return draw(image, swap ? h : w, swap ? w : h, type, t);
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height, int type, AffineTransform transform) {
+        BufferedImage target = new BufferedImage(width, height, type);
+        Graphics2D g = target.createGraphics();
+        try {
+            if (type == BufferedImage.TYPE_INT_RGB) {
+                // Flatten any transparency onto white rather than black
+                g.setColor(Color.WHITE);
+                g.fillRect(0, 0, width, height);
+            }
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            if (transform != null) {
+                g.drawImage(source, transform, null);
+            } else {
+                g.drawImage(source, 0, 0, width, height, null);
+            }
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    private Path write(BufferedImage image, String format) throws IOException {
+        Path file = Files.createTempFile("image-", "." + format);
+        try {
+            if ("jpg".equals(format)) {
+                ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+                try (ImageOutputStream out = ImageIO.createImageOutputStream(file.toFile())) {
+                    ImageWriteParam param = writer.getDefaultWriteParam();
+                    param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                    param.setCompressionQuality(jpegQuality);
+                    writer.setOutput(out);
+                    writer.write(null, new IIOImage(image, null, null), param);
+                } finally {
+                    writer.dispose();
+                }
+            } else {
+                ImageIO.write(image, format, file.toFile());
+            }
+            return file;
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    // Orientation tag from the first EXIF APP1 segment of a JPEG; 1 (upright) when absent or unreadable
+    private static int readExifOrientation(Path jpeg) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(jpeg)))) {
+            if (in.readUnsignedShort() != 0xFFD8) {
+                return 1;
+            }
+            while (true) {
+                int marker = in.readUnsignedShort();
+                // Metadata segments all precede start-of-scan
+                if ((marker & 0xFF00) != 0xFF00 || marker == 0xFFDA) {
+                    return 1;
+                }
+                int length = in.readUnsignedShort() - 2;
+                if (marker == 0xFFE1 && length > 14) {
+                    byte[] segment = new byte[length];
+                    in.readFully(segment);
+                    if (Arrays.equals(segment, 0, 6, "Exif\0\0".getBytes(StandardCharsets.US_ASCII), 0, 6)) {
+                        return orientationFromTiff(ByteBuffer.wrap(segment, 6, length - 6).slice());
+                    }
+                } else {
+                    in.skipNBytes(length);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            return 1;
+        }
+    }
+
+    private static int orientationFromTiff(ByteBuffer tiff) {
+        tiff.order(tiff.get(0) == 'I' ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+        int ifd = tiff.getInt(4);
+        int entries = tiff.getShort(ifd) & 0xFFFF;
+        for (int i = 0; i < entries; i++) {
+            int entry = ifd + 2 + i * 12;
+            if ((tiff.getShort(entry) & 0xFFFF) == EXIF_ORIENTATION_TAG) {
+                return tiff.getShort(entry + 8) & 0xFFFF;
+            }
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,423 @@
+package com.example.profpride.services;
+
+import com.example.profpride.dto.InvoiceBatchProgress;
+import com.example.profpride.dto.InvoiceData;
+import com.example.profpride.enums.BookingDurationType;
+import com.example.profpride.enums.BookingStatus;
+import com.example.profpride.enums.InvoiceBatchStatus;
+import com.example.profpride.models.Booking;
+import com.example.profpride.models.InvoiceBatch;
+import com.example.profpride.repositories.BookingRepository;
+import com.example.profpride.repositories.InvoiceBatchRepository;
+import com.example.profpride.repositories.InvoiceRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Month-end invoicing for MONTHLY bookings. A run walks the billable bookings of a period in id
+ * order, one chunk at a time: the chunk's invoice data is loaded in one query, its PDFs are
+ * rendered in parallel on a fork-join pool into the batch directory, and its Invoice rows are
+ * inserted as one JDBC batch in the same transaction that advances the checkpoint. A run that
+ * dies mid-way (JVM restart) is picked up again after its lease expires and continues after the
+ * last committed booking; inserts skip rows that already exist, so no chunk is invoiced twice.
+ * New invoices take their numbers from InvoiceNumberService, and a booking that already has one
+ * for the period keeps it. PDFs are filed by booking id, so a chunk rendered again on resume
+ * replaces its earlier files; when every chunk is done they are zipped into one download, each
+ * named by its committed invoice number.
+ */
+@Service
+@Lazy(false) // hosts @Scheduled jobs; must exist even with spring.main.lazy-initialization
+public class InvoiceBatchService {
+
+    private static final Logger log = LoggerFactory.getLogger(InvoiceBatchService.class);
+
+    private static final String INSERT_INVOICE =
+        "INSERT INTO invoice (booking_id, invoice_number, total_amount, tax_amount, discount_amount, final_amount, " +
+        "status, billing_period, created_at, updated_at) VALUES (?, ?, ?, 0, 0, ?, 'GENERATED', ?, ?, ?) " +
+        "ON CONFLICT (booking_id, billing_period) DO NOTHING";
+
+    private record IssuedInvoice(String number, BigDecimal amount, InvoiceData data) {
+    }
+
+    // Where this instance's current run started, for the throughput figure
+    private record RunStats(long startedNanos, int processedAtStart) {
+    }
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private InvoiceBatchRepository invoiceBatchRepository;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private InvoiceRenderer invoiceRenderer;
+
+    @Autowired
+    private InvoiceNumberService invoiceNumberService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final Path batchDir;
+    private final int chunkSize;
+    private final Duration lease;
+    private final ForkJoinPool renderPool;
+    private final ThreadPoolExecutor runner;
+    private final Counter invoicesIssued;
+    private final Timer chunkTimer;
+    private final Set<String> active = ConcurrentHashMap.newKeySet();
+    private final Map<String, RunStats> runs = new ConcurrentHashMap<>();
+
+    public InvoiceBatchService(@Value("${invoice.batch.dir:}") String batchDir,
+                               @Value("${invoice.batch.chunk-size:50}") int chunkSize,
+                               @Value("${invoice.batch.parallelism:0}") int parallelism,
+                               @Value("${invoice.batch.lease:2m}") Duration lease,
+                               MeterRegistry meterRegistry) {
+        this.batchDir = batchDir.isBlank()
+            ? Paths.get(System.getProperty("java.io.tmpdir"), "invoice-batches")
+            : Paths.get(batchDir);
+        this.chunkSize = chunkSize;
+        this.lease = lease;
+        this.renderPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.runner = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(12), new CustomizableThreadFactory("invoice-batch-"),
+            new ThreadPoolExecutor.AbortPolicy());
+        ExecutorServiceMetrics.monitor(meterRegistry, renderPool, "invoiceBatchRender");
+        this.invoicesIssued = Counter.builder("invoice.batch.invoices")
+            .description("Invoices created by month-end batches; bookings already invoiced for the period are not counted")
+            .register(meterRegistry);
+        this.chunkTimer = Timer.builder("invoice.batch.chunk")
+            .description("Time to load, render and insert one chunk of a month-end batch")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Starts the batch for the period, or resumes it from its checkpoint if an earlier run failed.
+     * A batch that is running or finished is returned as it is.
+     */
+    public InvoiceBatchProgress start(YearMonth period) {
+        String key = period.toString();
+        InvoiceBatch batch = invoiceBatchRepository.findByPeriod(key).orElse(null);
+        if (batch != null && batch.getStatus() != InvoiceBatchStatus.FAILED) {
+            return progress(batch);
+        }
+        if (batch == null) {
+            batch = new InvoiceBatch();
+            batch.setPeriod(key);
+            batch.setTotalBookings((int) bookingRepository.countBillable(BookingDurationType.MONTHLY,
+                BookingStatus.BLOCKING, period.atDay(1).atStartOfDay(), period.plusMonths(1).atDay(1).atStartOfDay()));
+        }
+        batch.setStatus(InvoiceBatchStatus.RUNNING);
+        batch.setErrorMessage(null);
+        batch.setHeartbeatAt(LocalDateTime.now());
+        try {
+            batch = invoiceBatchRepository.save(batch);
+        } catch (DataIntegrityViolationException | ObjectOptimisticLockingFailureException e) {
+            // Started concurrently by another request or instance
+            return progress(period).orElseThrow();
+        }
+        submit(batch);
+        return progress(batch);
+    }
+
+    public Optional<InvoiceBatchProgress> progress(YearMonth period) {
+        return invoiceBatchRepository.findByPeriod(period.toString()).map(this::progress);
+    }
+
+    public Optional<Path> zipFile(YearMonth period) {
+        return invoiceBatchRepository.findByPeriod(period.toString())
+            .filter(batch -> batch.getStatus() == InvoiceBatchStatus.SUCCEEDED && batch.getZipPath() != null)
+            .map(batch -> Paths.get(batch.getZipPath()))
+            .filter(Files::isRegularFile);
+    }
+
+    // Disabled unless invoice.batch.cron is set; bills the month the job runs in
+    @Scheduled(cron = "${invoice.batch.cron:-}")
+    public void startScheduled() {
+        InvoiceBatchProgress progress = start(YearMonth.now());
+        log.info("Scheduled invoice batch {} is {}", progress.period(), progress.status());
+    }
+
+    @Scheduled(fixedDelayString = "${invoice.batch.resume-check-ms:60000}", initialDelayString = "${invoice.batch.resume-check-ms:60000}")
+    public void resumeStalled() {
+        LocalDateTime expired = LocalDateTime.now().minus(lease);
+        for (InvoiceBatch batch : invoiceBatchRepository.findByStatus(InvoiceBatchStatus.RUNNING)) {
+            if (active.contains(batch.getPeriod())
+                || (batch.getHeartbeatAt() != null && batch.getHeartbeatAt().isAfter(expired))) {
+                continue;
+            }
+            try {
+                // Claim it: an instance that resumed it first has already bumped the version
+                batch.setHeartbeatAt(LocalDateTime.now());
+                batch = invoiceBatchRepository.save(batch);
+                log.info("Resuming invoice batch {} after booking {}", batch.getPeriod(), batch.getLastBookingId());
+                submit(batch);
+            } catch (ObjectOptimisticLockingFailureException | ResponseStatusException e) {
+                log.debug("Not resuming invoice batch {}: {}", batch.getPeriod(), e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+        renderPool.shutdownNow();
+    }
+
+    private void submit(InvoiceBatch batch) {
+        String period = batch.getPeriod();
+        Long batchId = batch.getId();
+        if (!active.add(period)) {
+            return;
+        }
+        try {
+            runner.execute(() -> {
+                try {
+                    run(batchId);
+                } finally {
+                    active.remove(period);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Stays RUNNING with a heartbeat; resumeStalled picks it up once the lease runs out
+            active.remove(period);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many invoice batches queued, please retry shortly");
+        }
+    }
+
+    private void run(Long batchId) {
+        InvoiceBatch batch = invoiceBatchRepository.findById(batchId).orElse(null);
+        if (batch == null || batch.getStatus() != InvoiceBatchStatus.RUNNING) {
+            return;
+        }
+        YearMonth period = YearMonth.parse(batch.getPeriod());
+        LocalDateTime periodStart = period.atDay(1).atStartOfDay();
+        LocalDateTime periodEnd = period.plusMonths(1).atDay(1).atStartOfDay();
+        Path pdfDir = batchDir.resolve(batch.getPeriod()).resolve("pdf");
+        runs.put(batch.getPeriod(), new RunStats(System.nanoTime(), batch.getProcessedBookings()));
+        try {
+            Files.createDirectories(pdfDir);
+            while (true) {
+                List<Booking> chunk = bookingRepository.findBillableAfter(BookingDurationType.MONTHLY, BookingStatus.BLOCKING,
+                    periodStart, periodEnd, batch.getLastBookingId(), PageRequest.of(0, chunkSize));
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                long started = System.nanoTime();
+                int createdBefore = batch.getCreatedInvoices();
+                batch = processChunk(batch, period, chunk, pdfDir);
+                chunkTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                invoicesIssued.increment(batch.getCreatedInvoices() - createdBefore);
+            }
+
+            Path zip = writeZip(batch.getPeriod(), pdfDir);
+            batch.setZipPath(zip.toString());
+            batch.setStatus(InvoiceBatchStatus.SUCCEEDED);
+            batch.setFinishedAt(LocalDateTime.now());
+            batch = invoiceBatchRepository.save(batch);
+            log.info("Invoice batch {} finished: {} bookings, {} invoices created",
+                batch.getPeriod(), batch.getProcessedBookings(), batch.getCreatedInvoices());
+        } catch (ObjectOptimisticLockingFailureException e) {
+            log.info("Invoice batch {} was taken over by another run; stopping this one", period);
+        } catch (Exception e) {
+            log.warn("Invoice batch {} failed after booking {}: {}", period, batch.getLastBookingId(), e.getMessage());
+            markFailed(batchId, e.getMessage());
+        } finally {
+            runs.remove(period.toString());
+        }
+    }
+
+    private InvoiceBatch processChunk(InvoiceBatch batch, YearMonth period, List<Booking> chunk, Path pdfDir) throws Exception {
+        List<Long> bookingIds = chunk.stream().map(Booking::getId).toList();
+        Map<Long, InvoiceData> data = invoiceRenderer.loadAll(bookingIds);
+        Map<Long, String> existing = issuedNumbers(invoiceRepository.findNumbersByBillingPeriod(period.toString(), bookingIds));
+        List<String> fresh = invoiceNumberService.next(period.atDay(1), (int) chunk.stream()
+            .filter(booking -> data.containsKey(booking.getId()) && !existing.containsKey(booking.getId()))
+            .count());
+        Iterator<String> freshNumbers = fresh.iterator();
+        List<IssuedInvoice> issued = new ArrayList<>(chunk.size());
+        for (Booking booking : chunk) {
+            InvoiceData invoiceData = data.get(booking.getId());
+            if (invoiceData != null) {
+                String number = existing.containsKey(booking.getId()) ? existing.get(booking.getId()) : freshNumbers.next();
+                issued.add(new IssuedInvoice(number, monthlyAmount(booking), invoiceData));
+            }
+        }
+
+        // Rendering is pure CPU on already-loaded data, so workers never queue on the small connection pool.
+        // PDFs land before the checkpoint commits: a crash in between re-renders the same files on resume,
+        // under fresh numbers; the ones drawn before the crash are simply never used.
+        renderPool.submit(() -> issued.parallelStream().forEach(invoice -> writePdf(pdfDir, invoice))).get();
+
+        Long lastBookingId = chunk.get(chunk.size() - 1).getId();
+        return transactionTemplate.execute(status -> {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            int[][] counts = jdbcTemplate.batchUpdate(INSERT_INVOICE, issued, issued.size(), (statement, invoice) -> {
+                statement.setLong(1, invoice.data().booking().getId());
+                statement.setString(2, invoice.number());
+                statement.setBigDecimal(3, invoice.amount());
+                statement.setBigDecimal(4, invoice.amount());
+                statement.setString(5, period.toString());
+                statement.setTimestamp(6, now);
+                statement.setTimestamp(7, now);
+            });
+            int created = 0;
+            for (int[] batchCounts : counts) {
+                for (int count : batchCounts) {
+                    created += count > 0 || count == Statement.SUCCESS_NO_INFO ? 1 : 0;
+                }
+            }
+            batch.setLastBookingId(lastBookingId);
+            batch.setProcessedBookings(batch.getProcessedBookings() + chunk.size());
+            batch.setCreatedInvoices(batch.getCreatedInvoices() + created);
+            batch.setHeartbeatAt(LocalDateTime.now());
+            // Version-checked: fails (and rolls the inserts back) if another run took this batch over
+            return invoiceBatchRepository.save(batch);
+        });
+    }
+
+    private void writePdf(Path pdfDir, IssuedInvoice invoice) {
+        try {
+            Path partial = Files.createTempFile(pdfDir, "render-", ".tmp");
+            try {
+                try (OutputStream out = Files.newOutputStream(partial)) {
+                    InvoicePdfLayout.write(invoice.data(), invoice.number(), out);
+                }
+                Files.move(partial, pdfDir.resolve(invoice.data().booking().getId() + ".pdf"),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(partial);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path writeZip(String period, Path pdfDir) throws IOException {
+        // Entries in invoice-number order; a PDF whose booking ended up with no invoice row is left out
+        Map<String, Path> pdfs = new TreeMap<>();
+        issuedNumbers(invoiceRepository.findNumbersByBillingPeriod(period)).forEach((bookingId, number) -> {
+            Path pdf = pdfDir.resolve(bookingId + ".pdf");
+            if (Files.isRegularFile(pdf)) {
+                pdfs.put(number, pdf);
+            }
+        });
+
+        Path target = batchDir.resolve(period).resolve("invoices-" + period + ".zip");
+        Path partial = Files.createTempFile(target.getParent(), "zip-", ".tmp");
+        try {
+            try (ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(partial)))) {
+                // PDF content streams are already deflated; don't spend CPU recompressing them hard
+                zip.setLevel(Deflater.BEST_SPEED);
+                for (Map.Entry<String, Path> pdf : pdfs.entrySet()) {
+                    zip.putNextEntry(new ZipEntry(pdf.getKey() + ".pdf"));
+                    Files.copy(pdf.getValue(), zip);
+                    zip.closeEntry();
+                }
+            }
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(partial);
+        }
+        return target;
+    }
+
+    private void markFailed(Long batchId, String message) {
+        try {
+            invoiceBatchRepository.findById(batchId).ifPresent(batch -> {
+                batch.setStatus(InvoiceBatchStatus.FAILED);
+                batch.setErrorMessage(message != null && message.length() > 500 ? message.substring(0, 500) : message);
+                batch.setFinishedAt(LocalDateTime.now());
+                invoiceBatchRepository.save(batch);
+            });
+        } catch (RuntimeException e) {
+            log.warn("Could not mark invoice batch {} failed: {}", batchId, e.getMessage());
+        }
+    }
+
+    private InvoiceBatchProgress progress(InvoiceBatch batch) {
+        double perSecond = 0;
+        RunStats run = runs.get(batch.getPeriod());
+        if (run != null) {
+            double seconds = (System.nanoTime() - run.startedNanos()) / 1e9;
+            perSecond = seconds > 0 ? (batch.getProcessedBookings() - run.processedAtStart()) / seconds : 0;
+        }
+        int total = batch.getTotalBookings();
+        double percent = total == 0
+            ? (batch.getStatus() == InvoiceBatchStatus.SUCCEEDED ? 100 : 0)
+            : Math.min(100, batch.getProcessedBookings() * 100.0 / total);
+        boolean zipReady = batch.getStatus() == InvoiceBatchStatus.SUCCEEDED && batch.getZipPath() != null;
+        return new InvoiceBatchProgress(batch.getPeriod(), batch.getStatus(), total, batch.getProcessedBookings(),
+            batch.getCreatedInvoices(), percent, perSecond, zipReady, batch.getErrorMessage());
+    }
+
+    private static Map<Long, String> issuedNumbers(List<Object[]> rows) {
+        Map<Long, String> numbers = new HashMap<>(rows.size() * 2);
+        for (Object[] row : rows) {
+            numbers.put((Long) row[0], (String) row[1]);
+        }
+        return numbers;
+    }
+
+    // The month's rent; falls back to the booking total when no monthly rate was recorded
+    private static BigDecimal monthlyAmount(Booking booking) {
+        BigDecimal monthly = booking.getMonthlyCost();
+        return monthly != null && monthly.signum() > 0 ? monthly : booking.getTotalAmount();
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.profpride.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Issues invoice numbers from the invoice_number_seq sequence (migration V5). One nextval reserves
+ * a whole block of numbers for this instance, which are then handed out from memory, so the
+ * database is hit once per block rather than once per invoice. Blocks of different instances never
+ * overlap; whatever is left of a block at shutdown is skipped, so numbering has gaps but no repeats.
+ *
+ * The format (invoice.number.format) is literal text with placeholders {seq}, {yyyy}, {yy}, {MM}
+ * and {dd}; the date ones come from the issue date, or the billing period for month-end batches.
+ */
+@Service
+public class InvoiceNumberService {
+
+    private static final String NEXT_BLOCK =
+        "SELECT nextval('invoice_number_seq'), increment_by FROM pg_sequences " +
+        "WHERE schemaname = current_schema() AND sequencename = 'invoice_number_seq'";
+
+    private enum Field { SEQ, YEAR, YEAR_2, MONTH, DAY }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Each element is a literal String or a Field
+    private final List<Object> parts = new ArrayList<>();
+    private final int minDigits;
+    private final int estimatedLength;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // Unissued numbers of the current block are next .. last
+    private long next = 1;
+    private long last = 0;
+
+    public InvoiceNumberService(@Value("${invoice.number.format:INV-{yyyy}{MM}-{seq}}") String format,
+                                @Value("${invoice.number.min-digits:6}") int minDigits) {
+        this.minDigits = minDigits;
+        compile(format);
+        if (!parts.contains(Field.SEQ)) {
+            throw new IllegalArgumentException("invoice.number.format must contain {seq}: " + format);
+        }
+        this.estimatedLength = format.length() + minDigits + 8;
+    }
+
+    public String next() {
+        return next(LocalDate.now());
+    }
+
+    public String next(LocalDate date) {
+        return format(nextValues(1)[0], date);
+    }
+
+    /** Several numbers under one lock, e.g. for a batch chunk; at most one database round trip per block. */
+    public List<String> next(LocalDate date, int count) {
+        List<String> numbers = new ArrayList<>(count);
+        for (long value : nextValues(count)) {
+            numbers.add(format(value, date));
+        }
+        return numbers;
+    }
+
+    private long[] nextValues(int count) {
+        long[] values = new long[count];
+        lock.lock();
+        try {
+            for (int i = 0; i < count; i++) {
+                if (next > last) {
+                    reserveBlock();
+                }
+                values[i] = next++;
+            }
+        } finally {
+            lock.unlock();
+        }
+        return values;
+    }
+
+    // nextval moves the sequence by its current increment, so v - increment + 1 .. v belongs to nobody else
+    private void reserveBlock() {
+        jdbcTemplate.query(NEXT_BLOCK, rs -> {
+            long value = rs.getLong(1);
+            long increment = rs.getLong(2);
+            next = Math.max(1, value - increment + 1);
+            last = value;
+        });
+        if (next > last) {
+            throw new IllegalStateException("Sequence invoice_number_seq is missing; has migration V5 run?");
+        }
+    }
+
+    private String format(long value, LocalDate date) {
+        StringBuilder number = new StringBuilder(estimatedLength);
+        for (Object part : parts) {
+            if (part instanceof String literal) {
+                number.append(literal);
+            } else {
+                switch ((Field) part) {
+                    case SEQ -> appendPadded(number, value, minDigits);
+                    case YEAR -> appendPadded(number, date.getYear(), 4);
+                    case YEAR_2 -> appendPadded(number, date.getYear() % 100, 2);
+                    case MONTH -> appendPadded(number, date.getMonthValue(), 2);
+                    case DAY -> appendPadded(number, date.getDayOfMonth(), 2);
+                }
+            }
+        }
+        return number.toString();
+    }
+
+    private static void appendPadded(StringBuilder out, long value, int width) {
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        for (int i = digits; i < width; i++) {
+            out.append('0');
+        }
+        out.append(value);
+    }
+
+    private void compile(String format) {
+        int position = 0;
+        while (position < format.length()) {
+            int open = format.indexOf('{', position);
+            if (open < 0) {
+                parts.add(format.substring(position));
+                break;
+            }
+            int close = format.indexOf('}', open);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder in invoice.number.format: " + format);
+            }
+            if (open > position) {
+                parts.add(format.substring(position, open));
+            }
+            parts.add(switch (format.substring(open + 1, close)) {
+                case "seq" -> Field.SEQ;
+                case "yyyy" -> Field.YEAR;
+                case "yy" -> Field.YEAR_2;
+                case "MM" -> Field.MONTH;
+                case "dd" -> Field.DAY;
+                default -> throw new IllegalArgumentException("Unknown placeholder " + format.substring(open, close + 1)
+                    + " in invoice.number.format");
+            });
+            position = close + 1;
+        }
+    }
+}
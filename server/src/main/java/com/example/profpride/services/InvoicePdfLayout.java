@@ -0,0 +1,236 @@
+package com.example.profpride.services;
+
+import com.example.profpride.dto.InvoiceData;
+import com.example.profpride.models.Booking;
+import com.example.profpride.models.Payment;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Lays an invoice out on A4 pages with PDFBox, from the same InvoiceData and wording as the HTML
+ * preview. Uses the standard Helvetica faces, so nothing is embedded and files stay a few KB;
+ * amounts are prefixed "Rs." because the standard fonts have no rupee glyph.
+ */
+final class InvoicePdfLayout {
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final Color ACCENT = new Color(0x66, 0x7e, 0xea);
+    private static final Color MUTED = new Color(0x66, 0x66, 0x66);
+    private static final Color RULE = new Color(0xee, 0xee, 0xee);
+    private static final Color PANEL = new Color(0xf8, 0xf9, 0xfa);
+    private static final Color PAID = new Color(0x28, 0xa7, 0x45);
+    private static final Color DUE = new Color(0xdc, 0x35, 0x45);
+
+    private static final float MARGIN = 50;
+    private static final float ROW_HEIGHT = 22;
+    private static final float[] COLUMNS = {0, 0.45f, 0.65f, 0.82f};
+
+    private final PDDocument document;
+    private final PDFont regular = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+    private final PDFont bold = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD);
+    private final float width = PDRectangle.A4.getWidth() - 2 * MARGIN;
+    private PDPageContentStream content;
+    private float y;
+
+    private InvoicePdfLayout(PDDocument document) {
+        this.document = document;
+    }
+
+    static void write(InvoiceData data, OutputStream out) throws IOException {
+        write(data, data.invoiceNumber(), out);
+    }
+
+    // With a number chosen by the caller, e.g. one the month-end batch is about to issue
+    static void write(InvoiceData data, String invoiceNumber, OutputStream out) throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            document.getDocumentInformation().setTitle("Professional Pride Invoice " + invoiceNumber);
+            InvoicePdfLayout layout = new InvoicePdfLayout(document);
+            try {
+                layout.newPage();
+                layout.draw(data, invoiceNumber);
+            } finally {
+                layout.content.close();
+            }
+            document.save(out);
+        }
+    }
+
+    private void draw(InvoiceData data, String invoiceNumber) throws IOException {
+        Booking booking = data.booking();
+        float pageTop = PDRectangle.A4.getHeight() - MARGIN;
+
+        fill(ACCENT, MARGIN, pageTop - 80, width, 80);
+        centered(bold, 22, Color.WHITE, "PROFESSIONAL PRIDE", pageTop - 40);
+        centered(regular, 11, Color.WHITE, "ECC Road, Whitefield, Bangalore - 560066", pageTop - 62);
+        y = pageTop - 110;
+
+        float column = width / 3;
+        float top = y;
+        metaBlock(MARGIN, top, "Invoice Details",
+            "Invoice #: " + invoiceNumber,
+            "Date: " + LocalDateTime.now().format(DATE),
+            "Booking ID: " + booking.getId());
+        metaBlock(MARGIN + column, top, "Customer Information",
+            "Name: " + data.customerNameOrDefault(),
+            "Phone: " + booking.getCustomerPhoneNumber(),
+            "Room: " + data.roomNumberOrDefault());
+        metaBlock(MARGIN + 2 * column, top, "Booking Details",
+            "Check-in: " + booking.getCheckInDate().format(DATE),
+            "Check-out: " + booking.getCheckOutDate().format(DATE),
+            "Status: " + booking.getBookingStatus().name());
+        y = top - 80;
+
+        tableHeader("Description", "Duration", "Rate", "Amount");
+        row(regular, "Room " + data.roomNumberOrDefault() + " - " + booking.getBookingDurationType() + " Booking",
+            data.durationLabel(), money(data.rate()), money(booking.getTotalAmount()));
+        extraCharge("Early Check-in Fee", booking.getEarlyCheckinCost());
+        extraCharge("Late Check-out Fee", booking.getLateCheckoutCost());
+        ensureSpace(ROW_HEIGHT);
+        fill(ACCENT, MARGIN, y - ROW_HEIGHT, width, ROW_HEIGHT);
+        text(bold, 11, Color.WHITE, "Total Amount", MARGIN + 6, y - 15);
+        text(bold, 11, Color.WHITE, money(booking.getTotalAmount()), MARGIN + COLUMNS[3] * width + 6, y - 15);
+        y -= ROW_HEIGHT + 30;
+
+        ensureSpace(20 + 2 * ROW_HEIGHT);
+        text(bold, 13, ACCENT, "Payment Breakdown", MARGIN, y);
+        y -= 12;
+        tableHeader("Payment Date", "Amount", "Method", "Status");
+        if (data.payments().isEmpty()) {
+            row(regular, "No payments recorded", "", "", "");
+        }
+        for (Payment payment : data.payments()) {
+            row(regular,
+                payment.getPaymentDate() != null ? payment.getPaymentDate().format(DATE) : "N/A",
+                money(payment.getAmount()),
+                String.valueOf(payment.getPaymentMethod()),
+                payment.getPaymentStatus().name());
+        }
+
+        BigDecimal due = data.dueAmount();
+        y -= 20;
+        ensureSpace(90);
+        fill(PANEL, MARGIN, y - 80, width, 80);
+        summaryLine("Total Amount:", money(booking.getTotalAmount()), Color.BLACK, y - 22);
+        summaryLine("Total Paid:", money(data.totalPaid()), PAID, y - 44);
+        summaryLine("Due Amount:", money(due), due.compareTo(BigDecimal.ZERO) > 0 ? DUE : PAID, y - 66);
+        y -= 110;
+
+        ensureSpace(50);
+        centered(bold, 13, ACCENT, "Thank You for Choosing Professional Pride!", y);
+        centered(regular, 10, MUTED, "For any queries, please contact us at: +91-9731177065", y - 18);
+    }
+
+    private void metaBlock(float x, float top, String title, String... lines) throws IOException {
+        text(bold, 11, ACCENT, title, x, top);
+        float lineY = top - 18;
+        for (String line : lines) {
+            text(regular, 9, MUTED, line, x, lineY);
+            lineY -= 14;
+        }
+    }
+
+    private void tableHeader(String... cells) throws IOException {
+        ensureSpace(2 * ROW_HEIGHT);
+        fill(ACCENT, MARGIN, y - ROW_HEIGHT, width, ROW_HEIGHT);
+        for (int i = 0; i < cells.length; i++) {
+            text(bold, 10, Color.WHITE, cells[i], MARGIN + COLUMNS[i] * width + 6, y - 15);
+        }
+        y -= ROW_HEIGHT;
+    }
+
+    private void row(PDFont font, String... cells) throws IOException {
+        ensureSpace(ROW_HEIGHT);
+        for (int i = 0; i < cells.length; i++) {
+            text(font, 10, Color.BLACK, cells[i], MARGIN + COLUMNS[i] * width + 6, y - 15);
+        }
+        content.setStrokingColor(RULE);
+        content.moveTo(MARGIN, y - ROW_HEIGHT);
+        content.lineTo(MARGIN + width, y - ROW_HEIGHT);
+        content.stroke();
+        y -= ROW_HEIGHT;
+    }
+
+    private void extraCharge(String description, BigDecimal cost) throws IOException {
+        if (cost != null && cost.compareTo(BigDecimal.ZERO) > 0) {
+            row(regular, description, "-", money(cost), money(cost));
+        }
+    }
+
+    private void summaryLine(String label, String value, Color valueColor, float baseline) throws IOException {
+        text(bold, 11, Color.BLACK, label, MARGIN + 12, baseline);
+        String shown = safe(value);
+        float valueWidth = bold.getStringWidth(shown) / 1000 * 11;
+        text(bold, 11, valueColor, shown, MARGIN + width - 12 - valueWidth, baseline);
+    }
+
+    private void ensureSpace(float height) throws IOException {
+        if (y - height < MARGIN) {
+            content.close();
+            newPage();
+            y = PDRectangle.A4.getHeight() - MARGIN;
+        }
+    }
+
+    private void newPage() throws IOException {
+        PDPage page = new PDPage(PDRectangle.A4);
+        document.addPage(page);
+        content = new PDPageContentStream(document, page);
+        content.setLineWidth(0.75f);
+    }
+
+    private void fill(Color color, float x, float bottom, float w, float h) throws IOException {
+        content.setNonStrokingColor(color);
+        content.addRect(x, bottom, w, h);
+        content.fill();
+    }
+
+    private void centered(PDFont font, float size, Color color, String value, float baseline) throws IOException {
+        String shown = safe(value);
+        float textWidth = font.getStringWidth(shown) / 1000 * size;
+        text(font, size, color, shown, MARGIN + (width - textWidth) / 2, baseline);
+    }
+
+    private void text(PDFont font, float size, Color color, String value, float x, float baseline) throws IOException {
+        content.beginText();
+        content.setFont(font, size);
+        content.setNonStrokingColor(color);
+        content.newLineAtOffset(x, baseline);
+        content.showText(safe(value));
+        content.endText();
+    }
+
+    private static String money(BigDecimal value) {
+        return "Rs. " + InvoiceRenderer.amount(value);
+    }
+
+    // The standard fonts only encode WinAnsi; anything else (names in other scripts, emoji) becomes '?'
+    private static String safe(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder safe = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x20) {
+                safe.append(' ');
+            } else if (c < 0x7f || (c >= 0xa0 && c <= 0xff)) {
+                safe.append(c);
+            } else {
+                safe.append('?');
+            }
+        }
+        return safe.toString();
+    }
+}
@@ -0,0 +1,237 @@
+package com.example.profpride.services;
+
+import com.example.profpride.dto.InvoiceData;
+import com.example.profpride.dto.InvoiceVersion;
+import com.example.profpride.repositories.BookingRepository;
+import com.example.profpride.repositories.InvoiceRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Invoice PDFs are rendered ahead of time on a small bounded pool whenever an invoice is created
+ * or its booking or payments change, and kept on local disk named by booking and InvoiceVersion.
+ * A download then only checks the version and reads the file; a synchronous render happens just
+ * for a version nobody has rendered yet (cold cache, another instance's write, a dropped task).
+ * Each render is also pushed to the storage backend and recorded as Invoice.pdfUrl. Both backends
+ * serve objects as immutable for a year, so the object name carries the version fingerprint too:
+ * a changed invoice gets a new URL instead of overwriting one that caches still hold.
+ */
+@Service
+public class InvoicePdfService {
+
+    private static final Logger log = LoggerFactory.getLogger(InvoicePdfService.class);
+
+    @Autowired
+    private InvoiceRenderer invoiceRenderer;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Autowired
+    private FileStorage fileStorage;
+
+    private final Path cacheDir;
+    private final long timeoutMillis;
+    private final ThreadPoolExecutor executor;
+    private final Counter rejected;
+    // Bookings with a render queued; further changes before it starts are covered by that render
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+
+    public InvoicePdfService(@Value("${invoice.pdf.cache-dir:}") String cacheDir,
+                             @Value("${invoice.pdf.threads:2}") int threads,
+                             @Value("${invoice.pdf.queue:100}") int queueCapacity,
+                             @Value("${invoice.pdf.timeout-ms:30000}") long timeoutMillis,
+                             MeterRegistry meterRegistry) {
+        this.cacheDir = cacheDir.isBlank()
+            ? Paths.get(System.getProperty("java.io.tmpdir"), "invoice-pdfs")
+            : Paths.get(cacheDir);
+        this.timeoutMillis = timeoutMillis;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("invoice-pdf-"),
+            new ThreadPoolExecutor.AbortPolicy());
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "invoicePdf");
+        this.rejected = Counter.builder("invoice.pdf.rejected")
+            .description("Invoice PDF renders rejected because the pool and queue were full")
+            .register(meterRegistry);
+    }
+
+    /** Queues a background render if the booking has an invoice. Never blocks or throws. */
+    public void requestRender(Long bookingId) {
+        if (bookingId == null || !queued.add(bookingId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                queued.remove(bookingId);
+                try {
+                    if (invoiceRepository.existsByBookingId(bookingId)) {
+                        render(bookingId);
+                    }
+                } catch (Exception e) {
+                    log.warn("Background invoice render for booking {} failed: {}", bookingId, e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // The next download renders it instead
+            queued.remove(bookingId);
+            rejected.increment();
+        }
+    }
+
+    /**
+     * The PDF for the booking's current state on local disk, rendering it first if needed.
+     * Empty when the booking does not exist.
+     */
+    public Optional<Path> currentPdf(Long bookingId) throws IOException {
+        Optional<InvoiceVersion> version = bookingRepository.findInvoiceVersion(bookingId);
+        if (version.isEmpty()) {
+            return Optional.empty();
+        }
+        Path file = pdfPath(bookingId, version.get());
+        if (Files.isRegularFile(file)) {
+            return Optional.of(file);
+        }
+
+        // Renders on the same pool so downloads share its bound instead of adding request threads
+        Future<Optional<Path>> future;
+        try {
+            future = executor.submit(() -> render(bookingId));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many invoices being rendered, please retry shortly");
+        }
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new IOException("Invoice rendering timed out");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IOException("Invoice rendering interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Invoice rendering failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /** Whether a published pdfUrl is the render of the booking's current version. */
+    public boolean isCurrent(Long bookingId, String pdfUrl) {
+        return pdfUrl != null && bookingRepository.findInvoiceVersion(bookingId)
+            .map(version -> pdfUrl.endsWith("/" + objectName(bookingId, version)))
+            .orElse(false);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private Optional<Path> render(Long bookingId) throws IOException {
+        // Version first: data that moves on in between is filed under the older version and
+        // simply rendered again on the next version check
+        Optional<InvoiceVersion> version = bookingRepository.findInvoiceVersion(bookingId);
+        Optional<InvoiceData> data = invoiceRenderer.load(bookingId);
+        if (version.isEmpty() || data.isEmpty()) {
+            return Optional.empty();
+        }
+        Path target = pdfPath(bookingId, version.get());
+        if (Files.isRegularFile(target)) {
+            return Optional.of(target);
+        }
+
+        Files.createDirectories(cacheDir);
+        Path partial = Files.createTempFile(cacheDir, "render-", ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(partial)) {
+                InvoicePdfLayout.write(data.get(), out);
+            }
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(partial);
+        }
+        deleteOlderVersions(bookingId, target);
+        publish(bookingId, data.get().booking().getCustomerPhoneNumber(), target, objectName(bookingId, version.get()));
+        return Optional.of(target);
+    }
+
+    private void publish(Long bookingId, String owner, Path pdf, String objectName) {
+        try {
+            String url = fileStorage.store(pdf, owner, FileStorage.INVOICE_FOLDER, objectName);
+            invoiceRepository.updatePdfUrl(bookingId, url);
+        } catch (IOException | RuntimeException e) {
+            // Downloads are served from the local copy either way
+            log.warn("Could not publish invoice PDF for booking {}: {}", bookingId, e.getMessage());
+        }
+    }
+
+    private void deleteOlderVersions(Long bookingId, Path current) {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(cacheDir, bookingId + "-*.pdf")) {
+            for (Path file : files) {
+                if (!file.equals(current)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not clean up old invoice PDFs for booking {}: {}", bookingId, e.getMessage());
+        }
+    }
+
+    private Path pdfPath(Long bookingId, InvoiceVersion version) {
+        return cacheDir.resolve(bookingId + "-" + fingerprint(version) + ".pdf");
+    }
+
+    // A new name per version: stored objects are cached as immutable
+    private static String objectName(Long bookingId, InvoiceVersion version) {
+        return "invoice-" + bookingId + "-" + fingerprint(version) + ".pdf";
+    }
+
+    // SHA-256 of every version field; a 32-bit hashCode let two versions share a file
+    private static String fingerprint(InvoiceVersion version) {
+        String fields = version.bookingUpdatedAt() + "|" + version.latestInvoiceId() + "|" + version.latestPaymentId()
+            + "|" + version.paymentCount() + "|" + version.paymentsUpdatedAt();
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(fields.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
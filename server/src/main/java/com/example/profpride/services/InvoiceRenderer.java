@@ -0,0 +1,173 @@
+package com.example.profpride.services;
+
+import com.example.profpride.dto.InvoiceData;
+import com.example.profpride.dto.InvoiceVersion;
+import com.example.profpride.models.Booking;
+import com.example.profpride.models.Payment;
+import com.example.profpride.repositories.BookingRepository;
+import com.example.profpride.utils.HtmlTemplate;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Renders invoices from the compiled templates under resources/invoice. Previews are cached per
+ * booking together with the InvoiceVersion they were rendered from; a preview request costs one
+ * aggregate query, and the full data is only loaded and rendered when that version has moved.
+ * The TTL bounds staleness from changes the version does not see (customer name, room number).
+ */
+@Service
+public class InvoiceRenderer {
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    // One buffer per render, reused for its three fragments; a thread-bound cache would not survive
+    // virtual threads, which are never reused
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private record CachedPreview(InvoiceVersion version, byte[] html) {
+    }
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private final HtmlTemplate page = HtmlTemplate.load("invoice/invoice.html");
+    private final HtmlTemplate chargeRow = HtmlTemplate.load("invoice/charge-row.html");
+    private final HtmlTemplate paymentRow = HtmlTemplate.load("invoice/payment-row.html");
+    private final HtmlTemplate noPaymentsRow = HtmlTemplate.load("invoice/no-payments-row.html");
+
+    private final Cache<Long, CachedPreview> previews;
+
+    public InvoiceRenderer(@Value("${invoice.preview-cache.max-size:16MB}") DataSize maxSize,
+                           @Value("${invoice.preview-cache.ttl:1h}") Duration ttl,
+                           MeterRegistry meterRegistry) {
+        this.previews = Caffeine.newBuilder()
+            .maximumWeight(maxSize.toBytes())
+            .weigher((Long bookingId, CachedPreview preview) -> preview.html().length)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, previews, "invoicePreviews");
+    }
+
+    /** UTF-8 HTML of the booking's invoice, empty when the booking does not exist. Do not modify the array. */
+    public Optional<byte[]> previewHtml(Long bookingId) {
+        Optional<InvoiceVersion> version = bookingRepository.findInvoiceVersion(bookingId);
+        if (version.isEmpty()) {
+            return Optional.empty();
+        }
+        CachedPreview cached = previews.getIfPresent(bookingId);
+        if (cached != null && cached.version().equals(version.get())) {
+            return Optional.of(cached.html());
+        }
+        // A change landing after the version read is rendered now but cached under the older
+        // version, so the next request re-renders rather than serving it stale
+        Optional<byte[]> html = load(bookingId).map(this::renderHtml);
+        html.ifPresent(rendered -> previews.put(bookingId, new CachedPreview(version.get(), rendered)));
+        return html;
+    }
+
+    public Optional<InvoiceData> load(Long bookingId) {
+        return Optional.ofNullable(group(bookingRepository.findInvoiceRows(bookingId)).get(bookingId));
+    }
+
+    // Many bookings in one query, keyed by booking id in id order
+    public Map<Long, InvoiceData> loadAll(Collection<Long> bookingIds) {
+        return bookingIds.isEmpty() ? Map.of() : group(bookingRepository.findInvoiceRowsByIds(bookingIds));
+    }
+
+    // Rows are (booking, roomNumber, customerName, payment-or-null, latest invoice number), ordered by booking
+    private static Map<Long, InvoiceData> group(List<Object[]> rows) {
+        Map<Long, InvoiceData> invoices = new LinkedHashMap<>();
+        Map<Long, List<Payment>> payments = new HashMap<>();
+        for (Object[] row : rows) {
+            Booking booking = (Booking) row[0];
+            List<Payment> bookingPayments = payments.computeIfAbsent(booking.getId(), id -> new ArrayList<>());
+            invoices.computeIfAbsent(booking.getId(),
+                id -> new InvoiceData(booking, (String) row[2], (String) row[1], (String) row[4], bookingPayments));
+            if (row[3] != null) {
+                bookingPayments.add((Payment) row[3]);
+            }
+        }
+        return invoices;
+    }
+
+    public byte[] renderHtml(InvoiceData data) {
+        Booking booking = data.booking();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(BUFFER_SIZE);
+        renderExtraCharge(buffer, "Early Check-in Fee", booking.getEarlyCheckinCost());
+        renderExtraCharge(buffer, "Late Check-out Fee", booking.getLateCheckoutCost());
+        byte[] extraCharges = buffer.toByteArray();
+
+        buffer.reset();
+        if (data.payments().isEmpty()) {
+            noPaymentsRow.values().renderTo(buffer);
+        }
+        for (Payment payment : data.payments()) {
+            paymentRow.values()
+                .text("date", payment.getPaymentDate() != null ? payment.getPaymentDate().format(DATE) : "N/A")
+                .text("amount", amount(payment.getAmount()))
+                .text("method", payment.getPaymentMethod())
+                .text("status", payment.getPaymentStatus().name())
+                .text("statusClass", payment.getPaymentStatus().name().toLowerCase(Locale.ROOT))
+                .renderTo(buffer);
+        }
+        byte[] paymentRows = buffer.toByteArray();
+
+        BigDecimal due = data.dueAmount();
+        buffer.reset();
+        page.values()
+            .text("invoiceNumber", data.invoiceNumber())
+            .text("invoiceDate", LocalDateTime.now().format(DATE))
+            .text("bookingId", booking.getId())
+            .text("customerName", data.customerNameOrDefault())
+            .text("customerPhone", booking.getCustomerPhoneNumber())
+            .text("roomNumber", data.roomNumberOrDefault())
+            .text("checkIn", booking.getCheckInDate().format(DATE))
+            .text("checkOut", booking.getCheckOutDate().format(DATE))
+            .text("status", booking.getBookingStatus().name())
+            .text("statusClass", booking.getBookingStatus().name().toLowerCase(Locale.ROOT))
+            .text("durationType", booking.getBookingDurationType())
+            .text("duration", data.durationLabel())
+            .text("rate", amount(data.rate()))
+            .text("totalAmount", amount(booking.getTotalAmount()))
+            .html("extraCharges", extraCharges)
+            .html("payments", paymentRows)
+            .text("totalPaid", amount(data.totalPaid()))
+            .text("dueAmount", amount(due))
+            .text("dueClass", due.compareTo(BigDecimal.ZERO) > 0 ? "due" : "paid")
+            .renderTo(buffer);
+        return buffer.toByteArray();
+    }
+
+    private void renderExtraCharge(ByteArrayOutputStream buffer, String description, BigDecimal cost) {
+        if (cost != null && cost.compareTo(BigDecimal.ZERO) > 0) {
+            chargeRow.values()
+                .text("description", description)
+                .text("amount", amount(cost))
+                .renderTo(buffer);
+        }
+    }
+
+    static String amount(BigDecimal value) {
+        return value != null ? value.toPlainString() : "0";
+    }
+}
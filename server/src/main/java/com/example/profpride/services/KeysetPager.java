@@ -0,0 +1,78 @@
+package com.example.profpride.services;
+
+import com.example.profpride.dto.KeysetPage;
+import com.example.profpride.dto.ListQuery;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Runs a list endpoint as a keyset-scrolled Window query: WHERE (sort, id) > (cursor row's sort, id)
+ * ORDER BY sort, id LIMIT n. Every page costs the same regardless of table size, and the
+ * client's cursor stays the plain id of the last row it received.
+ */
+@Service
+public class KeysetPager {
+
+    @Value("${pagination.default-limit:100}")
+    private int defaultLimit;
+
+    @Value("${pagination.max-limit:500}")
+    private int maxLimit;
+
+    public <T, ID, R extends JpaRepository<T, ID> & JpaSpecificationExecutor<T>> KeysetPage<T> page(
+            R repository, Specification<T> spec, ListQuery query,
+            String idProperty, Function<String, ID> idParser, Set<String> sortable) {
+
+        String sortProperty = query.sort() == null || query.sort().isBlank() ? idProperty : query.sort();
+        if (!sortProperty.equals(idProperty) && !sortable.contains(sortProperty)) {
+            throw new IllegalArgumentException("Unsupported sort '" + sortProperty + "', expected one of " + sortable);
+        }
+        Sort.Direction direction = query.direction() == null || query.direction().isBlank()
+            ? Sort.Direction.ASC : Sort.Direction.fromString(query.direction());
+        // id last so the ordering - and therefore the cursor - is unique
+        Sort sort = sortProperty.equals(idProperty)
+            ? Sort.by(direction, idProperty)
+            : Sort.by(direction, sortProperty).and(Sort.by(direction, idProperty));
+
+        int limit = query.limit() == null ? defaultLimit : Math.max(1, Math.min(query.limit(), maxLimit));
+        ScrollPosition position = startAfter(repository, query.after(), idProperty, idParser, sortProperty);
+
+        Window<T> window = repository.findBy(Specification.where(spec),
+            q -> q.sortBy(sort).limit(limit).scroll(position));
+
+        List<T> items = window.getContent();
+        String nextCursor = window.hasNext() && !items.isEmpty()
+            ? String.valueOf(new BeanWrapperImpl(items.get(items.size() - 1)).getPropertyValue(idProperty))
+            : null;
+        return new KeysetPage<>(items, nextCursor);
+    }
+
+    private <T, ID> ScrollPosition startAfter(JpaRepository<T, ID> repository, String after,
+                                              String idProperty, Function<String, ID> idParser, String sortProperty) {
+        if (after == null || after.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        ID afterId = idParser.apply(after);
+        // The cursor is just an id; the anchor row supplies its sort value
+        T anchor = repository.findById(afterId)
+            .orElseThrow(() -> new IllegalArgumentException("Unknown cursor: " + after));
+
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put(sortProperty, new BeanWrapperImpl(anchor).getPropertyValue(sortProperty));
+        keys.put(idProperty, afterId);
+        return ScrollPosition.forward(keys);
+    }
+}
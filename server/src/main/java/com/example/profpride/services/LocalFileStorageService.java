@@ -1,6 +1,7 @@
 package com.example.profpride.services;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -8,61 +9,50 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.UUID;
+import java.nio.file.StandardCopyOption;
 
+// Files land under file.upload.path and are served back by LocalFileController at /uploads/**
 @Service
-public class LocalFileStorageService {
+@ConditionalOnProperty(name = "storage.backend", havingValue = "local")
+public class LocalFileStorageService implements FileStorage {
 
     @Value("${file.upload.path:uploads}")
     private String uploadPath;
 
-    public String uploadPhotoIdProof(MultipartFile file, String phoneNumber) throws IOException {
-        return uploadFile(file, phoneNumber, "idproofs");
+    @Override
+    public String store(Path file, String owner, String folder, String objectName) throws IOException {
+        Path target = newTarget(owner, folder, FileStorage.checkSegment(objectName));
+        // Copy beside the target and rename, so a reader never sees a half-written file
+        Path partial = Files.createTempFile(target.getParent(), "partial-", ".tmp");
+        try {
+            Files.copy(file, partial, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(partial);
+        }
+        return toUrl(owner, folder, target);
     }
 
-    public List<String> uploadMultipleFiles(MultipartFile[] files, String phoneNumber) throws IOException {
-        List<String> uploadedUrls = new ArrayList<>();
-        
-        for (MultipartFile file : files) {
-            if (!file.isEmpty()) {
-                String url = uploadPhotoIdProof(file, phoneNumber);
-                uploadedUrls.add(url);
-            }
-        }
-        
-        return uploadedUrls;
+    @Override
+    public String store(MultipartFile file, String owner, String folder) throws IOException {
+        // Straight into place: a spooled part is moved, not copied through a temp file
+        Path target = newTarget(owner, folder, FileStorage.newObjectName(FileStorage.extensionOf(file.getOriginalFilename())));
+        file.transferTo(target.toFile());
+        return toUrl(owner, folder, target);
     }
 
-    public String uploadPaymentScreenshot(MultipartFile file, String phoneNumber) throws IOException {
-        return uploadFile(file, phoneNumber, "payments");
+    private Path newTarget(String owner, String folder, String objectName) throws IOException {
+        // Create directory structure: uploads/{owner}/{folder}/
+        Path dir = Paths.get(uploadPath, FileStorage.checkSegment(owner), FileStorage.checkSegment(folder)).toAbsolutePath();
+        Files.createDirectories(dir);
+        return dir.resolve(objectName);
     }
 
-    private String uploadFile(MultipartFile file, String phoneNumber, String subfolder) throws IOException {
-        // Create directory structure: uploads/{phoneNumber}/{subfolder}/
-        Path phoneDir = Paths.get(uploadPath, phoneNumber, subfolder);
-        Files.createDirectories(phoneDir);
-        
-        // Generate unique filename with timestamp
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-        String originalFilename = file.getOriginalFilename();
-        String extension = "";
-        if (originalFilename != null && originalFilename.contains(".")) {
-            extension = originalFilename.substring(originalFilename.lastIndexOf("."));
-        }
-        String filename = timestamp + "_" + UUID.randomUUID().toString().substring(0, 8) + extension;
-        
-        // Save file
-        Path filePath = phoneDir.resolve(filename);
-        Files.copy(file.getInputStream(), filePath);
-        
-        // Return relative URL path
-        return "/uploads/" + phoneNumber + "/" + subfolder + "/" + filename;
+    private static String toUrl(String owner, String folder, Path target) {
+        return "/uploads/" + owner + "/" + folder + "/" + target.getFileName();
     }
 
+    @Override
     public boolean testConnection() {
         try {
             Path uploadDir = Paths.get(uploadPath);
@@ -0,0 +1,139 @@
+package com.example.profpride.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Writes a repository Stream to the response as newline-delimited JSON, one row at a time.
+ * The stream is read inside a read-only transaction (Postgres only honours the fetch size
+ * with auto-commit off) and each entity is detached once written, so heap use stays flat
+ * however many rows the table holds.
+ *
+ * Each export holds a connection for its whole run, so only export.max-concurrent run at once and
+ * the rest get 503; that limit must stay below the pool size so requests always have a connection
+ * left, and is checked against it at startup. The async timeout (export.timeout-ms) is set on the
+ * export request alone, through the TIMEOUT_ATTRIBUTE request attribute that ExportTimeoutConfig
+ * applies; other async requests keep the container default. ExportTimeoutConfig also runs the
+ * ABANDON_ATTRIBUTE hook when the async request ends, returning the permit of a body that never ran.
+ */
+@Service
+@Lazy(false) // checks export.max-concurrent against the pool size at startup, even with spring.main.lazy-initialization
+public class NdjsonExporter {
+
+    public static final String NDJSON = "application/x-ndjson";
+
+    /** Request attribute holding the async timeout, in milliseconds, for the export being started. */
+    public static final String TIMEOUT_ATTRIBUTE = NdjsonExporter.class.getName() + ".timeout";
+
+    /** Request attribute holding a Runnable that releases the export's permit if its body never started. */
+    public static final String ABANDON_ATTRIBUTE = NdjsonExporter.class.getName() + ".abandon";
+
+    private static final int FLUSH_EVERY = 500;
+
+    private static final int PENDING = 0;
+    private static final int RUNNING = 1;
+    private static final int DONE = 2;
+
+    private final Semaphore permits;
+    private final long timeoutMillis;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public NdjsonExporter(@Value("${export.max-concurrent:1}") int maxConcurrent,
+                          @Value("${export.timeout-ms:1800000}") long timeoutMillis,
+                          @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize) {
+        if (maxConcurrent < 1 || maxConcurrent >= poolSize) {
+            throw new IllegalStateException("export.max-concurrent (" + maxConcurrent + ") must be at least 1 and below "
+                + "spring.datasource.hikari.maximum-pool-size (" + poolSize + ")");
+        }
+        this.permits = new Semaphore(maxConcurrent);
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public <T> StreamingResponseBody export(Supplier<Stream<T>> rows) {
+        if (!permits.tryAcquire()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many exports running, please retry shortly");
+        }
+        // Released exactly once: by the body when it runs, or by the abandon hook when it never started
+        AtomicInteger state = new AtomicInteger(PENDING);
+        Runnable abandon = () -> {
+            if (state.compareAndSet(PENDING, DONE)) {
+                permits.release();
+            }
+        };
+        RequestAttributes attributes = RequestContextHolder.currentRequestAttributes();
+        attributes.setAttribute(TIMEOUT_ATTRIBUTE, timeoutMillis, RequestAttributes.SCOPE_REQUEST);
+        attributes.setAttribute(ABANDON_ATTRIBUTE, abandon, RequestAttributes.SCOPE_REQUEST);
+        return out -> {
+            if (!state.compareAndSet(PENDING, RUNNING)) {
+                // Timed out or failed before it started; the permit is already back
+                return;
+            }
+            try {
+                write(rows, out);
+            } finally {
+                state.set(DONE);
+                permits.release();
+            }
+        };
+    }
+
+    private <T> void write(Supplier<Stream<T>> rows, OutputStream out) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.executeWithoutResult(status -> {
+            ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            try (Stream<T> stream = rows.get();
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                // Rows are separated by the newline below, not Jackson's default space between root values
+                generator.setRootValueSeparator(null);
+                int written = 0;
+                Iterator<T> iterator = stream.iterator();
+                while (iterator.hasNext()) {
+                    T row = iterator.next();
+                    writer.writeValue(generator, row);
+                    generator.writeRaw('\n');
+                    entityManager.detach(row);
+                    if (++written % FLUSH_EVERY == 0) {
+                        generator.flush();
+                    }
+                }
+            } catch (IOException e) {
+                // Client went away mid-export; ends the transaction and the cursor with it
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.profpride.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fans multi-file uploads out to a shared, bounded pool so a request takes about as long as its
+ * slowest file rather than the sum of all of them. When the pool and queue are full the request
+ * thread uploads the file itself, which slows that caller down instead of failing it.
+ */
+@Service
+public class ParallelUploader {
+
+    @FunctionalInterface
+    public interface Upload<T> {
+        T upload(MultipartFile file) throws IOException;
+    }
+
+    private final ThreadPoolExecutor executor;
+
+    public ParallelUploader(@Value("${upload.parallelism:4}") int threads,
+                            @Value("${upload.queue:64}") int queueCapacity,
+                            MeterRegistry meterRegistry) {
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("upload-"),
+            new ThreadPoolExecutor.CallerRunsPolicy());
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "uploads");
+    }
+
+    /**
+     * Uploads every non-empty file and returns the results in the order the files were given.
+     * The first failure cancels the uploads that have not started and is rethrown.
+     */
+    public <T> List<T> uploadAll(MultipartFile[] files, Upload<T> upload) throws IOException {
+        List<Future<T>> futures = new ArrayList<>(files.length);
+        for (MultipartFile file : files) {
+            if (!file.isEmpty()) {
+                futures.add(executor.submit(() -> upload.upload(file)));
+            }
+        }
+
+        List<T> results = new ArrayList<>(futures.size());
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IOException("Upload failed: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Upload interrupted");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
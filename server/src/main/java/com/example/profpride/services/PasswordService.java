@@ -0,0 +1,136 @@
+package com.example.profpride.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Hashes and verifies passwords with BCrypt on a small, bounded executor. Hashing is deliberately
+ * slow, so a login burst is capped at the pool size plus queue; anything beyond that is rejected
+ * with 503 instead of tying up request threads the booking endpoints need.
+ * Stored values carry an id prefix ("{bcrypt}..."); rows without one are legacy plaintext and
+ * are upgraded on their next successful login.
+ */
+@Service
+public class PasswordService {
+
+    private static final String BCRYPT = "bcrypt";
+
+    private final PasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final Counter rejected;
+    private final long timeoutMillis;
+
+    public PasswordService(@Value("${security.password.bcrypt-strength:10}") int strength,
+                           @Value("${security.password.verify-threads:2}") int threads,
+                           @Value("${security.password.verify-queue:32}") int queueCapacity,
+                           @Value("${security.password.verify-timeout-ms:5000}") long timeoutMillis,
+                           MeterRegistry meterRegistry) {
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(BCRYPT,
+            Map.of(BCRYPT, new BCryptPasswordEncoder(strength)));
+        delegating.setDefaultPasswordEncoderForMatches(new LegacyPlaintextEncoder());
+        this.encoder = delegating;
+
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("password-"),
+            new ThreadPoolExecutor.AbortPolicy());
+        this.timeoutMillis = timeoutMillis;
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "passwordVerification");
+        this.rejected = Counter.builder("password.verification.rejected")
+            .description("Password hash/verify tasks rejected because the pool and queue were full")
+            .register(meterRegistry);
+    }
+
+    public String hash(String rawPassword) {
+        return submit(() -> encoder.encode(rawPassword));
+    }
+
+    /**
+     * Checks a password against its stored value. When it matches a legacy or weaker encoding,
+     * the result also carries a fresh hash for the caller to persist.
+     */
+    public PasswordCheck verify(String rawPassword, String storedPassword) {
+        if (rawPassword == null || storedPassword == null) {
+            return PasswordCheck.FAILED;
+        }
+        return submit(() -> {
+            if (!encoder.matches(rawPassword, storedPassword)) {
+                return PasswordCheck.FAILED;
+            }
+            String upgraded = encoder.upgradeEncoding(storedPassword) ? encoder.encode(rawPassword) : null;
+            return new PasswordCheck(true, upgraded);
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T submit(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many sign-in attempts, please retry shortly");
+        }
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Sign-in timed out, please retry shortly");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Sign-in interrupted");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password check failed", e.getCause());
+        }
+    }
+
+    public record PasswordCheck(boolean matches, String upgradedHash) {
+        static final PasswordCheck FAILED = new PasswordCheck(false, null);
+
+        public boolean needsRehash() {
+            return upgradedHash != null;
+        }
+    }
+
+    // Matches rows stored before hashing was introduced; never used to encode
+    private static final class LegacyPlaintextEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            throw new IllegalStateException("Plaintext passwords are no longer stored");
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return MessageDigest.isEqual(
+                rawPassword.toString().getBytes(StandardCharsets.UTF_8),
+                encodedPassword.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
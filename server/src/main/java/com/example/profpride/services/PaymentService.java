@@ -5,17 +5,29 @@ import com.example.profpride.enums.PaymentStatus;
 import com.example.profpride.repositories.PaymentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import com.example.profpride.dto.KeysetPage;
+import com.example.profpride.dto.ListQuery;
+import com.example.profpride.repositories.ListSpecifications;
+import org.springframework.data.jpa.domain.Specification;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Service
 public class PaymentService {
 
+    private static final Set<String> SORTABLE = Set.of("amount");
+
     @Autowired
     private PaymentRepository paymentRepository;
 
+    @Autowired
+    private KeysetPager keysetPager;
+
     public Payment createPayment(Payment payment) {
         // Set default payment status if not provided
         if (payment.getPaymentStatus() == null) {
@@ -30,8 +42,16 @@ public class PaymentService {
         return paymentRepository.save(payment);
     }
 
-    public List<Payment> getAllPayments() {
-        return paymentRepository.findAll();
+    public KeysetPage<Payment> listPayments(PaymentStatus status, Long bookingId, LocalDate from, LocalDate to, ListQuery query) {
+        Specification<Payment> spec = Specification.<Payment>where(ListSpecifications.equalTo("paymentStatus", status))
+            .and(ListSpecifications.equalTo("bookingId", bookingId))
+            .and(ListSpecifications.onDays("paymentDate", from, to));
+        return keysetPager.page(paymentRepository, spec, query, "id", Long::valueOf, SORTABLE);
+    }
+
+    // Caller must hold a transaction open while consuming the stream
+    public Stream<Payment> streamAllPayments() {
+        return paymentRepository.streamAll();
     }
 
     public Optional<Payment> getPaymentById(Long id) {
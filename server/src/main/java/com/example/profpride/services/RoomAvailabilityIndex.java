@@ -0,0 +1,277 @@
+package com.example.profpride.services;
+
+import com.example.profpride.enums.BookingStatus;
+import com.example.profpride.models.Booking;
+import com.example.profpride.models.Room;
+import com.example.profpride.repositories.BookingRepository;
+import com.example.profpride.repositories.RoomRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory interval index of blocking bookings per room.
+ * Built from one bulk load on first use and kept current by the booking/room entity listeners,
+ * so availability searches never go to the database once warm.
+ */
+@Service
+public class RoomAvailabilityIndex {
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    private final ConcurrentSkipListMap<Long, Room> rooms = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<Long, RoomSchedule> schedules = new ConcurrentHashMap<>();
+    // bookingId -> roomId for every indexed booking, so updates can find the old slot
+    private final Map<Long, Long> bookingRooms = new HashMap<>();
+    private volatile boolean loaded = false;
+    // Not synchronized: the initial load runs JDBC while holding this, which would pin a virtual thread's carrier
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public List<Room> findAvailableRooms(LocalDateTime checkIn, LocalDateTime checkOut) {
+        ensureLoaded();
+        long start = toKey(checkIn);
+        long end = toKey(checkOut);
+
+        List<Room> availableRooms = new ArrayList<>();
+        for (Room room : rooms.values()) {
+            RoomSchedule schedule = schedules.get(room.getId());
+            if (schedule == null || !schedule.overlaps(start, end)) {
+                availableRooms.add(room);
+            }
+        }
+        return availableRooms;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public void onBookingSaved(Booking booking) {
+        lock.lock();
+        try {
+            if (!loaded || booking.getId() == null) {
+                return;
+            }
+            removeBooking(booking.getId());
+            if (booking.getBookingStatus() != null && booking.getBookingStatus().isBlocking()
+                    && booking.getRoomId() != null
+                    && booking.getCheckInDate() != null && booking.getCheckOutDate() != null) {
+                addBooking(booking.getId(), booking.getRoomId(), toKey(booking.getCheckInDate()), toKey(booking.getCheckOutDate()));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void onBookingDeleted(Long bookingId) {
+        lock.lock();
+        try {
+            if (!loaded || bookingId == null) {
+                return;
+            }
+            removeBooking(bookingId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void onRoomSaved(Room room) {
+        lock.lock();
+        try {
+            if (!loaded || room.getId() == null) {
+                return;
+            }
+            rooms.put(room.getId(), room);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void onRoomDeleted(Long roomId) {
+        lock.lock();
+        try {
+            if (!loaded || roomId == null) {
+                return;
+            }
+            rooms.remove(roomId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidate() {
+        lock.lock();
+        try {
+            loaded = false;
+            rooms.clear();
+            schedules.clear();
+            bookingRooms.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (loaded) {
+                return;
+            }
+            for (Room room : roomRepository.findAll()) {
+                rooms.put(room.getId(), room);
+            }
+
+            // Group spans per room first so each schedule is sorted once instead of per insert
+            Map<Long, List<BookingRepository.BookingSpan>> spansByRoom = new HashMap<>();
+            for (BookingRepository.BookingSpan span : bookingRepository.findByBookingStatusIn(BookingStatus.BLOCKING)) {
+                if (span.getCheckInDate() == null || span.getCheckOutDate() == null) {
+                    continue;
+                }
+                spansByRoom.computeIfAbsent(span.getRoomId(), id -> new ArrayList<>()).add(span);
+                bookingRooms.put(span.getId(), span.getRoomId());
+            }
+            spansByRoom.forEach((roomId, spans) -> schedules.put(roomId, RoomSchedule.of(spans)));
+
+            loaded = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void addBooking(Long bookingId, Long roomId, long start, long end) {
+        schedules.compute(roomId, (id, schedule) ->
+            (schedule == null ? RoomSchedule.EMPTY : schedule).with(bookingId, start, end));
+        bookingRooms.put(bookingId, roomId);
+    }
+
+    private void removeBooking(Long bookingId) {
+        Long roomId = bookingRooms.remove(bookingId);
+        if (roomId != null) {
+            schedules.computeIfPresent(roomId, (id, schedule) -> schedule.without(bookingId));
+        }
+    }
+
+    private static long toKey(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * Immutable, start-sorted interval array for one room. maxEnd[i] is the latest end among
+     * intervals 0..i, so an overlap probe is one binary search plus one comparison.
+     */
+    static final class RoomSchedule {
+
+        static final RoomSchedule EMPTY = new RoomSchedule(new long[0], new long[0], new long[0]);
+
+        private final long[] bookingIds;
+        private final long[] starts;
+        private final long[] ends;
+        private final long[] maxEnd;
+
+        private RoomSchedule(long[] bookingIds, long[] starts, long[] ends) {
+            this.bookingIds = bookingIds;
+            this.starts = starts;
+            this.ends = ends;
+            this.maxEnd = new long[ends.length];
+            long max = Long.MIN_VALUE;
+            for (int i = 0; i < ends.length; i++) {
+                max = Math.max(max, ends[i]);
+                maxEnd[i] = max;
+            }
+        }
+
+        static RoomSchedule of(List<BookingRepository.BookingSpan> spans) {
+            spans.sort((a, b) -> a.getCheckInDate().compareTo(b.getCheckInDate()));
+            int n = spans.size();
+            long[] ids = new long[n];
+            long[] starts = new long[n];
+            long[] ends = new long[n];
+            for (int i = 0; i < n; i++) {
+                BookingRepository.BookingSpan span = spans.get(i);
+                ids[i] = span.getId();
+                starts[i] = toKey(span.getCheckInDate());
+                ends[i] = toKey(span.getCheckOutDate());
+            }
+            return new RoomSchedule(ids, starts, ends);
+        }
+
+        // Half-open overlap, same rule as before: start < existing.end && end > existing.start
+        boolean overlaps(long start, long end) {
+            int last = lastStartBefore(end);
+            return last >= 0 && maxEnd[last] > start;
+        }
+
+        RoomSchedule with(long bookingId, long start, long end) {
+            int n = starts.length;
+            int pos = lastStartBefore(start + 1) + 1;
+            long[] newIds = new long[n + 1];
+            long[] newStarts = new long[n + 1];
+            long[] newEnds = new long[n + 1];
+            System.arraycopy(bookingIds, 0, newIds, 0, pos);
+            System.arraycopy(starts, 0, newStarts, 0, pos);
+            System.arraycopy(ends, 0, newEnds, 0, pos);
+            newIds[pos] = bookingId;
+            newStarts[pos] = start;
+            newEnds[pos] = end;
+            System.arraycopy(bookingIds, pos, newIds, pos + 1, n - pos);
+            System.arraycopy(starts, pos, newStarts, pos + 1, n - pos);
+            System.arraycopy(ends, pos, newEnds, pos + 1, n - pos);
+            return new RoomSchedule(newIds, newStarts, newEnds);
+        }
+
+        RoomSchedule without(long bookingId) {
+            int pos = -1;
+            for (int i = 0; i < bookingIds.length; i++) {
+                if (bookingIds[i] == bookingId) {
+                    pos = i;
+                    break;
+                }
+            }
+            if (pos < 0) {
+                return this;
+            }
+            int n = bookingIds.length;
+            long[] newIds = Arrays.copyOf(bookingIds, n - 1);
+            long[] newStarts = Arrays.copyOf(starts, n - 1);
+            long[] newEnds = Arrays.copyOf(ends, n - 1);
+            System.arraycopy(bookingIds, pos + 1, newIds, pos, n - pos - 1);
+            System.arraycopy(starts, pos + 1, newStarts, pos, n - pos - 1);
+            System.arraycopy(ends, pos + 1, newEnds, pos, n - pos - 1);
+            return new RoomSchedule(newIds, newStarts, newEnds);
+        }
+
+        // Index of the last interval whose start is strictly before the given key, or -1
+        private int lastStartBefore(long key) {
+            int low = 0;
+            int high = starts.length - 1;
+            int result = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid] < key) {
+                    result = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return result;
+        }
+    }
+}
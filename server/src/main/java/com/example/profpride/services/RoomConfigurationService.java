@@ -4,40 +4,67 @@ import com.example.profpride.models.RoomConfiguration;
 import com.example.profpride.repositories.RoomConfigurationRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import com.example.profpride.dto.KeysetPage;
+import com.example.profpride.dto.ListQuery;
+import com.example.profpride.repositories.ListSpecifications;
+import org.springframework.data.jpa.domain.Specification;
+import com.example.profpride.config.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class RoomConfigurationService {
 
+    private static final Set<String> SORTABLE = Set.of("roomId", "personCount", "dailyCost");
+
     @Autowired
     private RoomConfigurationRepository roomConfigurationRepository;
 
-    public List<RoomConfiguration> getAllRoomConfigurations() {
-        return roomConfigurationRepository.findAll();
+    @Autowired
+    private KeysetPager keysetPager;
+
+    @Cacheable(cacheNames = CacheConfig.ROOM_CONFIGURATIONS, key = "{'list', #roomId, #personCount, #available, #query}")
+    public KeysetPage<RoomConfiguration> listRoomConfigurations(Long roomId, Integer personCount, Boolean available, ListQuery query) {
+        Specification<RoomConfiguration> spec = Specification.<RoomConfiguration>where(ListSpecifications.equalTo("roomId", roomId))
+            .and(ListSpecifications.equalTo("personCount", personCount))
+            .and(ListSpecifications.equalTo("isAvailable", available));
+        return keysetPager.page(roomConfigurationRepository, spec, query, "id", Long::valueOf, SORTABLE);
     }
 
+    @Cacheable(cacheNames = CacheConfig.ROOM_CONFIGURATIONS, key = "{'room', #roomId}")
     public List<RoomConfiguration> getConfigurationsByRoomId(Long roomId) {
         return roomConfigurationRepository.findByRoomId(roomId);
     }
 
+    @Cacheable(cacheNames = CacheConfig.ROOM_CONFIGURATIONS, key = "{'roomAvailable', #roomId}")
     public List<RoomConfiguration> getAvailableConfigurationsByRoomId(Long roomId) {
         return roomConfigurationRepository.findByRoomIdAndIsAvailableTrue(roomId);
     }
 
+    @Cacheable(cacheNames = CacheConfig.ROOM_CONFIGURATIONS, key = "{'personCount', #personCount}")
     public List<RoomConfiguration> getConfigurationsByPersonCount(Integer personCount) {
         return roomConfigurationRepository.findByPersonCountAndIsAvailableTrue(personCount);
     }
 
+    @Cacheable(cacheNames = CacheConfig.ROOM_CONFIGURATIONS, key = "{'roomPersonCount', #roomId, #personCount}", unless = "#result == null")
     public Optional<RoomConfiguration> getConfigurationByRoomAndPersonCount(Long roomId, Integer personCount) {
         return Optional.ofNullable(roomConfigurationRepository.findByRoomIdAndPersonCount(roomId, personCount));
     }
 
+    @CacheEvict(cacheNames = CacheConfig.ROOM_CONFIGURATIONS, allEntries = true)
     public RoomConfiguration createRoomConfiguration(RoomConfiguration roomConfiguration) {
         return roomConfigurationRepository.save(roomConfiguration);
     }
 
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.ROOM_CONFIGURATIONS, allEntries = true),
+        @CacheEvict(cacheNames = CacheConfig.ROOM_CONFIGURATION, key = "#id")
+    })
     public RoomConfiguration updateRoomConfiguration(Long id, RoomConfiguration updatedConfiguration) {
         if (roomConfigurationRepository.existsById(id)) {
             updatedConfiguration.setId(id);
@@ -47,6 +74,10 @@ public class RoomConfigurationService {
         }
     }
 
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.ROOM_CONFIGURATIONS, allEntries = true),
+        @CacheEvict(cacheNames = CacheConfig.ROOM_CONFIGURATION, key = "#id")
+    })
     public void deleteRoomConfiguration(Long id) {
         if (roomConfigurationRepository.existsById(id)) {
             roomConfigurationRepository.deleteById(id);
@@ -55,6 +86,7 @@ public class RoomConfigurationService {
         }
     }
 
+    @Cacheable(cacheNames = CacheConfig.ROOM_CONFIGURATION, key = "#id", unless = "#result == null")
     public Optional<RoomConfiguration> getRoomConfigurationById(Long id) {
         return roomConfigurationRepository.findById(id);
     }
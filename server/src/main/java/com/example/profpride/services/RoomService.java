@@ -1,19 +1,22 @@
 package com.example.profpride.services;
 
 import com.example.profpride.models.Room;
-import com.example.profpride.models.Booking;
-import com.example.profpride.repositories.RoomRepository;
 import com.example.profpride.repositories.BookingRepository;
+import com.example.profpride.repositories.RoomRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
+import com.example.profpride.config.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 
 import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 public class RoomService {
@@ -24,18 +27,31 @@ public class RoomService {
     @Autowired
     private BookingRepository bookingRepository;
 
+    @Autowired
+    private RoomAvailabilityIndex roomAvailabilityIndex;
+
+    @Value("${availability.index.enabled:true}")
+    private boolean availabilityIndexEnabled;
+
+    @CacheEvict(cacheNames = CacheConfig.ROOMS, allEntries = true)
     public Room createRoom(Room room) {
         return roomRepository.save(room);
     }
 
+    @Cacheable(cacheNames = CacheConfig.ROOMS, key = "'all'")
     public List<Room> getAllRooms() {
         return roomRepository.findAll();
     }
 
+    @Cacheable(cacheNames = CacheConfig.ROOM, key = "#id", unless = "#result == null")
     public Optional<Room> getRoomById(Long id) {
         return roomRepository.findById(id);
     }
 
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.ROOMS, allEntries = true),
+        @CacheEvict(cacheNames = CacheConfig.ROOM, key = "#id")
+    })
     public Room updateRoom(Long id, Room updatedRoom) {
         return roomRepository.findById(id).map(room -> {
             room.setRoomNumber(updatedRoom.getRoomNumber());
@@ -46,6 +62,10 @@ public class RoomService {
         }).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Room not found"));
     }
 
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.ROOMS, allEntries = true),
+        @CacheEvict(cacheNames = CacheConfig.ROOM, key = "#id")
+    })
     public void deleteRoom(Long id) {
         if (roomRepository.existsById(id)) {
             roomRepository.deleteById(id);
@@ -60,32 +80,11 @@ public class RoomService {
             LocalDateTime checkIn = parseDateTime(checkInDate);
             LocalDateTime checkOut = parseDateTime(checkOutDate);
             
-            // Get all rooms
-            List<Room> allRooms = roomRepository.findAll();
-            
-            // Filter out rooms that have confirmed bookings for the requested dates
-            List<Room> availableRooms = allRooms.stream()
-                .filter(room -> {
-                    // Get all bookings for this room
-                    List<Booking> roomBookings = bookingRepository.findByRoom(room);
-                    
-                    // Check if any confirmed booking overlaps with the requested dates
-                    return roomBookings.stream()
-                        .noneMatch(booking -> {
-                            // Only check confirmed bookings
-                            if (booking.getBookingStatus() == null || 
-                                !booking.getBookingStatus().toString().equals("CONFIRMED")) {
-                                return false;
-                            }
-                            
-                            // Check for date overlap
-                            return (checkIn.isBefore(booking.getCheckOutDate()) &&
-                                   checkOut.isAfter(booking.getCheckInDate()));
-                        });
-                })
-                .collect(Collectors.toList());
-            
-            return availableRooms;
+            // In-memory interval index when enabled, otherwise a single anti-join query
+            if (availabilityIndexEnabled) {
+                return roomAvailabilityIndex.findAvailableRooms(checkIn, checkOut);
+            }
+            return bookingRepository.findAvailableRooms(checkIn, checkOut);
             
         } catch (Exception e) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid date format: " + e.getMessage());
@@ -0,0 +1,103 @@
+package com.example.profpride.services;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.model.HeadBucketRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+
+/**
+ * S3-compatible object storage. With storage.s3.endpoint set it talks to MinIO, R2 or a local
+ * stub using path-style addressing; without it, to AWS in the configured region.
+ */
+@Service
+@ConditionalOnProperty(name = "storage.backend", havingValue = "s3")
+public class S3FileStorageService implements FileStorage {
+
+    @Value("${storage.s3.endpoint:}")
+    private String endpoint;
+
+    @Value("${storage.s3.region:us-east-1}")
+    private String region;
+
+    @Value("${storage.s3.bucket}")
+    private String bucket;
+
+    @Value("${storage.s3.access-key:}")
+    private String accessKey;
+
+    @Value("${storage.s3.secret-key:}")
+    private String secretKey;
+
+    // Public base for returned URLs (CDN or bucket website); defaults to endpoint/bucket
+    @Value("${storage.s3.public-url:}")
+    private String publicUrl;
+
+    @Value("${storage.s3.cache-control:public, max-age=31536000, immutable}")
+    private String cacheControl;
+
+    private S3Client s3;
+
+    @PostConstruct
+    void init() {
+        S3ClientBuilder builder = S3Client.builder().region(Region.of(region));
+        if (!endpoint.isBlank()) {
+            builder.endpointOverride(URI.create(endpoint)).forcePathStyle(true);
+        }
+        if (!accessKey.isBlank()) {
+            builder.credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey)));
+        }
+        s3 = builder.build();
+        if (publicUrl.isBlank()) {
+            publicUrl = (endpoint.isBlank() ? "https://" + bucket + ".s3." + region + ".amazonaws.com" : endpoint + "/" + bucket);
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        s3.close();
+    }
+
+    @Override
+    public String store(Path file, String owner, String folder, String objectName) throws IOException {
+        String name = FileStorage.checkSegment(objectName);
+        String key = FileStorage.checkSegment(owner) + "/" + FileStorage.checkSegment(folder) + "/" + name;
+        PutObjectRequest request = PutObjectRequest.builder()
+            .bucket(bucket)
+            .key(key)
+            .contentType(MediaTypeFactory.getMediaType(name).map(Object::toString).orElse("application/octet-stream"))
+            .cacheControl(cacheControl)
+            .build();
+        try {
+            // fromFile streams from disk with a known length, no in-memory copy of the object
+            s3.putObject(request, RequestBody.fromFile(file));
+        } catch (SdkException e) {
+            throw new IOException("S3 upload failed: " + e.getMessage(), e);
+        }
+        return publicUrl + "/" + key;
+    }
+
+    @Override
+    public boolean testConnection() {
+        try {
+            s3.headBucket(HeadBucketRequest.builder().bucket(bucket).build());
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.profpride.services;
+
+import com.example.profpride.dto.StoredUpload;
+import com.example.profpride.dto.UploadJob;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Background uploads: the request only copies the multipart body into a staging directory and
+ * gets a job id back; a small worker pool pushes the staged file to storage, retrying with
+ * exponential backoff. Job state is kept in memory per instance and expires after the retention
+ * period, so clients poll the instance that accepted the upload.
+ *
+ * Job state is deliberately not persisted: the onSuccess follow-up is a closure over the request
+ * that cannot outlive the process. A restart therefore drops every pending job; polling its id
+ * returns 404 and the client uploads again. Staged files outlive the process, so the staging
+ * directory is swept at startup and then once per retention period of files older than twice the
+ * retention, which no live job on any instance sharing the directory can still own.
+ */
+@Service
+public class UploadJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(UploadJobService.class);
+
+    @FunctionalInterface
+    public interface StagedUpload {
+        StoredUpload upload(Path stagedFile) throws IOException;
+    }
+
+    private final Cache<String, UploadJob> jobs;
+    private final ScheduledThreadPoolExecutor executor;
+    private final Path stagingDir;
+    private final int maxPending;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+    private final Duration orphanAge;
+
+    public UploadJobService(@Value("${upload.async.staging-dir:}") String stagingDir,
+                            @Value("${upload.async.threads:2}") int threads,
+                            @Value("${upload.async.max-pending:100}") int maxPending,
+                            @Value("${upload.async.max-attempts:3}") int maxAttempts,
+                            @Value("${upload.async.retry-backoff:2s}") Duration retryBackoff,
+                            @Value("${upload.async.retention:1h}") Duration retention,
+                            MeterRegistry meterRegistry) {
+        this.stagingDir = stagingDir.isBlank()
+            ? Paths.get(System.getProperty("java.io.tmpdir"), "upload-staging")
+            : Paths.get(stagingDir);
+        this.maxPending = maxPending;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMillis = retryBackoff.toMillis();
+        this.orphanAge = retention.multipliedBy(2);
+        this.jobs = Caffeine.newBuilder()
+            .expireAfterWrite(retention)
+            .build();
+        this.executor = new ScheduledThreadPoolExecutor(threads, new CustomizableThreadFactory("upload-job-"));
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "uploadJobs");
+        executor.scheduleWithFixedDelay(this::sweepStaging, 0, retention.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stages the file and queues it for upload. onSuccess runs on the worker once the stored
+     * URLs are known; its failures are logged and do not fail the job.
+     */
+    public UploadJob submit(MultipartFile file, StagedUpload upload, Consumer<StoredUpload> onSuccess) throws IOException {
+        if (executor.getQueue().size() >= maxPending) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Upload queue is full, please retry shortly");
+        }
+        String id = UUID.randomUUID().toString();
+        Path staged = stage(file, id);
+        UploadJob job = UploadJob.pending(id);
+        jobs.put(id, job);
+        executor.execute(() -> run(id, staged, upload, onSuccess));
+        return job;
+    }
+
+    public Optional<UploadJob> find(String id) {
+        return Optional.ofNullable(jobs.getIfPresent(id));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private Path stage(MultipartFile file, String id) throws IOException {
+        Files.createDirectories(stagingDir);
+        // Keep the extension: backends derive object names and content types from it
+        Path target = stagingDir.resolve(id + FileStorage.extensionOf(file.getOriginalFilename()));
+        long size = file.getSize();
+        try (InputStream in = file.getInputStream();
+             ReadableByteChannel source = in instanceof FileInputStream fileIn ? fileIn.getChannel() : Channels.newChannel(in);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            // From a part spooled to disk this is a file-to-file channel copy, no heap buffer of the body
+            long position = 0;
+            while (position < size) {
+                long transferred = out.transferFrom(source, position, size - position);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(target);
+            throw e;
+        }
+        return target;
+    }
+
+    private void run(String id, Path staged, StagedUpload upload, Consumer<StoredUpload> onSuccess) {
+        UploadJob job = jobs.asMap().computeIfPresent(id, (key, current) -> current.running());
+        if (job == null) {
+            // Expired while waiting; nobody can poll for it any more
+            deleteQuietly(staged);
+            return;
+        }
+
+        StoredUpload result;
+        try {
+            result = upload.upload(staged);
+        } catch (Exception e) {
+            if (job.attempts() < maxAttempts) {
+                jobs.put(id, job.retrying(e.getMessage()));
+                long delay = retryBackoffMillis << (job.attempts() - 1);
+                executor.schedule(() -> run(id, staged, upload, onSuccess), delay, TimeUnit.MILLISECONDS);
+            } else {
+                log.warn("Upload job {} failed after {} attempts: {}", id, job.attempts(), e.getMessage());
+                jobs.put(id, job.failed(e.getMessage()));
+                deleteQuietly(staged);
+            }
+            return;
+        }
+
+        deleteQuietly(staged);
+        try {
+            onSuccess.accept(result);
+        } catch (RuntimeException e) {
+            log.warn("Upload job {} stored {} but its follow-up update failed: {}", id, result.url(), e.getMessage());
+        }
+        jobs.put(id, job.succeeded(result));
+    }
+
+    // Deletes staged files left behind by jobs that no longer exist, e.g. from before a restart
+    void sweepStaging() {
+        if (!Files.isDirectory(stagingDir)) {
+            return;
+        }
+        Instant cutoff = Instant.now().minus(orphanAge);
+        int swept = 0;
+        try (Stream<Path> files = Files.list(stagingDir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (isOlderThan(file, cutoff)) {
+                    deleteQuietly(file);
+                    swept++;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not sweep upload staging directory {}: {}", stagingDir, e.getMessage());
+            return;
+        }
+        if (swept > 0) {
+            log.info("Swept {} orphaned staged uploads from {}", swept, stagingDir);
+        }
+    }
+
+    private static boolean isOlderThan(Path file, Instant cutoff) {
+        try {
+            return Files.isRegularFile(file) && Files.getLastModifiedTime(file).toInstant().isBefore(cutoff);
+        } catch (IOException e) {
+            // Finished and deleted by its job while we were listing
+            return false;
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete staged upload {}: {}", file, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.profpride.utils;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.web.util.HtmlUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A compiled HTML template with {{name}} slots. Parsing happens once: the static text between
+ * slots is kept as UTF-8 bytes, so rendering is a run of array copies into the caller's buffer
+ * with only the slot values encoded per call. Text values are HTML-escaped; values set through
+ * {@link Values#html} are written as-is (the output of a nested template).
+ */
+public final class HtmlTemplate {
+
+    private static final Pattern SLOT = Pattern.compile("\\{\\{([A-Za-z][A-Za-z0-9]*)}}");
+
+    private final byte[][] fragments;
+    private final int[] slotAt;
+    private final Map<String, Integer> slotIndex;
+
+    private HtmlTemplate(byte[][] fragments, int[] slotAt, Map<String, Integer> slotIndex) {
+        this.fragments = fragments;
+        this.slotAt = slotAt;
+        this.slotIndex = slotIndex;
+    }
+
+    public static HtmlTemplate load(String classpathResource) {
+        try (InputStream in = new ClassPathResource(classpathResource).getInputStream()) {
+            return compile(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot load template " + classpathResource, e);
+        }
+    }
+
+    public static HtmlTemplate compile(String source) {
+        List<byte[]> fragments = new ArrayList<>();
+        List<Integer> slotAt = new ArrayList<>();
+        Map<String, Integer> slotIndex = new HashMap<>();
+        Matcher matcher = SLOT.matcher(source);
+        int last = 0;
+        while (matcher.find()) {
+            fragments.add(source.substring(last, matcher.start()).getBytes(StandardCharsets.UTF_8));
+            slotAt.add(slotIndex.computeIfAbsent(matcher.group(1), name -> slotIndex.size()));
+            last = matcher.end();
+        }
+        fragments.add(source.substring(last).getBytes(StandardCharsets.UTF_8));
+        return new HtmlTemplate(fragments.toArray(byte[][]::new),
+            slotAt.stream().mapToInt(Integer::intValue).toArray(), Map.copyOf(slotIndex));
+    }
+
+    public Values values() {
+        return new Values();
+    }
+
+    /** Slot values for one render; a slot left unset renders as empty. */
+    public final class Values {
+
+        private final byte[][] encoded = new byte[slotIndex.size()][];
+
+        public Values text(String slot, Object value) {
+            encoded[index(slot)] = value == null ? null
+                : HtmlUtils.htmlEscape(value.toString(), StandardCharsets.UTF_8.name()).getBytes(StandardCharsets.UTF_8);
+            return this;
+        }
+
+        public Values html(String slot, byte[] renderedHtml) {
+            encoded[index(slot)] = renderedHtml;
+            return this;
+        }
+
+        public void renderTo(ByteArrayOutputStream out) {
+            for (int i = 0; i < slotAt.length; i++) {
+                out.writeBytes(fragments[i]);
+                byte[] value = encoded[slotAt[i]];
+                if (value != null) {
+                    out.writeBytes(value);
+                }
+            }
+            out.writeBytes(fragments[fragments.length - 1]);
+        }
+
+        private int index(String slot) {
+            Integer index = slotIndex.get(slot);
+            if (index == null) {
+                throw new IllegalArgumentException("Template has no slot " + slot);
+            }
+            return index;
+        }
+    }
+}
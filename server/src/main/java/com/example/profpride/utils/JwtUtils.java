@@ -1,16 +1,31 @@
 package com.example.profpride.utils;
 
+import com.example.profpride.security.TokenClaims;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Optional;
 
 @Component
+@Lazy(false) // a bad jwt.secret must fail startup, not the first login under spring.main.lazy-initialization
 public class JwtUtils {
 
     @Value("${jwt.secret:defaultSecretKeyForJWTTokenGeneration123456789}")
@@ -19,8 +34,43 @@ public class JwtUtils {
     @Value("${jwt.expiration:86400000}")
     private int jwtExpiration;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+    @Value("${jwt.verified-cache.max-size:10000}")
+    private long verifiedCacheMaxSize;
+
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    // SHA-256 of the token -> its claims, each entry expiring with the token itself
+    private Cache<String, TokenClaims> verifiedTokens;
+
+    @PostConstruct
+    void init() {
+        try {
+            signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+            parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        } catch (RuntimeException e) {
+            // An app that can neither issue nor verify tokens should not start
+            throw new IllegalStateException("JWT signing key could not be built from jwt.secret: " + e.getMessage(), e);
+        }
+        verifiedTokens = Caffeine.newBuilder()
+            .maximumSize(verifiedCacheMaxSize)
+            .expireAfter(new Expiry<String, TokenClaims>() {
+                @Override
+                public long expireAfterCreate(String key, TokenClaims claims, long currentTime) {
+                    return Math.max(0, Duration.between(Instant.now(), claims.expiresAt()).toNanos());
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, TokenClaims claims, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+
+                @Override
+                public long expireAfterRead(String key, TokenClaims claims, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
     }
 
     public String generateToken(String userId, String role, String name) {
@@ -30,44 +80,55 @@ public class JwtUtils {
                 .claim("name", name)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSigningKey())
+                .signWith(requireKey())
                 .compact();
     }
 
     public Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    public String extractUserId(String token) {
-        return extractAllClaims(token).getSubject();
-    }
-
-    public String extractRole(String token) {
-        return extractAllClaims(token).get("role", String.class);
+        if (parser == null) {
+            throw new IllegalStateException("JWT signing key is not configured");
+        }
+        return parser.parseClaimsJws(token).getBody();
     }
 
-    public String extractName(String token) {
-        return extractAllClaims(token).get("name", String.class);
+    /**
+     * Verifies the token once and returns its claims, or empty if it is invalid or expired.
+     * A token seen recently is answered from the cache without re-checking the signature.
+     */
+    public Optional<TokenClaims> verify(String token) {
+        String key = hash(token);
+        TokenClaims cached = verifiedTokens.getIfPresent(key);
+        if (cached != null) {
+            return cached.expiresAt().isAfter(Instant.now()) ? Optional.of(cached) : Optional.empty();
+        }
+        try {
+            Claims claims = extractAllClaims(token);
+            if (claims.getExpiration() == null) {
+                return Optional.empty();
+            }
+            TokenClaims verified = new TokenClaims(claims.getSubject(), claims.get("role", String.class),
+                claims.get("name", String.class), claims.getExpiration().toInstant());
+            verifiedTokens.put(key, verified);
+            return Optional.of(verified);
+        } catch (JwtException | IllegalArgumentException | IllegalStateException e) {
+            // Covers bad signatures and expired tokens (the parser rejects those itself)
+            return Optional.empty();
+        }
     }
 
-    public boolean isTokenValid(String token) {
-        try {
-            extractAllClaims(token);
-            return true;
-        } catch (Exception e) {
-            return false;
+    private SecretKey requireKey() {
+        if (signingKey == null) {
+            throw new IllegalStateException("JWT signing key is not configured");
         }
+        return signingKey;
     }
 
-    public boolean isTokenExpired(String token) {
+    private static String hash(String token) {
         try {
-            return extractAllClaims(token).getExpiration().before(new Date());
-        } catch (Exception e) {
-            return true;
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
         }
     }
 }
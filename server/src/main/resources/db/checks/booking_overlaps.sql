@@ -0,0 +1,20 @@
+-- Pairs of room-holding bookings whose stays overlap; migration V2 (booking_no_overlap) cannot be applied
+-- while any exist. Run by hand with psql; nothing in the application executes this file.
+SELECT a.room_id,
+       a.id AS booking_id, a.check_in_date, a.check_out_date, a.booking_status, a.customer_phone_number,
+       b.id AS overlapping_id, b.check_in_date AS overlapping_check_in, b.check_out_date AS overlapping_check_out,
+       b.booking_status AS overlapping_status, b.customer_phone_number AS overlapping_phone
+FROM booking a
+JOIN booking b ON a.room_id = b.room_id AND a.id < b.id
+WHERE a.booking_status IN ('CONFIRMED', 'CHECKEDIN') AND b.booking_status IN ('CONFIRMED', 'CHECKEDIN')
+  AND tsrange(a.check_in_date, a.check_out_date, '[)') && tsrange(b.check_in_date, b.check_out_date, '[)')
+ORDER BY a.room_id, a.check_in_date;
+
+-- Cleanup, once each pair has been checked with the front desk: cancel the later-created booking of every
+-- overlapping pair still CONFIRMED (never touches guests already CHECKEDIN). Review the list above first.
+--
+-- UPDATE booking SET booking_status = 'CANCELLED', updated_at = now()
+-- WHERE booking_status = 'CONFIRMED' AND id IN (
+--     SELECT b.id FROM booking a JOIN booking b ON a.room_id = b.room_id AND a.id < b.id
+--     WHERE a.booking_status IN ('CONFIRMED', 'CHECKEDIN') AND b.booking_status IN ('CONFIRMED', 'CHECKEDIN')
+--       AND tsrange(a.check_in_date, a.check_out_date, '[)') && tsrange(b.check_in_date, b.check_out_date, '[)'));
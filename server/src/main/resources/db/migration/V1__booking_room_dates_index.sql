@@ -0,0 +1,4 @@
+-- Range lookups for availability and overlap checks: (room, check-in, check-out) for room-holding statuses only
+CREATE INDEX IF NOT EXISTS idx_booking_room_dates_blocking
+    ON booking (room_id, check_in_date, check_out_date)
+    WHERE booking_status IN ('CONFIRMED', 'CHECKEDIN');
@@ -0,0 +1,25 @@
+-- Double-booking guard enforced by Postgres itself: no two room-holding bookings of the same room
+-- may have intersecting [check_in_date, check_out_date) ranges. Violations raise SQLSTATE 23P01.
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- Legacy databases may hold overlapping bookings. Startup stops here until they are resolved, with a count
+-- and a pointer to the check script instead of a bare constraint error
+DO $$
+DECLARE
+    overlaps BIGINT;
+BEGIN
+    SELECT count(*) INTO overlaps
+    FROM booking a JOIN booking b ON a.room_id = b.room_id AND a.id < b.id
+    WHERE a.booking_status IN ('CONFIRMED', 'CHECKEDIN') AND b.booking_status IN ('CONFIRMED', 'CHECKEDIN')
+      AND tsrange(a.check_in_date, a.check_out_date, '[)') && tsrange(b.check_in_date, b.check_out_date, '[)');
+    IF overlaps > 0 THEN
+        RAISE EXCEPTION USING MESSAGE = overlaps || ' pairs of room-holding bookings overlap; '
+            || 'list them with db/checks/booking_overlaps.sql, resolve them and restart to retry';
+    END IF;
+END $$;
+
+ALTER TABLE booking DROP CONSTRAINT IF EXISTS booking_no_overlap;
+
+ALTER TABLE booking ADD CONSTRAINT booking_no_overlap
+    EXCLUDE USING gist (room_id WITH =, tsrange(check_in_date, check_out_date, '[)') WITH &&)
+    WHERE (booking_status IN ('CONFIRMED', 'CHECKEDIN'));
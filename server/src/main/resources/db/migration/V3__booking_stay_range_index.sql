@@ -0,0 +1,3 @@
+-- Date-window scans over all statuses (booking grid): history that ended before the window is skipped by the index
+CREATE INDEX IF NOT EXISTS idx_booking_check_out_check_in
+    ON booking (check_out_date, check_in_date);
@@ -0,0 +1,3 @@
+-- One invoice per booking per billing period; month-end batch inserts skip rows that already exist
+CREATE UNIQUE INDEX IF NOT EXISTS uk_invoice_booking_period
+    ON invoice (booking_id, billing_period);
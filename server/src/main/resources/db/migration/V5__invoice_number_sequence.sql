@@ -0,0 +1,3 @@
+-- Invoice numbers (InvoiceNumberService): a nextval returning v reserves v - INCREMENT BY + 1 .. v for one instance.
+-- The block size can be changed later with ALTER SEQUENCE ... INCREMENT BY without blocks ever overlapping.
+CREATE SEQUENCE IF NOT EXISTS invoice_number_seq START WITH 50 INCREMENT BY 50;
@@ -0,0 +1,30 @@
+-- Entity ids come from <table>_id_seq with Hibernate's pooled-lo optimizer: a nextval returning v reserves v .. v + 49.
+-- Tables created under IDENTITY keep their identity column, whose own sequence already has that name, so old
+-- instances, Hibernate and raw INSERTs without an id all draw from one sequence. Tables created since have a plain
+-- id column and get the sequence as their default.
+DO $$
+DECLARE
+    entity_table TEXT;
+    id_sequence TEXT;
+    max_id BIGINT;
+BEGIN
+    FOREACH entity_table IN ARRAY ARRAY['booking', 'booking_request', 'expense', 'invoice', 'invoice_batch',
+                                        'payment', 'room', 'room_configuration', 'stored_document'] LOOP
+        CONTINUE WHEN to_regclass(entity_table) IS NULL;
+        id_sequence := entity_table || '_id_seq';
+        IF EXISTS (SELECT 1 FROM information_schema.columns
+                   WHERE table_schema = current_schema() AND table_name = entity_table
+                     AND column_name = 'id' AND is_identity = 'YES') THEN
+            EXECUTE format('ALTER TABLE %I ALTER COLUMN id SET INCREMENT BY 50', entity_table);
+        ELSE
+            EXECUTE format('CREATE SEQUENCE IF NOT EXISTS %I INCREMENT BY 50', id_sequence);
+            EXECUTE format('ALTER SEQUENCE %I INCREMENT BY 50 OWNED BY %I.id', id_sequence, entity_table);
+            EXECUTE format('ALTER TABLE %I ALTER COLUMN id SET DEFAULT nextval(%L)', entity_table, id_sequence);
+        END IF;
+        -- Never hand out a block below rows that are already there
+        EXECUTE format('SELECT max(id) FROM %I', entity_table) INTO max_id;
+        IF max_id IS NOT NULL THEN
+            EXECUTE format('SELECT setval(%L, greatest(%s, (SELECT last_value FROM %I)))', id_sequence, max_id, id_sequence);
+        END IF;
+    END LOOP;
+END $$;
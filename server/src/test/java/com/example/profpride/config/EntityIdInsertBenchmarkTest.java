@@ -0,0 +1,192 @@
+package com.example.profpride.config;
+
+import com.example.profpride.enums.ExpenseCategory;
+import com.example.profpride.models.Expense;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypes;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Inserts/sec for a bulk save of expenses through EntityManager.persist against a real Postgres,
+ * with the Hibernate properties application.properties ships. after is the real Expense entity:
+ * SEQUENCE ids drawn pooled-lo from expense_id_seq, so the INSERTs go out in JDBC batches. before
+ * is IdentityExpense, the same columns mapped the way Expense was before, with IDENTITY ids that
+ * force one INSERT per row. Both save ROWS rows in one transaction, as ExpenseController's bulk
+ * endpoint does.
+ *
+ * Needs Docker. Run with: mvn test -Dgroups=benchmark -DexcludedGroups= -Dtest=EntityIdInsertBenchmarkTest
+ */
+@Tag("benchmark")
+@Testcontainers(disabledWithoutDocker = true)
+class EntityIdInsertBenchmarkTest {
+
+    private static final int ROWS = 5_000;
+    private static final int WARMUP_RUNS = 2;
+    private static final int MEASURED_RUNS = 5;
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static LocalContainerEntityManagerFactoryBean factoryBean;
+    private static EntityManagerFactory entityManagerFactory;
+
+    /** Expense as mapped before the switch to sequences. */
+    @Entity
+    @Table(name = "expense_identity")
+    static class IdentityExpense {
+
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        Long id;
+
+        @Column(name = "description", nullable = false)
+        String description;
+
+        @Column(name = "amount", precision = 10, scale = 2, nullable = false)
+        BigDecimal amount;
+
+        @Enumerated(EnumType.STRING)
+        @Column(name = "category", nullable = false)
+        ExpenseCategory category;
+
+        @Column(name = "expense_date", nullable = false)
+        LocalDate expenseDate;
+
+        @Column(name = "created_at")
+        LocalDateTime createdAt;
+
+        @Column(name = "updated_at")
+        LocalDateTime updatedAt;
+    }
+
+    @BeforeAll
+    static void buildEntityManagerFactory() throws IOException {
+        factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(new DriverManagerDataSource(
+            postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword()));
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setManagedTypes(PersistenceManagedTypes.of(Expense.class.getName(), IdentityExpense.class.getName()));
+        factoryBean.setJpaPropertyMap(hibernateProperties());
+        factoryBean.afterPropertiesSet();
+        entityManagerFactory = factoryBean.getObject();
+    }
+
+    @AfterAll
+    static void closeEntityManagerFactory() {
+        if (factoryBean != null) {
+            factoryBean.destroy();
+        }
+    }
+
+    @Test
+    void pooledLoBatchedInsertsBeatIdentity() {
+        double before = insertsPerSecond(EntityIdInsertBenchmarkTest::identityExpense);
+        double after = insertsPerSecond(EntityIdInsertBenchmarkTest::expense);
+        System.out.printf("Bulk expense inserts/sec (%d rows per transaction): before=%.0f after=%.0f (%.1fx)%n",
+            ROWS, before, after, after / before);
+
+        assertThat(rowCount(IdentityExpense.class)).isEqualTo((long) ROWS * (WARMUP_RUNS + MEASURED_RUNS));
+        assertThat(rowCount(Expense.class)).isEqualTo((long) ROWS * (WARMUP_RUNS + MEASURED_RUNS));
+        assertThat(after).isGreaterThan(before);
+    }
+
+    // The spring.jpa.properties.* entries of application.properties, as Spring Boot passes them on
+    private static Map<String, Object> hibernateProperties() throws IOException {
+        Properties application = PropertiesLoaderUtils.loadProperties(new ClassPathResource("application.properties"));
+        Map<String, Object> properties = new HashMap<>();
+        String prefix = "spring.jpa.properties.";
+        for (String name : application.stringPropertyNames()) {
+            if (name.startsWith(prefix)) {
+                properties.put(name.substring(prefix.length()), application.getProperty(name));
+            }
+        }
+        properties.put("hibernate.physical_naming_strategy",
+            "org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy");
+        properties.put("hibernate.hbm2ddl.auto", "create");
+        return properties;
+    }
+
+    // Median over the measured runs, each a fresh persistence context and transaction of ROWS persists
+    private static double insertsPerSecond(IntFunction<Object> newEntity) {
+        double[] rates = new double[MEASURED_RUNS];
+        for (int run = 0; run < WARMUP_RUNS + MEASURED_RUNS; run++) {
+            EntityManager entityManager = entityManagerFactory.createEntityManager();
+            try {
+                long started = System.nanoTime();
+                entityManager.getTransaction().begin();
+                for (int i = 0; i < ROWS; i++) {
+                    entityManager.persist(newEntity.apply(i));
+                }
+                entityManager.getTransaction().commit();
+                if (run >= WARMUP_RUNS) {
+                    rates[run - WARMUP_RUNS] = ROWS / ((System.nanoTime() - started) / 1e9);
+                }
+            } finally {
+                entityManager.close();
+            }
+        }
+        Arrays.sort(rates);
+        return rates[MEASURED_RUNS / 2];
+    }
+
+    private static Object expense(int i) {
+        Expense expense = new Expense();
+        expense.setDescription("Laundry " + i);
+        expense.setAmount(BigDecimal.valueOf(150 + i % 100));
+        expense.setCategory(ExpenseCategory.MAINTENANCE);
+        return expense;
+    }
+
+    private static Object identityExpense(int i) {
+        IdentityExpense expense = new IdentityExpense();
+        expense.description = "Laundry " + i;
+        expense.amount = BigDecimal.valueOf(150 + i % 100);
+        expense.category = ExpenseCategory.MAINTENANCE;
+        expense.expenseDate = LocalDate.now();
+        expense.createdAt = LocalDateTime.now();
+        expense.updatedAt = expense.createdAt;
+        return expense;
+    }
+
+    private static long rowCount(Class<?> entity) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            return entityManager.createQuery("SELECT count(e) FROM " + entity.getSimpleName() + " e", Long.class)
+                .getSingleResult();
+        } finally {
+            entityManager.close();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.profpride.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdOptimizerCustomizerTest {
+
+    private final DataSource dataSource = mock(DataSource.class);
+    private final Connection connection = mock(Connection.class);
+    private final PreparedStatement statement = mock(PreparedStatement.class);
+    private final ResultSet resultSet = mock(ResultSet.class);
+
+    @Test
+    void keepsPooledLoOnceV6IsRecorded() throws SQLException {
+        database(true);
+
+        Map<String, Object> properties = customize();
+
+        assertThat(properties).containsEntry(AvailableSettings.PREFERRED_POOLED_OPTIMIZER, "pooled-lo");
+        verify(statement).setInt(1, 6);
+        verify(connection).close();
+    }
+
+    @Test
+    void drawsOneIdPerNextvalUntilV6IsRecorded() throws SQLException {
+        database(false);
+
+        assertThat(customize()).containsEntry(AvailableSettings.PREFERRED_POOLED_OPTIMIZER, "none");
+    }
+
+    @Test
+    void missingMigrationTableOrDatabaseCountsAsNotMigrated() throws SQLException {
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenThrow(new SQLException("relation \"schema_migration\" does not exist"));
+        assertThat(customize()).containsEntry(AvailableSettings.PREFERRED_POOLED_OPTIMIZER, "none");
+
+        when(dataSource.getConnection()).thenThrow(new SQLException("Connection refused"));
+        assertThat(customize()).containsEntry(AvailableSettings.PREFERRED_POOLED_OPTIMIZER, "none");
+    }
+
+    private void database(boolean v6Recorded) throws SQLException {
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(v6Recorded);
+    }
+
+    private Map<String, Object> customize() {
+        IdOptimizerCustomizer customizer = new IdOptimizerCustomizer();
+        ReflectionTestUtils.setField(customizer, "dataSource", dataSource);
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(AvailableSettings.PREFERRED_POOLED_OPTIMIZER, "pooled-lo");
+        customizer.customize(properties);
+        return properties;
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.profpride.controllers;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileResponsesTest {
+
+    // 26 bytes, so every byte's offset is obvious from its letter
+    private static final String BODY = "abcdefghijklmnopqrstuvwxyz";
+    private static final String CACHE_CONTROL = "private, max-age=60";
+
+    @TempDir
+    Path dir;
+
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = Files.writeString(dir.resolve("receipt.txt"), BODY);
+    }
+
+    @Test
+    void noRangeSendsTheWholeFile() throws IOException {
+        MockHttpServletResponse response = send(request(null));
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isNull();
+        assertThat(response.getContentAsString()).isEqualTo(BODY);
+    }
+
+    @ParameterizedTest(name = "{0} -> {1}")
+    @CsvSource(delimiter = '|', value = {
+        "bytes=0-4      | abcde      | bytes 0-4/26",
+        "bytes=10-      | klmnopqrstuvwxyz | bytes 10-25/26",
+        "bytes=-3       | xyz        | bytes 23-25/26",
+        "bytes=-100     | abcdefghijklmnopqrstuvwxyz | bytes 0-25/26",
+        "bytes=20-1000  | uvwxyz     | bytes 20-25/26",
+        "bytes=25-25    | z          | bytes 25-25/26",
+        "bytes= 2-3     | cd         | bytes 2-3/26"
+    })
+    void singleRangesArePartialContent(String range, String body, String contentRange) throws IOException {
+        MockHttpServletResponse response = send(request(range));
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo(contentRange);
+        assertThat(response.getContentLengthLong()).isEqualTo(body.length());
+        assertThat(response.getContentAsString()).isEqualTo(body);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"bytes=26-", "bytes=30-40", "bytes=5-2", "bytes=-0"})
+    void unsatisfiableRangesAre416(String range) throws IOException {
+        MockHttpServletResponse response = send(request(range));
+
+        assertThat(response.getStatus()).isEqualTo(416);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */26");
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"bytes=0-1,4-5", "items=0-4", "bytes=abc-def", "bytes=4", "bytes=-"})
+    void multiOrMalformedRangesFallBackToTheWholeFile(String range) throws IOException {
+        MockHttpServletResponse response = send(request(range));
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isNull();
+        assertThat(response.getContentAsString()).isEqualTo(BODY);
+    }
+
+    @Test
+    void ifRangeMatchingTheEtagKeepsTheRange() throws IOException {
+        String etag = send(request(null)).getHeader(HttpHeaders.ETAG);
+        MockHttpServletRequest request = request("bytes=0-2");
+        request.addHeader(HttpHeaders.IF_RANGE, etag);
+
+        MockHttpServletResponse response = send(request);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentAsString()).isEqualTo("abc");
+    }
+
+    @Test
+    void staleIfRangeSendsTheWholeFile() throws IOException {
+        MockHttpServletRequest request = request("bytes=0-2");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"stale\"");
+
+        MockHttpServletResponse response = send(request);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo(BODY);
+    }
+
+    @Test
+    void sendfileGetsTheRangeAsAHalfOpenRegion() throws IOException {
+        MockHttpServletRequest request = request("bytes=3-7");
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+
+        MockHttpServletResponse response = send(request);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.filename")).isEqualTo(file.toString());
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.start")).isEqualTo(3L);
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.end")).isEqualTo(8L);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void headSendsHeadersOnly() throws IOException {
+        MockHttpServletRequest request = request("bytes=0-4");
+        request.setMethod("HEAD");
+
+        MockHttpServletResponse response = send(request);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentLengthLong()).isEqualTo(5);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    private static MockHttpServletRequest request(String range) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/files/receipt.txt");
+        if (range != null) {
+            request.addHeader(HttpHeaders.RANGE, range);
+        }
+        return request;
+    }
+
+    private MockHttpServletResponse send(MockHttpServletRequest request) throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setCharacterEncoding(StandardCharsets.US_ASCII.name());
+        FileResponses.send(request, response, file, CACHE_CONTROL);
+        return response;
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.profpride.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookingWriteCoordinatorTest {
+
+    private static final int WRITERS = 64;
+    private static final int OPERATIONS_PER_WRITER = 300;
+
+    // A booking as the controller sees it: [checkIn, checkOut) in days, owned by one writer
+    private static final class Stay {
+        final int writer;
+        int checkIn;
+        int checkOut;
+
+        Stay(int writer, int checkIn, int checkOut) {
+            this.writer = writer;
+            this.checkIn = checkIn;
+            this.checkOut = checkOut;
+        }
+
+        boolean overlaps(int otherCheckIn, int otherCheckOut) {
+            return checkIn < otherCheckOut && checkOut > otherCheckIn;
+        }
+    }
+
+    @Test
+    void roundsStripeCountUpToAPowerOfTwo() {
+        assertThat(new BookingWriteCoordinator(1).stripeCount()).isEqualTo(1);
+        assertThat(new BookingWriteCoordinator(2).stripeCount()).isEqualTo(2);
+        assertThat(new BookingWriteCoordinator(3).stripeCount()).isEqualTo(4);
+        assertThat(new BookingWriteCoordinator(64).stripeCount()).isEqualTo(64);
+        assertThat(new BookingWriteCoordinator(65).stripeCount()).isEqualTo(128);
+    }
+
+    @Test
+    void concurrentCreatesAndUpdatesNeverDoubleBookOneRoom() throws Exception {
+        List<Stay> room = runWriters(new BookingWriteCoordinator(64), 1);
+        assertNoOverlaps(room);
+    }
+
+    @Test
+    void roomsSharingOneStripeStayConsistent() throws Exception {
+        // A single stripe forces every room through the same lock
+        BookingWriteCoordinator coordinator = new BookingWriteCoordinator(1);
+        List<Stay> first = runWriters(coordinator, 1);
+        List<Stay> second = runWriters(coordinator, 2);
+        assertNoOverlaps(first);
+        assertNoOverlaps(second);
+    }
+
+    /**
+     * 64 writers hammer one room with the controller's read-check-write: half create a stay if
+     * the range is free, half move one of their own stays to a new range if that is free. The
+     * room's list is a plain ArrayList, so the coordinator is the only thing keeping it sane.
+     */
+    private static List<Stay> runWriters(BookingWriteCoordinator coordinator, long roomId) throws Exception {
+        List<Stay> room = new ArrayList<>();
+        AtomicInteger accepted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int w = 0; w < WRITERS; w++) {
+                int writer = w;
+                writers.add(pool.submit(() -> {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < OPERATIONS_PER_WRITER; i++) {
+                        int checkIn = random.nextInt(365);
+                        int checkOut = checkIn + 1 + random.nextInt(5);
+                        boolean update = random.nextBoolean();
+                        boolean done = coordinator.withRoomLock(roomId, () -> {
+                            Stay own = update ? ownStay(room, writer) : null;
+                            for (Stay stay : room) {
+                                if (stay != own && stay.overlaps(checkIn, checkOut)) {
+                                    return false;
+                                }
+                            }
+                            // Widen the window between the check and the write
+                            Thread.yield();
+                            if (own != null) {
+                                own.checkIn = checkIn;
+                                own.checkOut = checkOut;
+                            } else {
+                                room.add(new Stay(writer, checkIn, checkOut));
+                            }
+                            return true;
+                        });
+                        if (done) {
+                            accepted.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> writer : writers) {
+                writer.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(accepted.get()).isPositive();
+        assertThat(room).isNotEmpty();
+        return room;
+    }
+
+    private static Stay ownStay(List<Stay> room, int writer) {
+        for (Stay stay : room) {
+            if (stay.writer == writer) {
+                return stay;
+            }
+        }
+        return null;
+    }
+
+    private static void assertNoOverlaps(List<Stay> room) {
+        for (int i = 0; i < room.size(); i++) {
+            for (int j = i + 1; j < room.size(); j++) {
+                Stay a = room.get(i);
+                Stay b = room.get(j);
+                assertThat(a.overlaps(b.checkIn, b.checkOut))
+                    .as("[%d, %d) overlaps [%d, %d)", a.checkIn, a.checkOut, b.checkIn, b.checkOut)
+                    .isFalse();
+            }
+        }
+    }
+}
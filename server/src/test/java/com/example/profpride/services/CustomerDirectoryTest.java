@@ -0,0 +1,100 @@
+package com.example.profpride.services;
+
+import com.example.profpride.dto.CustomerSummary;
+import com.example.profpride.repositories.CustomerRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CustomerDirectoryTest {
+
+    private static final String PHONE = "9000000001";
+    private static final CustomerSummary STORED = new CustomerSummary(PHONE, "Asha", null, null, false);
+
+    private final CustomerRepository repository = mock(CustomerRepository.class);
+    private CustomerDirectory directory;
+
+    @BeforeEach
+    void setUp() {
+        directory = new CustomerDirectory(100, Duration.ofMinutes(10), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(directory, "customerRepository", repository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        directory.shutdown();
+    }
+
+    @Test
+    void loadsOnceAndServesRepeatsFromTheCache() {
+        when(repository.findSummaryByPhoneNumber(PHONE)).thenReturn(Optional.of(STORED));
+
+        assertThat(directory.find(PHONE)).contains(STORED);
+        assertThat(directory.find(PHONE)).contains(STORED);
+        verify(repository, times(1)).findSummaryByPhoneNumber(PHONE);
+    }
+
+    @Test
+    void unknownNumbersAreNotCached() {
+        // Chained rather than thenReturn(a, b), whose generic varargs array is an unchecked warning
+        when(repository.findSummaryByPhoneNumber(PHONE)).thenReturn(Optional.empty()).thenReturn(Optional.of(STORED));
+
+        assertThat(directory.find(PHONE)).isEmpty();
+        assertThat(directory.find(PHONE)).contains(STORED);
+    }
+
+    @Test
+    void evictDuringAnInFlightLoadDoesNotResurrectTheCustomer() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(repository.findSummaryByPhoneNumber(anyString())).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            // The row as it was read, before the delete committed
+            return Optional.of(STORED);
+        }).thenReturn(Optional.empty());
+
+        CompletableFuture<Optional<CustomerSummary>> staleRead = CompletableFuture.supplyAsync(() -> directory.find(PHONE));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        directory.evict(PHONE);
+        release.countDown();
+
+        assertThat(staleRead.get(5, TimeUnit.SECONDS)).contains(STORED);
+        assertThat(directory.find(PHONE)).isEmpty();
+    }
+
+    @Test
+    void putDuringAnInFlightLoadWins() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(repository.findSummaryByPhoneNumber(anyString())).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(STORED);
+        });
+
+        CompletableFuture<Optional<CustomerSummary>> staleRead = CompletableFuture.supplyAsync(() -> directory.find(PHONE));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        CustomerSummary updated = STORED.withIdProofSubmitted(true);
+        directory.put(updated);
+        release.countDown();
+        staleRead.get(5, TimeUnit.SECONDS);
+
+        assertThat(directory.find(PHONE)).contains(updated);
+    }
+}
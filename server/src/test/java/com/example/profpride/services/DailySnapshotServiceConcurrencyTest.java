@@ -0,0 +1,160 @@
+package com.example.profpride.services;
+
+import com.example.profpride.dto.BookingFacts;
+import com.example.profpride.enums.BookingStatus;
+import com.example.profpride.enums.PaymentStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Concurrent booking writes against a real Postgres: none may deadlock, and once they are done every
+ * daily_snapshot row must equal what computeDailyAggregates rebuilds it to.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class DailySnapshotServiceConcurrencyTest {
+
+    private static final int WRITERS = 8;
+    private static final int BOOKINGS_PER_WRITER = 15;
+    private static final LocalDate TODAY = LocalDate.now();
+
+    // computeDailyAggregates without the payment column; ? pairs are the day's start and end
+    private static final String RECOMPUTE = "SELECT " +
+        "(SELECT COUNT(*) FROM booking WHERE check_in_date >= ? AND check_in_date < ? " +
+        "AND booking_status = 'CONFIRMED') AS check_ins_due, " +
+        "(SELECT COUNT(*) FROM booking WHERE check_out_date >= ? AND check_out_date < ? " +
+        "AND booking_status = 'CHECKEDIN') AS check_outs_due, " +
+        "(SELECT COUNT(*) FROM booking WHERE (check_in_date >= ? AND check_in_date < ?) " +
+        "OR (check_out_date >= ? AND check_out_date < ?)) AS today_bookings, " +
+        "(SELECT COUNT(DISTINCT room_id) FROM booking WHERE booking_status IN ('CONFIRMED', 'CHECKEDIN') " +
+        "AND check_in_date < ? AND check_out_date > ?) AS booked_rooms";
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private DailySnapshotService service;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        service = new DailySnapshotService();
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(service, "reconcileWindowDays", 7);
+
+        jdbcTemplate.execute("DROP TABLE IF EXISTS daily_snapshot, booking");
+        jdbcTemplate.execute("CREATE TABLE daily_snapshot (snapshot_date DATE PRIMARY KEY, " +
+            "check_ins_due BIGINT NOT NULL, check_outs_due BIGINT NOT NULL, today_bookings BIGINT NOT NULL, " +
+            "booked_rooms BIGINT NOT NULL, revenue NUMERIC(14, 2) NOT NULL, pending_dues_count BIGINT NOT NULL, " +
+            "pending_dues_amount NUMERIC(14, 2) NOT NULL, collected_amount NUMERIC(14, 2) NOT NULL, " +
+            "is_stale BOOLEAN NOT NULL, version BIGINT, created_at TIMESTAMP, updated_at TIMESTAMP)");
+        jdbcTemplate.execute("CREATE TABLE booking (id BIGINT PRIMARY KEY, room_id BIGINT NOT NULL, " +
+            "check_in_date TIMESTAMP NOT NULL, check_out_date TIMESTAMP NOT NULL, booking_status VARCHAR(20) NOT NULL, " +
+            "payment_status VARCHAR(20) NOT NULL, total_amount NUMERIC(10, 2) NOT NULL)");
+        // Rebuilt, empty rows over the window; writes then move them by deltas only
+        jdbcTemplate.update("INSERT INTO daily_snapshot SELECT d, 0, 0, 0, 0, 0, 0, 0, 0, false, 0, now(), now() " +
+            "FROM generate_series(CAST(? AS date), CAST(? AS date), interval '1 day') AS d",
+            Date.valueOf(TODAY.minusDays(7)), Date.valueOf(TODAY.plusDays(14)));
+    }
+
+    @Test
+    void concurrentBookingWritesNeitherDeadlockNorDrift() throws InterruptedException {
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService writers = Executors.newFixedThreadPool(WRITERS);
+        for (int w = 0; w < WRITERS; w++) {
+            int writer = w;
+            writers.execute(() -> {
+                try {
+                    start.await();
+                    write(writer);
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            });
+        }
+        start.countDown();
+        writers.shutdown();
+        assertThat(writers.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+
+        assertThat(failures).isEmpty();
+        BigDecimal revenue = jdbcTemplate.queryForObject("SELECT COALESCE(SUM(total_amount), 0) FROM booking", BigDecimal.class);
+        BigDecimal pending = jdbcTemplate.queryForObject(
+            "SELECT COALESCE(SUM(total_amount), 0) FROM booking WHERE payment_status = 'PENDING'", BigDecimal.class);
+        Long pendingCount = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM booking WHERE payment_status = 'PENDING'", Long.class);
+        for (Map<String, Object> row : jdbcTemplate.queryForList("SELECT * FROM daily_snapshot ORDER BY snapshot_date")) {
+            LocalDate day = ((Date) row.get("snapshot_date")).toLocalDate();
+            Map<String, Object> expected = recompute(day);
+            for (String column : expected.keySet()) {
+                assertThat(((Number) row.get(column)).longValue()).as("%s %s", day, column)
+                    .isEqualTo(((Number) expected.get(column)).longValue());
+            }
+            boolean carriesTotals = !day.isBefore(TODAY);
+            assertThat((BigDecimal) row.get("revenue")).as("%s revenue", day)
+                .isEqualByComparingTo(carriesTotals ? revenue : BigDecimal.ZERO);
+            assertThat((BigDecimal) row.get("pending_dues_amount")).as("%s pending", day)
+                .isEqualByComparingTo(carriesTotals ? pending : BigDecimal.ZERO);
+            assertThat(((Number) row.get("pending_dues_count")).longValue()).isEqualTo(carriesTotals ? pendingCount : 0);
+        }
+    }
+
+    // One room per writer, as the overlap constraint would have it; stays overlap across rooms and
+    // share their changeover day within one. Every third booking is deleted again.
+    private void write(int writer) {
+        long roomId = writer + 1;
+        List<BookingFacts> written = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS_PER_WRITER; i++) {
+            LocalDate checkIn = TODAY.minusDays(5).plusDays(i + writer % 3);
+            BookingFacts facts = new BookingFacts(writer * 1000L + i, roomId, checkIn.atTime(14, 0),
+                checkIn.plusDays(1).atTime(11, 0), i % 2 == 0 ? BookingStatus.CONFIRMED : BookingStatus.CHECKEDIN,
+                i % 3 == 0 ? PaymentStatus.PENDING : PaymentStatus.PAID, BigDecimal.valueOf(1000 + 10 * i));
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update("INSERT INTO booking VALUES (?, ?, ?, ?, ?, ?, ?)", facts.id(), facts.roomId(),
+                    facts.checkInDate(), facts.checkOutDate(), facts.bookingStatus().name(),
+                    facts.paymentStatus().name(), facts.totalAmount());
+                service.onBookingWritten(null, facts);
+            });
+            written.add(facts);
+        }
+        for (int i = 0; i < written.size(); i += 3) {
+            BookingFacts facts = written.get(i);
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update("DELETE FROM booking WHERE id = ?", facts.id());
+                service.onBookingWritten(facts, null);
+            });
+        }
+    }
+
+    private Map<String, Object> recompute(LocalDate day) {
+        Object start = day.atStartOfDay();
+        Object end = day.plusDays(1).atStartOfDay();
+        return jdbcTemplate.queryForMap(RECOMPUTE, start, end, start, end, start, end, start, end, end, start);
+    }
+}
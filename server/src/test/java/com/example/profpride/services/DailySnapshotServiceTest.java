@@ -0,0 +1,302 @@
+package com.example.profpride.services;
+
+import com.example.profpride.dto.BookingFacts;
+import com.example.profpride.dto.PaymentFacts;
+import com.example.profpride.enums.BookingStatus;
+import com.example.profpride.enums.PaymentStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DailySnapshotServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+    private static final LocalDate DAY = TODAY.plusDays(1);
+
+    private final SnapshotTable table = new SnapshotTable();
+    private DailySnapshotService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new DailySnapshotService();
+        ReflectionTestUtils.setField(service, "jdbcTemplate", table);
+        ReflectionTestUtils.setField(service, "reconcileWindowDays", 7);
+        for (LocalDate day = TODAY.minusDays(2); !day.isAfter(TODAY.plusDays(6)); day = day.plusDays(1)) {
+            table.rows.put(day, new Row());
+        }
+    }
+
+    @Test
+    void newBookingCountsItsDaysAndTheTotalsFromToday() {
+        service.onBookingWritten(null, booking(1L, 10L, DAY, 2, BookingStatus.CONFIRMED, PaymentStatus.PENDING, "3000"));
+
+        assertThat(table.row(DAY)).isEqualTo(counts(1, 0, 1, 1));
+        assertThat(table.row(DAY.plusDays(1))).isEqualTo(counts(0, 0, 0, 1));
+        // Leaves at 11:00, so the room is still held that morning
+        assertThat(table.row(DAY.plusDays(2))).isEqualTo(counts(0, 0, 1, 1));
+        assertThat(table.row(DAY.plusDays(3))).isEqualTo(counts(0, 0, 0, 0));
+        for (LocalDate day : table.rows.keySet()) {
+            Row row = table.rows.get(day);
+            boolean carriesTotals = !day.isBefore(TODAY);
+            assertThat(row.revenue).isEqualByComparingTo(carriesTotals ? "3000" : "0");
+            assertThat(row.pendingCount).isEqualTo(carriesTotals ? 1 : 0);
+            assertThat(row.pendingAmount).isEqualByComparingTo(carriesTotals ? "3000" : "0");
+        }
+    }
+
+    @Test
+    void movedBookingEndsUpAsIfWrittenFreshAtItsNewDates() {
+        BookingFacts original = booking(1L, 10L, DAY, 1, BookingStatus.CONFIRMED, PaymentStatus.PENDING, "1500");
+        BookingFacts moved = booking(1L, 10L, DAY.plusDays(3), 1, BookingStatus.CHECKEDIN, PaymentStatus.PENDING, "1500");
+        service.onBookingWritten(null, original);
+
+        service.onBookingWritten(original, moved);
+
+        SnapshotTable fresh = new SnapshotTable();
+        table.rows.keySet().forEach(day -> fresh.rows.put(day, new Row()));
+        DailySnapshotService reference = new DailySnapshotService();
+        ReflectionTestUtils.setField(reference, "jdbcTemplate", fresh);
+        ReflectionTestUtils.setField(reference, "reconcileWindowDays", 7);
+        reference.onBookingWritten(null, moved);
+        for (LocalDate day : table.rows.keySet()) {
+            assertThat(table.row(day)).as("%s", day).isEqualTo(fresh.row(day));
+        }
+        assertThat(table.row(DAY.plusDays(4))).isEqualTo(counts(0, 1, 1, 1));
+        // Only the two stays are locked, not the day between them; the totals didn't change
+        assertThat(table.lastLock).doesNotContain(">=");
+        assertThat(table.lastLocked).containsExactly(DAY, DAY.plusDays(1), DAY.plusDays(3), DAY.plusDays(4));
+    }
+
+    @Test
+    void roomHeldByAnotherBookingKeepsItsBookedCount() {
+        table.others.add(booking(2L, 10L, DAY.plusDays(1), 3, BookingStatus.CHECKEDIN, PaymentStatus.PAID, "0"));
+        table.row(DAY.plusDays(1)).bookedRooms = 1;
+        table.row(DAY.plusDays(2)).bookedRooms = 1;
+
+        service.onBookingWritten(null, booking(1L, 10L, DAY, 2, BookingStatus.CONFIRMED, PaymentStatus.PAID, "0"));
+
+        assertThat(table.row(DAY).bookedRooms).isEqualTo(1);
+        assertThat(table.row(DAY.plusDays(1)).bookedRooms).isEqualTo(1);
+        assertThat(table.row(DAY.plusDays(2)).bookedRooms).isEqualTo(1);
+        assertThat(table.row(DAY.plusDays(2)).todayBookings).isEqualTo(1);
+    }
+
+    @Test
+    void deletedBookingIsTakenBackOut() {
+        BookingFacts booking = booking(1L, 10L, DAY, 2, BookingStatus.CONFIRMED, PaymentStatus.PENDING, "3000");
+        service.onBookingWritten(null, booking);
+
+        service.onBookingWritten(booking, null);
+
+        for (LocalDate day : table.rows.keySet()) {
+            assertThat(table.row(day)).as("%s", day).isEqualTo(counts(0, 0, 0, 0));
+            assertThat(table.row(day).revenue).isEqualByComparingTo("0");
+            assertThat(table.row(day).pendingCount).isZero();
+        }
+    }
+
+    @Test
+    void everyRowIsLockedInDateOrderBeforeAnyUpdate() {
+        BookingFacts original = booking(1L, 10L, DAY.plusDays(4), 1, BookingStatus.CONFIRMED, PaymentStatus.PENDING, "1500");
+        BookingFacts moved = booking(1L, 10L, DAY, 1, BookingStatus.CONFIRMED, PaymentStatus.PENDING, "2500");
+
+        service.onBookingWritten(original, moved);
+
+        assertThat(table.statements).containsExactly("CLAIM", "LOCK", "OTHER_HOLDERS", "DAY_DELTA", "TOTALS_DELTA");
+        assertThat(table.claimed).isSorted().contains(TODAY, TODAY.plusDays(7));
+        assertThat(table.lastLock).endsWith("ORDER BY snapshot_date FOR UPDATE").contains("snapshot_date >= ?");
+        assertThat(table.lastLocked).isSorted().contains(TODAY, DAY, DAY.plusDays(4));
+    }
+
+    @Test
+    void unchangedWriteTouchesNothing() {
+        BookingFacts booking = booking(1L, 10L, DAY, 2, BookingStatus.CONFIRMED, PaymentStatus.PENDING, "3000");
+        PaymentFacts payment = new PaymentFacts(DAY.atTime(10, 0), new BigDecimal("500"));
+
+        service.onBookingWritten(booking, booking);
+        service.onPaymentWritten(payment, payment);
+
+        assertThat(table.statements).isEmpty();
+    }
+
+    @Test
+    void movedPaymentShiftsTheCollectedAmount() {
+        PaymentFacts taken = new PaymentFacts(DAY.atTime(10, 0), new BigDecimal("500"));
+        service.onPaymentWritten(null, taken);
+        PaymentFacts corrected = new PaymentFacts(DAY.plusDays(2).atTime(9, 0), new BigDecimal("450"));
+
+        service.onPaymentWritten(taken, corrected);
+
+        assertThat(table.row(DAY).collected).isEqualByComparingTo("0");
+        assertThat(table.row(DAY.plusDays(2)).collected).isEqualByComparingTo("450");
+        assertThat(table.lastLocked).containsExactly(DAY, DAY.plusDays(2));
+    }
+
+    // Checks in at 14:00 and leaves at 11:00 after the given nights
+    private static BookingFacts booking(Long id, Long roomId, LocalDate checkIn, int nights, BookingStatus status,
+                                        PaymentStatus paymentStatus, String amount) {
+        return new BookingFacts(id, roomId, checkIn.atTime(14, 0), checkIn.plusDays(nights).atTime(11, 0),
+            status, paymentStatus, new BigDecimal(amount));
+    }
+
+    private static Row counts(long checkInsDue, long checkOutsDue, long todayBookings, long bookedRooms) {
+        Row row = new Row();
+        row.checkInsDue = checkInsDue;
+        row.checkOutsDue = checkOutsDue;
+        row.todayBookings = todayBookings;
+        row.bookedRooms = bookedRooms;
+        return row;
+    }
+
+    private static final class Row {
+        long checkInsDue;
+        long checkOutsDue;
+        long todayBookings;
+        long bookedRooms;
+        BigDecimal revenue = BigDecimal.ZERO;
+        long pendingCount;
+        BigDecimal pendingAmount = BigDecimal.ZERO;
+        BigDecimal collected = BigDecimal.ZERO;
+
+        // Day counters only; amounts are asserted with compareTo
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Row row && checkInsDue == row.checkInsDue && checkOutsDue == row.checkOutsDue
+                && todayBookings == row.todayBookings && bookedRooms == row.bookedRooms;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(checkInsDue + 31 * checkOutsDue + 961 * todayBookings + 29791 * bookedRooms);
+        }
+
+        @Override
+        public String toString() {
+            return "in=" + checkInsDue + " out=" + checkOutsDue + " bookings=" + todayBookings + " rooms=" + bookedRooms;
+        }
+    }
+
+    /** daily_snapshot and the other bookings in memory, interpreting the statements the service sends. */
+    private static final class SnapshotTable extends JdbcTemplate {
+        final Map<LocalDate, Row> rows = new TreeMap<>();
+        final List<BookingFacts> others = new ArrayList<>();
+        final List<String> statements = new ArrayList<>();
+        final List<LocalDate> claimed = new ArrayList<>();
+        String lastLock;
+        List<LocalDate> lastLocked;
+
+        Row row(LocalDate day) {
+            return rows.get(day);
+        }
+
+        @Override
+        public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+            if (sql.startsWith("INSERT INTO daily_snapshot")) {
+                statements.add("CLAIM");
+                for (Object[] args : batchArgs) {
+                    claimed.add(day(args[0]));
+                    rows.putIfAbsent(day(args[0]), new Row());
+                }
+            } else {
+                assertThat(sql).startsWith("UPDATE daily_snapshot SET check_ins_due");
+                statements.add("DAY_DELTA");
+                for (Object[] args : batchArgs) {
+                    Row row = rows.get(day(args[5]));
+                    assertThat(lastLocked).as("updated without a lock").contains(day(args[5]));
+                    row.checkInsDue += (Long) args[0];
+                    row.checkOutsDue += (Long) args[1];
+                    row.todayBookings += (Long) args[2];
+                    row.bookedRooms += (Long) args[3];
+                    row.collected = row.collected.add((BigDecimal) args[4]);
+                }
+            }
+            return new int[batchArgs.size()];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> List<T> queryForList(String sql, Class<T> elementType, Object... args) {
+            assertThat(sql).contains("FOR UPDATE");
+            statements.add("LOCK");
+            lastLock = sql;
+            List<LocalDate> locked = new ArrayList<>();
+            for (LocalDate day : rows.keySet()) {
+                boolean match = false;
+                int i = 0;
+                for (; i + 1 < args.length; i += 2) {
+                    match |= !day.isBefore(day(args[i])) && !day.isAfter(day(args[i + 1]));
+                }
+                if (i < args.length) {
+                    match |= !day.isBefore(day(args[i]));
+                }
+                if (match) {
+                    locked.add(day);
+                }
+            }
+            lastLocked = locked;
+            return (List<T>) locked;
+        }
+
+        @Override
+        public <T> List<T> query(String sql, RowMapper<T> rowMapper, Object... args) {
+            statements.add("OTHER_HOLDERS");
+            Long roomId = (Long) args[0];
+            Long bookingId = (Long) args[1];
+            LocalDateTime to = (LocalDateTime) args[2];
+            LocalDateTime from = (LocalDateTime) args[3];
+            List<T> result = new ArrayList<>();
+            try {
+                for (BookingFacts other : others) {
+                    if (other.roomId().equals(roomId) && !other.id().equals(bookingId) && other.isBlocking()
+                        && other.checkInDate().isBefore(to) && other.checkOutDate().isAfter(from)) {
+                        ResultSet rs = mock(ResultSet.class);
+                        when(rs.getTimestamp(1)).thenReturn(Timestamp.valueOf(other.checkInDate()));
+                        when(rs.getTimestamp(2)).thenReturn(Timestamp.valueOf(other.checkOutDate()));
+                        result.add(rowMapper.mapRow(rs, result.size()));
+                    }
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+            return result;
+        }
+
+        @Override
+        public int update(String sql, Object... args) {
+            assertThat(sql).contains("revenue = revenue + ?");
+            statements.add("TOTALS_DELTA");
+            LocalDate from = day(args[3]);
+            rows.forEach((day, row) -> {
+                if (!day.isBefore(from)) {
+                    assertThat(lastLocked).as("updated without a lock").contains(day);
+                    row.revenue = row.revenue.add((BigDecimal) args[0]);
+                    row.pendingCount += (Long) args[1];
+                    row.pendingAmount = row.pendingAmount.add((BigDecimal) args[2]);
+                }
+            });
+            return rows.size();
+        }
+
+        private static LocalDate day(Object value) {
+            return ((Date) value).toLocalDate();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.profpride.services;
+
+import com.example.profpride.dto.StoredUpload;
+import com.example.profpride.models.StoredDocument;
+import com.example.profpride.repositories.StoredDocumentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class DocumentUploaderTest {
+
+    private static final String OWNER = "9876543210";
+    private static final byte[] PDF = "%PDF-1.7 booking receipt".getBytes(StandardCharsets.UTF_8);
+
+    private final FileStorage fileStorage = mock(FileStorage.class);
+    private final ImageProcessor imageProcessor = mock(ImageProcessor.class);
+    private final StoredDocumentRepository repository = mock(StoredDocumentRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private DocumentUploader uploader;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        uploader = new DocumentUploader();
+        ReflectionTestUtils.setField(uploader, "fileStorage", fileStorage);
+        ReflectionTestUtils.setField(uploader, "imageProcessor", imageProcessor);
+        ReflectionTestUtils.setField(uploader, "storedDocumentRepository", repository);
+        ReflectionTestUtils.setField(uploader, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(uploader, "backend", "local");
+        uploader.registerMetrics();
+        when(imageProcessor.process(any(Path.class))).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void duplicateIsAnsweredFromTheIndex() throws Exception {
+        StoredDocument document = new StoredDocument();
+        document.setUrl("/uploads/" + OWNER + "/payments/" + sha256(PDF) + ".pdf");
+        when(repository.findByBackendAndOwnerAndFolderAndSha256("local", OWNER, FileStorage.PAYMENT_FOLDER, sha256(PDF)))
+            .thenReturn(Optional.of(document));
+
+        StoredUpload upload = uploader.storePaymentScreenshot(part(PDF), OWNER);
+
+        assertThat(upload).isEqualTo(new StoredUpload(document.getUrl(), null));
+        verifyNoInteractions(fileStorage, imageProcessor);
+        verify(repository, never()).save(any());
+        assertThat(meterRegistry.counter("uploads.deduplicated").count()).isEqualTo(1);
+    }
+
+    @Test
+    void missIsStoredUnderItsHashAndIndexed() throws Exception {
+        String name = sha256(PDF) + ".pdf";
+        when(repository.findByBackendAndOwnerAndFolderAndSha256(anyString(), anyString(), anyString(), anyString()))
+            .thenReturn(Optional.empty());
+        ArgumentCaptor<Path> staged = ArgumentCaptor.forClass(Path.class);
+        when(fileStorage.store(staged.capture(), eq(OWNER), eq(FileStorage.ID_PROOF_FOLDER), eq(name)))
+            .thenAnswer(invocation -> {
+                // The staged copy holds the uploaded bytes while the backend reads it
+                assertThat(Files.readAllBytes(invocation.<Path>getArgument(0))).isEqualTo(PDF);
+                return "/uploads/" + OWNER + "/id-proof/" + name;
+            });
+
+        StoredUpload upload = uploader.storeIdProof(part(PDF), OWNER);
+
+        assertThat(upload).isEqualTo(new StoredUpload("/uploads/" + OWNER + "/id-proof/" + name, null));
+        ArgumentCaptor<StoredDocument> saved = ArgumentCaptor.forClass(StoredDocument.class);
+        verify(repository).save(saved.capture());
+        assertThat(saved.getValue().getBackend()).isEqualTo("local");
+        assertThat(saved.getValue().getOwner()).isEqualTo(OWNER);
+        assertThat(saved.getValue().getFolder()).isEqualTo(FileStorage.ID_PROOF_FOLDER);
+        assertThat(saved.getValue().getSha256()).isEqualTo(sha256(PDF));
+        assertThat(saved.getValue().getUrl()).isEqualTo(upload.url());
+        assertThat(saved.getValue().getSizeBytes()).isEqualTo(PDF.length);
+        assertThat(staged.getValue()).doesNotExist();
+        assertThat(meterRegistry.counter("uploads.deduplicated").count()).isZero();
+    }
+
+    @Test
+    void imageIsStoredAsMasterAndThumbnail(@TempDir Path dir) throws Exception {
+        Path master = Files.write(dir.resolve("master.jpg"), new byte[] {1});
+        Path thumbnail = Files.write(dir.resolve("thumb.jpg"), new byte[] {2});
+        when(imageProcessor.process(any(Path.class))).thenReturn(Optional.of(new ImageProcessor.ProcessedImage(master, thumbnail)));
+        when(repository.findByBackendAndOwnerAndFolderAndSha256(anyString(), anyString(), anyString(), anyString()))
+            .thenReturn(Optional.empty());
+        when(fileStorage.store(master, OWNER, FileStorage.ID_PROOF_FOLDER, sha256(PDF) + ".jpg")).thenReturn("master-url");
+        when(fileStorage.store(thumbnail, OWNER, FileStorage.ID_PROOF_FOLDER + "-thumbs", sha256(PDF) + ".jpg"))
+            .thenReturn("thumb-url");
+
+        StoredUpload upload = uploader.storeIdProof(part(PDF), OWNER);
+
+        assertThat(upload).isEqualTo(new StoredUpload("master-url", "thumb-url"));
+        assertThat(master).doesNotExist();
+        assertThat(thumbnail).doesNotExist();
+    }
+
+    @Test
+    void concurrentUploadOfTheSameContentLosesTheIndexRaceQuietly() throws Exception {
+        // Both miss the index before either saves; the second save hits the unique constraint
+        CyclicBarrier bothMissed = new CyclicBarrier(2);
+        when(repository.findByBackendAndOwnerAndFolderAndSha256(anyString(), anyString(), anyString(), anyString()))
+            .thenAnswer(invocation -> {
+                bothMissed.await(5, TimeUnit.SECONDS);
+                return Optional.empty();
+            });
+        AtomicInteger saves = new AtomicInteger();
+        when(repository.save(any(StoredDocument.class))).thenAnswer(invocation -> {
+            if (saves.incrementAndGet() > 1) {
+                throw new DataIntegrityViolationException("duplicate key value violates unique constraint \"uk_stored_document_content\"");
+            }
+            return invocation.getArgument(0);
+        });
+        String url = "/uploads/" + OWNER + "/payments/" + sha256(PDF) + ".pdf";
+        when(fileStorage.store(any(Path.class), eq(OWNER), eq(FileStorage.PAYMENT_FOLDER), eq(sha256(PDF) + ".pdf")))
+            .thenReturn(url);
+
+        ExecutorService uploads = Executors.newFixedThreadPool(2);
+        try {
+            Future<StoredUpload> first = uploads.submit(() -> uploader.storePaymentScreenshot(part(PDF), OWNER));
+            Future<StoredUpload> second = uploads.submit(() -> uploader.storePaymentScreenshot(part(PDF), OWNER));
+
+            // Same bytes, same object name: both callers get the one URL
+            assertThat(List.of(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS)))
+                .containsOnly(new StoredUpload(url, null));
+        } finally {
+            uploads.shutdownNow();
+        }
+        verify(repository, times(2)).save(any(StoredDocument.class));
+    }
+
+    private static MockMultipartFile part(byte[] content) {
+        return new MockMultipartFile("file", "receipt.pdf", "application/pdf", content);
+    }
+
+    private static String sha256(byte[] content) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+}
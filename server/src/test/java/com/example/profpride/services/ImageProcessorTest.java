@@ -0,0 +1,162 @@
+package com.example.profpride.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImageProcessorTest {
+
+    // Stored pixels: 64x32, the top-left 32x16 quadrant red and the rest blue
+    private static final int WIDTH = 64;
+    private static final int HEIGHT = 32;
+
+    @TempDir
+    Path dir;
+
+    private final ImageProcessor processor =
+        new ImageProcessor(true, 2048, 320, 0.95f, 1, 4, 10_000, new SimpleMeterRegistry());
+
+    @AfterEach
+    void tearDown() {
+        processor.shutdown();
+    }
+
+    /**
+     * Where the stored top-left quadrant must end up once the EXIF orientation is applied:
+     * 2 mirror, 3 rotate 180, 4 flip, 5 transpose, 6 rotate 90 clockwise, 7 transverse,
+     * 8 rotate 90 counter-clockwise. 5-8 also swap width and height.
+     */
+    @ParameterizedTest(name = "orientation {0} puts the marked corner at {1}")
+    @CsvSource({
+        "1, TOP_LEFT",
+        "2, TOP_RIGHT",
+        "3, BOTTOM_RIGHT",
+        "4, BOTTOM_LEFT",
+        "5, TOP_LEFT",
+        "6, TOP_RIGHT",
+        "7, BOTTOM_RIGHT",
+        "8, BOTTOM_LEFT"
+    })
+    void appliesExifOrientation(int orientation, Corner expected) throws IOException {
+        BufferedImage master = processMaster(jpeg(orientation));
+
+        boolean swapped = orientation >= 5;
+        assertThat(master.getWidth()).isEqualTo(swapped ? HEIGHT : WIDTH);
+        assertThat(master.getHeight()).isEqualTo(swapped ? WIDTH : HEIGHT);
+        for (Corner corner : Corner.values()) {
+            Color color = new Color(corner.centerPixel(master));
+            if (corner == expected) {
+                assertThat(color.getRed()).as("red at %s", corner).isGreaterThan(180);
+                assertThat(color.getBlue()).as("red at %s", corner).isLessThan(80);
+            } else {
+                assertThat(color.getBlue()).as("blue at %s", corner).isGreaterThan(180);
+                assertThat(color.getRed()).as("blue at %s", corner).isLessThan(80);
+            }
+        }
+    }
+
+    @Test
+    void jpegWithoutExifIsLeftUpright() throws IOException {
+        BufferedImage master = processMaster(jpeg(0));
+
+        assertThat(master.getWidth()).isEqualTo(WIDTH);
+        assertThat(new Color(Corner.TOP_LEFT.centerPixel(master)).getRed()).isGreaterThan(180);
+    }
+
+    @Test
+    void outOfRangeOrientationIsIgnored() throws IOException {
+        BufferedImage master = processMaster(jpeg(9));
+
+        assertThat(master.getWidth()).isEqualTo(WIDTH);
+        assertThat(new Color(Corner.TOP_LEFT.centerPixel(master)).getRed()).isGreaterThan(180);
+    }
+
+    @Test
+    void undecodableFilesAreNotProcessed() throws IOException {
+        Path pdf = Files.writeString(dir.resolve("receipt.pdf"), "%PDF-1.4 not an image");
+
+        assertThat(processor.process(pdf)).isEmpty();
+    }
+
+    enum Corner {
+        TOP_LEFT(0.25, 0.25), TOP_RIGHT(0.75, 0.25), BOTTOM_LEFT(0.25, 0.75), BOTTOM_RIGHT(0.75, 0.75);
+
+        private final double x;
+        private final double y;
+
+        Corner(double x, double y) {
+            this.x = x;
+            this.y = y;
+        }
+
+        int centerPixel(BufferedImage image) {
+            return image.getRGB((int) (image.getWidth() * x), (int) (image.getHeight() * y));
+        }
+    }
+
+    private BufferedImage processMaster(Path source) throws IOException {
+        Optional<ImageProcessor.ProcessedImage> processed = processor.process(source);
+        assertThat(processed).isPresent();
+        try {
+            return ImageIO.read(processed.get().master().toFile());
+        } finally {
+            processed.get().delete();
+        }
+    }
+
+    // A baseline JPEG with an EXIF APP1 segment carrying the orientation (0 = no EXIF at all)
+    private Path jpeg(int orientation) throws IOException {
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.BLUE);
+        g.fillRect(0, 0, WIDTH, HEIGHT);
+        g.setColor(Color.RED);
+        g.fillRect(0, 0, WIDTH / 2, HEIGHT / 2);
+        g.dispose();
+
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpg", encoded);
+        byte[] plain = encoded.toByteArray();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(plain, 0, 2);
+        if (orientation > 0) {
+            out.write(exifSegment(orientation));
+        }
+        out.write(plain, 2, plain.length - 2);
+        return Files.write(dir.resolve("photo-" + orientation + ".jpg"), out.toByteArray());
+    }
+
+    private static byte[] exifSegment(int orientation) {
+        ByteBuffer tiff = ByteBuffer.allocate(26).order(ByteOrder.BIG_ENDIAN);
+        tiff.put((byte) 'M').put((byte) 'M').putShort((short) 42).putInt(8);
+        tiff.putShort((short) 1);
+        // Orientation: SHORT, count 1, value left-justified in the 4-byte field
+        tiff.putShort((short) 0x0112).putShort((short) 3).putInt(1).putShort((short) orientation).putShort((short) 0);
+        tiff.putInt(0);
+
+        byte[] header = "Exif\0\0".getBytes(StandardCharsets.US_ASCII);
+        int length = 2 + header.length + tiff.capacity();
+        ByteBuffer segment = ByteBuffer.allocate(2 + length);
+        segment.putShort((short) 0xFFE1).putShort((short) length).put(header).put(tiff.array());
+        return segment.array();
+    }
+}
@@ -0,0 +1,273 @@
+package com.example.profpride.services;
+
+import com.example.profpride.dto.InvoiceBatchProgress;
+import com.example.profpride.dto.InvoiceData;
+import com.example.profpride.enums.BookingDurationType;
+import com.example.profpride.enums.BookingStatus;
+import com.example.profpride.enums.InvoiceBatchStatus;
+import com.example.profpride.models.Booking;
+import com.example.profpride.models.InvoiceBatch;
+import com.example.profpride.repositories.BookingRepository;
+import com.example.profpride.repositories.InvoiceBatchRepository;
+import com.example.profpride.repositories.InvoiceRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class InvoiceBatchServiceTest {
+
+    private static final YearMonth PERIOD = YearMonth.of(2026, 9);
+    private static final int BOOKINGS = 5;
+
+    @TempDir
+    Path dir;
+
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final InvoiceBatchRepository invoiceBatchRepository = mock(InvoiceBatchRepository.class);
+    private final InvoiceRepository invoiceRepository = mock(InvoiceRepository.class);
+    private final InvoiceRenderer invoiceRenderer = mock(InvoiceRenderer.class);
+    private final InvoiceNumberService invoiceNumberService = mock(InvoiceNumberService.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // The invoice table for PERIOD, booking id -> number, with the unique (booking_id, billing_period) index
+    private final Map<Long, String> invoices = new ConcurrentHashMap<>();
+    private final List<Long> checkpointsRead = new CopyOnWriteArrayList<>();
+    private final List<Long> bookingsLoaded = new CopyOnWriteArrayList<>();
+    private final AtomicInteger numbersDrawn = new AtomicInteger();
+    private final List<Booking> bookings = new ArrayList<>();
+
+    private InvoiceBatch stored;
+    private final AtomicInteger loads = new AtomicInteger();
+    private volatile int failingLoad = -1;
+    private volatile CountDownLatch finished;
+    private InvoiceBatchService service;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        for (long id = 1; id <= BOOKINGS; id++) {
+            bookings.add(booking(id));
+        }
+        service = new InvoiceBatchService(dir.toString(), 2, 2, Duration.ofMinutes(2), meterRegistry);
+        ReflectionTestUtils.setField(service, "bookingRepository", bookingRepository);
+        ReflectionTestUtils.setField(service, "invoiceBatchRepository", invoiceBatchRepository);
+        ReflectionTestUtils.setField(service, "invoiceRepository", invoiceRepository);
+        ReflectionTestUtils.setField(service, "invoiceRenderer", invoiceRenderer);
+        ReflectionTestUtils.setField(service, "invoiceNumberService", invoiceNumberService);
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(service, "transactionTemplate", new TransactionTemplate(mock(PlatformTransactionManager.class)));
+
+        when(bookingRepository.countBillable(any(), anyCollection(), any(), any())).thenReturn((long) BOOKINGS);
+        when(bookingRepository.findBillableAfter(eq(BookingDurationType.MONTHLY), anyCollection(), any(), any(), anyLong(), any()))
+            .thenAnswer(invocation -> {
+                long afterId = invocation.getArgument(4);
+                Pageable page = invocation.getArgument(5);
+                checkpointsRead.add(afterId);
+                return bookings.stream().filter(b -> b.getId() > afterId).limit(page.getPageSize()).toList();
+            });
+        when(invoiceRenderer.loadAll(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            if (loads.getAndIncrement() == failingLoad) {
+                throw new IllegalStateException("connection reset");
+            }
+            bookingsLoaded.addAll(ids);
+            return ids.stream().collect(Collectors.toMap(id -> id,
+                id -> new InvoiceData(bookings.get((int) (id - 1)), "Guest " + id, "101", null, List.of())));
+        });
+        when(invoiceNumberService.next(any(LocalDate.class), anyInt())).thenAnswer(invocation -> {
+            int count = invocation.getArgument(1);
+            List<String> numbers = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                numbers.add(String.format("INV-202609-%06d", numbersDrawn.incrementAndGet()));
+            }
+            return numbers;
+        });
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+            .thenAnswer(invocation -> insert(invocation.getArgument(1), invocation.getArgument(3)));
+        when(invoiceRepository.findNumbersByBillingPeriod(eq(PERIOD.toString()), anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(1);
+            return rows(ids);
+        });
+        when(invoiceRepository.findNumbersByBillingPeriod(PERIOD.toString())).thenAnswer(invocation -> rows(invoices.keySet()));
+
+        when(invoiceBatchRepository.findByPeriod(PERIOD.toString())).thenAnswer(invocation -> Optional.ofNullable(stored));
+        when(invoiceBatchRepository.findById(7L)).thenAnswer(invocation -> Optional.ofNullable(stored));
+        when(invoiceBatchRepository.save(any(InvoiceBatch.class))).thenAnswer(invocation -> {
+            InvoiceBatch batch = invocation.getArgument(0);
+            if (batch.getId() == null) {
+                batch.setId(7L);
+            }
+            stored = batch;
+            if (batch.getStatus() != InvoiceBatchStatus.RUNNING && finished != null) {
+                finished.countDown();
+            }
+            return batch;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void failedRunResumesAfterItsLastCheckpoint() throws Exception {
+        // First run: chunk [1, 2] commits, then loading [3, 4] fails
+        failingLoad = 1;
+        InvoiceBatchProgress first = awaitRun();
+        assertThat(first.status()).isEqualTo(InvoiceBatchStatus.FAILED);
+        assertThat(stored.getLastBookingId()).isEqualTo(2L);
+        assertThat(stored.getProcessedBookings()).isEqualTo(2);
+        assertThat(invoices).containsOnlyKeys(1L, 2L);
+
+        // Booking 3 is invoiced for the period by hand before the batch is restarted
+        invoices.put(3L, "INV-MANUAL-3");
+        checkpointsRead.clear();
+        bookingsLoaded.clear();
+
+        InvoiceBatchProgress resumed = awaitRun();
+
+        assertThat(resumed.status()).isEqualTo(InvoiceBatchStatus.SUCCEEDED);
+        assertThat(checkpointsRead).containsExactly(2L, 4L, 5L);
+        assertThat(bookingsLoaded).containsExactly(3L, 4L, 5L);
+        assertThat(invoices).containsOnlyKeys(1L, 2L, 3L, 4L, 5L).containsEntry(3L, "INV-MANUAL-3");
+        assertThat(numbersDrawn).hasValue(4);
+        assertThat(stored.getProcessedBookings()).isEqualTo(BOOKINGS);
+        assertThat(stored.getCreatedInvoices()).isEqualTo(4);
+        // Created rows only: the chunk sizes add up to 5
+        assertThat(meterRegistry.get("invoice.batch.invoices").counter().count()).isEqualTo(4);
+
+        try (ZipFile zip = new ZipFile(stored.getZipPath())) {
+            assertThat(Collections.list(zip.entries())).extracting(ZipEntry::getName).containsExactly(
+                "INV-202609-000001.pdf", "INV-202609-000002.pdf", "INV-202609-000003.pdf",
+                "INV-202609-000004.pdf", "INV-MANUAL-3.pdf");
+        }
+    }
+
+    @Test
+    void stalledRunIsResumedFromItsCheckpoint() throws Exception {
+        invoices.put(1L, "INV-202609-000001");
+        invoices.put(2L, "INV-202609-000002");
+        numbersDrawn.set(2);
+        stored = new InvoiceBatch();
+        stored.setId(7L);
+        stored.setPeriod(PERIOD.toString());
+        stored.setStatus(InvoiceBatchStatus.RUNNING);
+        stored.setTotalBookings(BOOKINGS);
+        stored.setProcessedBookings(2);
+        stored.setCreatedInvoices(2);
+        stored.setLastBookingId(2L);
+        // The instance running it died; its lease ran out
+        stored.setHeartbeatAt(LocalDateTime.now().minusMinutes(10));
+        when(invoiceBatchRepository.findByStatus(InvoiceBatchStatus.RUNNING)).thenReturn(List.of(stored));
+
+        finished = new CountDownLatch(1);
+        service.resumeStalled();
+        assertThat(finished.await(30, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(stored.getStatus()).isEqualTo(InvoiceBatchStatus.SUCCEEDED);
+        assertThat(checkpointsRead).containsExactly(2L, 4L, 5L);
+        assertThat(bookingsLoaded).doesNotContain(1L, 2L);
+        assertThat(invoices).hasSize(BOOKINGS);
+        assertThat(stored.getCreatedInvoices()).isEqualTo(BOOKINGS);
+        assertThat(meterRegistry.get("invoice.batch.invoices").counter().count()).isEqualTo(3);
+    }
+
+    private InvoiceBatchProgress awaitRun() throws InterruptedException {
+        finished = new CountDownLatch(1);
+        service.start(PERIOD);
+        assertThat(finished.await(30, TimeUnit.SECONDS)).isTrue();
+        // The final save lands just before the run releases its period; a restart before that is a no-op
+        ThreadPoolExecutor runner = (ThreadPoolExecutor) ReflectionTestUtils.getField(service, "runner");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (runner.getActiveCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        return service.progress(PERIOD).orElseThrow();
+    }
+
+    // INSERT ... ON CONFLICT (booking_id, billing_period) DO NOTHING against the invoices map
+    private int[][] insert(Collection<Object> rows, ParameterizedPreparedStatementSetter<Object> setter) throws SQLException {
+        int[] counts = new int[rows.size()];
+        int i = 0;
+        for (Object row : rows) {
+            PreparedStatement statement = mock(PreparedStatement.class);
+            setter.setValues(statement, row);
+            ArgumentCaptor<Long> bookingId = ArgumentCaptor.forClass(Long.class);
+            ArgumentCaptor<String> number = ArgumentCaptor.forClass(String.class);
+            verify(statement).setLong(eq(1), bookingId.capture());
+            verify(statement).setString(eq(2), number.capture());
+            counts[i++] = invoices.putIfAbsent(bookingId.getValue(), number.getValue()) == null ? 1 : 0;
+        }
+        return new int[][] {counts};
+    }
+
+    private List<Object[]> rows(Collection<Long> bookingIds) {
+        List<Object[]> rows = new ArrayList<>();
+        for (Long id : bookingIds) {
+            String number = invoices.get(id);
+            if (number != null) {
+                rows.add(new Object[] {id, number});
+            }
+        }
+        return rows;
+    }
+
+    private static Booking booking(long id) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setCustomerPhoneNumber("90000000" + String.format("%02d", id));
+        booking.setRoomId(id);
+        booking.setCheckInDate(PERIOD.atDay(1).atStartOfDay());
+        booking.setCheckOutDate(PERIOD.plusMonths(1).atDay(1).atStartOfDay());
+        booking.setBookingDurationType(BookingDurationType.MONTHLY);
+        booking.setBookingStatus(BookingStatus.CONFIRMED);
+        booking.setMonthlyCost(new BigDecimal("12000"));
+        booking.setTotalAmount(new BigDecimal("12000"));
+        return booking;
+    }
+}
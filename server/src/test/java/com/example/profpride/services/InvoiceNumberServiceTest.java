@@ -0,0 +1,156 @@
+package com.example.profpride.services;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class InvoiceNumberServiceTest {
+
+    private static final LocalDate DATE = LocalDate.of(2026, 9, 5);
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    // What each nextval returns, with the sequence's increment_by at the time
+    private final Deque<long[]> nextvals = new ArrayDeque<>();
+    private final AtomicInteger roundTrips = new AtomicInteger();
+
+    @Test
+    void firstBlockOfAFreshSequenceStartsAtOne() throws Exception {
+        InvoiceNumberService service = service("{seq}", 1);
+        nextval(50, 50);
+        nextval(100, 50);
+
+        assertThat(values(service, 50)).isEqualTo(LongStream.rangeClosed(1, 50).boxed().toList());
+        assertThat(roundTrips).hasValue(1);
+        assertThat(service.next(DATE)).isEqualTo("51");
+        assertThat(roundTrips).hasValue(2);
+    }
+
+    @Test
+    void blockTakenByAnotherInstanceIsSkipped() throws Exception {
+        InvoiceNumberService service = service("{seq}", 1);
+        nextval(50, 50);
+        // Another instance drew 51..100 in between
+        nextval(150, 50);
+
+        List<Long> values = values(service, 51);
+
+        assertThat(values.get(49)).isEqualTo(50L);
+        assertThat(values.get(50)).isEqualTo(101L);
+    }
+
+    @Test
+    void blockFollowsTheSequencesCurrentIncrement() throws Exception {
+        InvoiceNumberService service = service("{seq}", 1);
+        nextval(60, 10);
+        nextval(70, 10);
+
+        assertThat(values(service, 11)).containsExactly(51L, 52L, 53L, 54L, 55L, 56L, 57L, 58L, 59L, 60L, 61L);
+        assertThat(roundTrips).hasValue(2);
+    }
+
+    @Test
+    void blockNeverStartsBelowOne() throws Exception {
+        // A sequence restarted lower than its increment
+        InvoiceNumberService service = service("{seq}", 1);
+        nextval(20, 50);
+
+        assertThat(values(service, 20)).isEqualTo(LongStream.rangeClosed(1, 20).boxed().toList());
+    }
+
+    @Test
+    void oneCallSpansSeveralBlocks() throws Exception {
+        InvoiceNumberService service = service("INV-{seq}", 3);
+        nextval(50, 50);
+        nextval(100, 50);
+        nextval(150, 50);
+
+        List<String> numbers = service.next(DATE, 120);
+
+        assertThat(numbers).hasSize(120).doesNotHaveDuplicates();
+        assertThat(numbers.get(0)).isEqualTo("INV-001");
+        assertThat(numbers.get(119)).isEqualTo("INV-120");
+        assertThat(roundTrips).hasValue(3);
+    }
+
+    @Test
+    void missingSequenceFailsInsteadOfReusingNumbers() throws Exception {
+        InvoiceNumberService service = service("{seq}", 1);
+
+        assertThatThrownBy(() -> service.next(DATE))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("V5");
+        assertThatThrownBy(() -> service.next(DATE)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @ParameterizedTest(name = "{0} with {1} digits -> {3}")
+    @CsvSource(delimiter = '|', value = {
+        "INV-{yyyy}{MM}-{seq}   | 6 | 1       | INV-202609-000001",
+        "{yy}/{MM}/{dd}-{seq}   | 3 | 42      | 26/09/05-042",
+        "{seq}                  | 1 | 7       | 7",
+        "INV-{seq}              | 6 | 1234567 | INV-1234567",
+        "INV}{seq}{dd}          | 2 | 5       | INV}0505",
+        "{seq}                  | 0 | 10      | 10"
+    })
+    void formatsPlaceholdersWithPadding(String format, int minDigits, long value, String expected) throws Exception {
+        InvoiceNumberService service = service(format, minDigits);
+        nextval(value, 1);
+
+        assertThat(service.next(DATE)).isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"INV-{yyyy}", "INV-{seq}-{hh}", "INV-{seq", "INV-{}{seq}"})
+    void rejectsBadFormats(String format) {
+        assertThatThrownBy(() -> new InvoiceNumberService(format, 6)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private InvoiceNumberService service(String format, int minDigits) throws Exception {
+        InvoiceNumberService service = new InvoiceNumberService(format, minDigits);
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+        doAnswer(invocation -> {
+            roundTrips.incrementAndGet();
+            long[] row = nextvals.poll();
+            if (row != null) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getLong(1)).thenReturn(row[0]);
+                when(rs.getLong(2)).thenReturn(row[1]);
+                invocation.<RowCallbackHandler>getArgument(1).processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+        return service;
+    }
+
+    private void nextval(long value, long increment) {
+        nextvals.add(new long[] {value, increment});
+    }
+
+    private static List<Long> values(InvoiceNumberService service, int count) {
+        List<Long> values = new ArrayList<>(count);
+        for (String number : service.next(DATE, count)) {
+            values.add(Long.parseLong(number));
+        }
+        return values;
+    }
+}
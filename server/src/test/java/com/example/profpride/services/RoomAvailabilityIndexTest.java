@@ -0,0 +1,210 @@
+package com.example.profpride.services;
+
+import com.example.profpride.enums.BookingStatus;
+import com.example.profpride.listeners.BookingEntityListener;
+import com.example.profpride.models.Booking;
+import com.example.profpride.models.Room;
+import com.example.profpride.repositories.BookingRepository;
+import com.example.profpride.repositories.RoomRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RoomAvailabilityIndexTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 10, 1);
+
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final RoomRepository roomRepository = mock(RoomRepository.class);
+    private final List<BookingRepository.BookingSpan> spans = new ArrayList<>();
+    private RoomAvailabilityIndex index;
+
+    // A blocking booking as findByBookingStatusIn returns it
+    private record Span(Long id, Long roomId, LocalDateTime checkIn, LocalDateTime checkOut)
+            implements BookingRepository.BookingSpan {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public Long getRoomId() {
+            return roomId;
+        }
+
+        @Override
+        public LocalDateTime getCheckInDate() {
+            return checkIn;
+        }
+
+        @Override
+        public LocalDateTime getCheckOutDate() {
+            return checkOut;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        index = new RoomAvailabilityIndex();
+        ReflectionTestUtils.setField(index, "bookingRepository", bookingRepository);
+        ReflectionTestUtils.setField(index, "roomRepository", roomRepository);
+        when(roomRepository.findAll()).thenReturn(List.of(room(1L), room(2L)));
+        when(bookingRepository.findByBookingStatusIn(any())).thenAnswer(invocation -> new ArrayList<>(spans));
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void stayEndingAsAnotherBeginsDoesNotOverlap() {
+        RoomAvailabilityIndex.RoomSchedule schedule = RoomAvailabilityIndex.RoomSchedule.EMPTY.with(1L, 10, 20);
+
+        assertThat(schedule.overlaps(20, 30)).isFalse();
+        assertThat(schedule.overlaps(0, 10)).isFalse();
+        assertThat(schedule.overlaps(19, 30)).isTrue();
+        assertThat(schedule.overlaps(0, 11)).isTrue();
+        assertThat(schedule.overlaps(12, 15)).isTrue();
+        assertThat(schedule.overlaps(0, 40)).isTrue();
+        assertThat(schedule.overlaps(10, 20)).isTrue();
+        assertThat(RoomAvailabilityIndex.RoomSchedule.EMPTY.overlaps(0, 40)).isFalse();
+    }
+
+    @Test
+    void longStayEarlierInTheScheduleStillBlocksLaterProbes() {
+        // Sorted by start, the long stay comes first and only maxEnd remembers it reaches past [30, 40)
+        RoomAvailabilityIndex.RoomSchedule schedule = RoomAvailabilityIndex.RoomSchedule.EMPTY
+            .with(2L, 30, 40)
+            .with(1L, 0, 100)
+            .with(3L, 10, 20);
+
+        assertThat(schedule.overlaps(50, 60)).isTrue();
+        assertThat(schedule.overlaps(100, 110)).isFalse();
+
+        RoomAvailabilityIndex.RoomSchedule withoutLongStay = schedule.without(1L);
+        assertThat(withoutLongStay.overlaps(50, 60)).isFalse();
+        assertThat(withoutLongStay.overlaps(20, 30)).isFalse();
+        assertThat(withoutLongStay.overlaps(35, 60)).isTrue();
+        assertThat(withoutLongStay.without(99L)).isSameAs(withoutLongStay);
+    }
+
+    @Test
+    void loadsOnFirstSearchOnlyAndAgainAfterInvalidate() {
+        spans.add(new Span(10L, 1L, at(0, 14), at(2, 11)));
+        // Nothing is loaded yet, so events are ignored rather than applied to an empty index
+        index.onBookingSaved(booking(11L, 2L, 0, 2, BookingStatus.CONFIRMED));
+        verify(roomRepository, never()).findAll();
+        assertThat(index.isLoaded()).isFalse();
+
+        assertThat(roomIds(index.findAvailableRooms(at(1, 14), at(3, 11)))).containsExactly(2L);
+        assertThat(roomIds(index.findAvailableRooms(at(2, 14), at(3, 11)))).containsExactly(1L, 2L);
+        verify(roomRepository, times(1)).findAll();
+        verify(bookingRepository, times(1)).findByBookingStatusIn(BookingStatus.BLOCKING);
+
+        spans.add(new Span(11L, 2L, at(0, 14), at(2, 11)));
+        index.invalidate();
+        assertThat(index.findAvailableRooms(at(1, 14), at(3, 11))).isEmpty();
+        verify(roomRepository, times(2)).findAll();
+    }
+
+    @Test
+    void bookingUpdatesMoveAndReleaseTheirSlot() {
+        index.findAvailableRooms(at(0, 14), at(1, 11));
+
+        Booking booking = booking(10L, 1L, 0, 2, BookingStatus.CONFIRMED);
+        index.onBookingSaved(booking);
+        assertThat(roomIds(index.findAvailableRooms(at(1, 14), at(2, 11)))).containsExactly(2L);
+
+        // Moved to another room and later dates: the old slot is free again
+        index.onBookingSaved(booking(10L, 2L, 5, 7, BookingStatus.CONFIRMED));
+        assertThat(roomIds(index.findAvailableRooms(at(1, 14), at(2, 11)))).containsExactly(1L, 2L);
+        assertThat(roomIds(index.findAvailableRooms(at(6, 14), at(7, 11)))).containsExactly(1L);
+
+        index.onBookingSaved(booking(10L, 2L, 5, 7, BookingStatus.CANCELLED));
+        assertThat(roomIds(index.findAvailableRooms(at(6, 14), at(7, 11)))).containsExactly(1L, 2L);
+
+        index.onBookingSaved(booking(10L, 2L, 5, 7, BookingStatus.CHECKEDIN));
+        index.onBookingDeleted(10L);
+        assertThat(roomIds(index.findAvailableRooms(at(6, 14), at(7, 11)))).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void listenerAppliesWritesOnlyOnceCommitted() {
+        spans.add(new Span(10L, 1L, at(0, 14), at(2, 11)));
+        index.findAvailableRooms(at(0, 14), at(1, 11));
+        BookingEntityListener listener = listener();
+
+        TransactionSynchronizationManager.initSynchronization();
+        listener.afterSave(booking(10L, 1L, 5, 7, BookingStatus.CONFIRMED));
+        // Flushed but not committed: searches still see the stay where it was
+        assertThat(roomIds(index.findAvailableRooms(at(1, 14), at(2, 11)))).containsExactly(2L);
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        TransactionSynchronizationManager.clearSynchronization();
+        assertThat(roomIds(index.findAvailableRooms(at(1, 14), at(2, 11)))).containsExactly(1L, 2L);
+        assertThat(roomIds(index.findAvailableRooms(at(6, 14), at(7, 11)))).containsExactly(2L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        listener.afterDelete(booking(10L, 1L, 5, 7, BookingStatus.CONFIRMED));
+        assertThat(roomIds(index.findAvailableRooms(at(6, 14), at(7, 11)))).containsExactly(2L);
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        assertThat(roomIds(index.findAvailableRooms(at(6, 14), at(7, 11)))).containsExactly(1L, 2L);
+    }
+
+    private BookingEntityListener listener() {
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        beans.registerSingleton("roomAvailabilityIndex", index);
+        beans.registerSingleton("dailySnapshotService", mock(DailySnapshotService.class));
+        beans.registerSingleton("invoicePdfService", mock(InvoicePdfService.class));
+        BookingEntityListener listener = new BookingEntityListener();
+        ReflectionTestUtils.setField(listener, "availabilityIndex", beans.getBeanProvider(RoomAvailabilityIndex.class));
+        ReflectionTestUtils.setField(listener, "dailySnapshotService", beans.getBeanProvider(DailySnapshotService.class));
+        ReflectionTestUtils.setField(listener, "invoicePdfService", beans.getBeanProvider(InvoicePdfService.class));
+        return listener;
+    }
+
+    // Guests arrive at 14:00 and leave at 11:00
+    private static LocalDateTime at(int day, int hour) {
+        return DAY.plusDays(day).atTime(hour, 0);
+    }
+
+    private static Booking booking(Long id, Long roomId, int checkInDay, int checkOutDay, BookingStatus status) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setRoomId(roomId);
+        booking.setCheckInDate(at(checkInDay, 14));
+        booking.setCheckOutDate(at(checkOutDay, 11));
+        booking.setBookingStatus(status);
+        return booking;
+    }
+
+    private static Room room(Long id) {
+        Room room = new Room();
+        room.setId(id);
+        return room;
+    }
+
+    private static List<Long> roomIds(List<Room> rooms) {
+        return rooms.stream().map(Room::getId).toList();
+    }
+}
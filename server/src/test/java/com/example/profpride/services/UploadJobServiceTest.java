@@ -0,0 +1,38 @@
+package com.example.profpride.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UploadJobServiceTest {
+
+    @TempDir
+    Path stagingDir;
+
+    @Test
+    void sweepDeletesOnlyStagedFilesOlderThanTwiceTheRetention() throws Exception {
+        Path orphan = Files.writeString(stagingDir.resolve("orphan.jpg"), "left by a previous process");
+        Files.setLastModifiedTime(orphan, FileTime.from(Instant.now().minus(Duration.ofHours(3))));
+        Path recent = Files.writeString(stagingDir.resolve("recent.jpg"), "may belong to a live job");
+        Files.setLastModifiedTime(recent, FileTime.from(Instant.now().minus(Duration.ofMinutes(90))));
+
+        UploadJobService service = new UploadJobService(stagingDir.toString(), 1, 10, 3,
+            Duration.ofSeconds(2), Duration.ofHours(1), new SimpleMeterRegistry());
+        try {
+            service.sweepStaging();
+
+            assertThat(orphan).doesNotExist();
+            assertThat(recent).exists();
+        } finally {
+            service.shutdown();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.profpride.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HtmlTemplateTest {
+
+    @Test
+    void fillsEverySlotIncludingRepeats() {
+        HtmlTemplate template = HtmlTemplate.compile("<td>{{name}}</td><td>{{amount}}</td><td>{{amount}}</td>");
+
+        String html = render(template.values().text("name", "Room 101").text("amount", 1200));
+
+        assertThat(html).isEqualTo("<td>Room 101</td><td>1200</td><td>1200</td>");
+    }
+
+    @Test
+    void escapesTextValues() {
+        HtmlTemplate template = HtmlTemplate.compile("<p>{{remarks}}</p>");
+
+        String html = render(template.values().text("remarks", "<script>alert(\"Tom & Jerry's\")</script>"));
+
+        assertThat(html).isEqualTo("<p>&lt;script&gt;alert(&quot;Tom &amp; Jerry&#39;s&quot;)&lt;/script&gt;</p>");
+    }
+
+    @Test
+    void keepsNonAsciiTextAsUtf8() {
+        HtmlTemplate template = HtmlTemplate.compile("<td>₹{{amount}}</td><td>{{name}}</td>");
+
+        String html = render(template.values().text("amount", "1,200.00").text("name", "Zoë Müller"));
+
+        assertThat(html).isEqualTo("<td>₹1,200.00</td><td>Zoë Müller</td>");
+    }
+
+    @Test
+    void writesHtmlValuesVerbatim() {
+        HtmlTemplate row = HtmlTemplate.compile("<tr><td>{{item}}</td></tr>");
+        HtmlTemplate table = HtmlTemplate.compile("<table>{{rows}}</table>");
+        ByteArrayOutputStream rows = new ByteArrayOutputStream();
+        row.values().text("item", "A & B").renderTo(rows);
+        row.values().text("item", "C").renderTo(rows);
+
+        String html = render(table.values().html("rows", rows.toByteArray()));
+
+        assertThat(html).isEqualTo("<table><tr><td>A &amp; B</td></tr><tr><td>C</td></tr></table>");
+    }
+
+    @Test
+    void unsetAndNullSlotsRenderEmpty() {
+        HtmlTemplate template = HtmlTemplate.compile("[{{first}}|{{second}}]");
+
+        assertThat(render(template.values())).isEqualTo("[|]");
+        assertThat(render(template.values().text("first", null).text("second", "x"))).isEqualTo("[|x]");
+    }
+
+    @Test
+    void leavesTextThatIsNotASlotAlone() {
+        HtmlTemplate template = HtmlTemplate.compile("{{ spaced }} {{1st}} {single} {{ok}}");
+
+        assertThat(render(template.values().text("ok", "yes"))).isEqualTo("{{ spaced }} {{1st}} {single} yes");
+    }
+
+    @Test
+    void templateWithoutSlotsRendersAsIs() {
+        assertThat(render(HtmlTemplate.compile("<hr/>").values())).isEqualTo("<hr/>");
+        assertThat(render(HtmlTemplate.compile("").values())).isEmpty();
+    }
+
+    @Test
+    void valuesOfOneRenderDoNotLeakIntoTheNext() {
+        HtmlTemplate template = HtmlTemplate.compile("<b>{{name}}</b>");
+
+        assertThat(render(template.values().text("name", "first"))).isEqualTo("<b>first</b>");
+        assertThat(render(template.values())).isEqualTo("<b></b>");
+    }
+
+    @Test
+    void rejectsUnknownSlots() {
+        HtmlTemplate template = HtmlTemplate.compile("<b>{{name}}</b>");
+
+        assertThatThrownBy(() -> template.values().text("nmae", "typo"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("nmae");
+    }
+
+    @Test
+    void loadsTemplatesFromTheClasspath() {
+        HtmlTemplate chargeRow = HtmlTemplate.load("invoice/charge-row.html");
+
+        String html = render(chargeRow.values().text("description", "Room charge").text("amount", "500.00"));
+
+        assertThat(html).contains("<td>Room charge</td>").contains("₹500.00</td><td>₹500.00");
+        assertThatThrownBy(() -> HtmlTemplate.load("invoice/missing.html")).isInstanceOf(UncheckedIOException.class);
+    }
+
+    private static String render(HtmlTemplate.Values values) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        values.renderTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
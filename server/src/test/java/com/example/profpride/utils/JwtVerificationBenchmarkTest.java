@@ -0,0 +1,103 @@
+package com.example.profpride.utils;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Per-request cost of JWT authentication. perRequestBefore is the old filter path: five claim
+ * lookups, each rebuilding the key and re-verifying the signature. firstSight is one verification
+ * with the key and parser built at startup; cached is a repeat request answered from the cache.
+ *
+ * Run with: mvn test -Dgroups=benchmark -DexcludedGroups= -Dtest=JwtVerificationBenchmarkTest
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmarkTest {
+
+    private static final String SECRET = "benchmarkSecretKeyForJWTTokenGeneration1234567890";
+
+    private JwtUtils jwtUtils;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpiration", 3_600_000);
+        ReflectionTestUtils.setField(jwtUtils, "verifiedCacheMaxSize", 10_000L);
+        jwtUtils.init();
+        token = jwtUtils.generateToken("42", "ADMIN", "Benchmark User");
+    }
+
+    @Benchmark
+    public void perRequestBefore(Blackhole blackhole) {
+        // isTokenValid, isTokenExpired, extractUserId, extractRole, extractName
+        for (int i = 0; i < 5; i++) {
+            Claims claims = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+            blackhole.consume(claims);
+        }
+    }
+
+    @Benchmark
+    public Claims firstSight() {
+        return jwtUtils.extractAllClaims(token);
+    }
+
+    @Benchmark
+    public Object cached() {
+        return jwtUtils.verify(token);
+    }
+
+    @Test
+    void verifyingOnceAndCachingBeatsTheOldPath() throws Exception {
+        Collection<RunResult> results = new Runner(new OptionsBuilder()
+            .include(JwtVerificationBenchmarkTest.class.getName() + "\\.")
+            .build()).run();
+
+        Map<String, Double> microsPerRequest = new HashMap<>();
+        for (RunResult result : results) {
+            String label = result.getParams().getBenchmark();
+            microsPerRequest.put(label.substring(label.lastIndexOf('.') + 1), result.getPrimaryResult().getScore());
+        }
+        System.out.printf("JWT per request (us): before=%.2f firstSight=%.2f cached=%.2f%n",
+            microsPerRequest.get("perRequestBefore"), microsPerRequest.get("firstSight"), microsPerRequest.get("cached"));
+
+        assertThat(microsPerRequest.get("firstSight")).isLessThan(microsPerRequest.get("perRequestBefore"));
+        assertThat(microsPerRequest.get("cached")).isLessThan(microsPerRequest.get("firstSight"));
+    }
+}
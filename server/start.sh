@@ -71,8 +71,15 @@ fi
 PORT=${PORT:-10000}
 echo "Starting app on port $PORT..."
 
+# With virtual threads on, report any carrier pinning (synchronized around blocking I/O) in the logs
+VIRTUAL_THREAD_OPTS=""
+if [ "$VIRTUAL_THREADS_ENABLED" = "true" ]; then
+    VIRTUAL_THREAD_OPTS="-Djdk.tracePinnedThreads=short"
+fi
+
 # Start Spring Boot with JVM optimizations for faster startup
 java -Dserver.port=$PORT \
+     $VIRTUAL_THREAD_OPTS \
      -XX:+UseG1GC \
      -XX:+UseStringDeduplication \
      -XX:+OptimizeStringConcat \
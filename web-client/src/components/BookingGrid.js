@@ -18,82 +18,38 @@ const BookingGrid = () => {
   const fetchBookingData = async () => {
     try {
       setLoading(true);
-      const [bookingsRes, roomsRes, customersRes] = await Promise.all([
-        api.get('/bookings'),
-        api.get('/rooms'),
-        api.get('/customer')
-      ]);
-      
-      const bookings = bookingsRes.data;
-      const roomsData = roomsRes.data;
-      const customersData = customersRes.data;
-
-      // Generate dates for the next 30 days starting from yesterday
-      const startDate = new Date();
-      startDate.setDate(startDate.getDate() - 1); // Start from yesterday
-      const endDate = new Date();
-      endDate.setDate(endDate.getDate() + 30);
-      const allDates = [];
-      
-      for (let d = new Date(startDate); d <= endDate; d.setDate(d.getDate() + 1)) {
-        allDates.push(new Date(d).toISOString().split('T')[0]);
-      }
+      // The server builds the room x day matrix (yesterday through the next 30 days by default)
+      const response = await api.get('/bookings/grid');
+      const { dates: allDates, rooms: roomsData, cells, bookings } = response.data;
       setDates(allDates);
+      setRooms(roomsData);
 
-      // Get unique room IDs from bookings, sorted by room ID
-      const uniqueRoomIds = [...new Set(bookings.map(booking => booking.roomId).filter(Boolean))].sort();
-      
-      // Create room mapping for display
-      const roomMap = {};
-      roomsData.forEach(room => {
-        roomMap[room.id] = room;
-      });
-      
-      // Create customer mapping for display
-      const customerMap = {};
-      customersData.forEach(customer => {
-        customerMap[customer.phoneNumber] = customer;
-      });
-      
-      // Store room objects instead of just IDs for better display
-      const roomsWithData = uniqueRoomIds.map(roomId => roomMap[roomId]).filter(Boolean);
-      setRooms(roomsWithData);
-
-      // Create grid data
-      const grid = roomsWithData.map(room => {
-        return allDates.map(date => {
-          const booking = bookings.find(b => 
-            b.roomId === room.id &&
-            new Date(b.checkInDate) <= new Date(date) &&
-            new Date(b.checkOutDate) > new Date(date) &&
-            b.bookingStatus !== 'CANCELLED'
-          );
-          
-          const customer = booking ? customerMap[booking.customerPhoneNumber] : null;
-          const customerName = customer ? customer.name : (booking ? `Customer ${booking.customerPhoneNumber}` : '');
-          
-          return {
-            name: customerName,
+      // Expand each room's run-length encoded row: [bookingId, runLength, ...], bookingId 0 = free
+      const grid = roomsData.map((room, roomIndex) => {
+        const runs = cells[roomIndex];
+        const row = [];
+        for (let i = 0; i < runs.length; i += 2) {
+          const booking = runs[i] ? bookings[runs[i]] : null;
+          const cell = {
+            name: booking ? booking.customerName : '',
             bookingStatus: booking ? booking.bookingStatus : '',
             bookingId: booking ? booking.id : null,
-            customer: customer || (booking ? { phoneNumber: booking.customerPhoneNumber } : null),
+            customer: booking ? {
+              name: booking.customerName,
+              phoneNumber: booking.customerPhoneNumber,
+              email: booking.customerEmail
+            } : null,
             room: room,
-            booking: booking // Include the full booking object
+            booking: booking
           };
-        });
+          for (let j = 0; j < runs[i + 1]; j++) {
+            row.push(cell);
+          }
+        }
+        return row;
       });
-      
+
       setGridData(grid);
-      
-      // Debug information
-      console.log('Booking Grid Debug:', {
-        totalBookings: bookings.length,
-        totalRooms: roomsData.length,
-        totalCustomers: customersData.length,
-        uniqueRooms: uniqueRoomIds,
-        dateRange: `${allDates[0]} to ${allDates[allDates.length - 1]}`,
-        gridData: grid
-      });
     } catch (error) {
       console.error('Error fetching booking data:', error);
     } finally {
@@ -1,5 +1,5 @@
 import React, { useState, useEffect } from 'react';
-import api from '../config/api';
+import api, { getAllPages } from '../config/api';
 import './BookingRequestsScreen.css';
 
 const BookingRequestsScreen = () => {
@@ -16,7 +16,7 @@ const BookingRequestsScreen = () => {
   const fetchBookingRequests = async () => {
     setLoading(true);
     try {
-      const response = await api.get('/booking-requests');
+      const response = await getAllPages('/booking-requests');
       setBookingRequests(Array.isArray(response.data) ? response.data : []);
     } catch (error) {
       console.error('Error fetching booking requests:', error);
@@ -2,16 +2,24 @@ import React, { useState, useEffect } from 'react';
 // import DatePicker from 'react-datepicker';
 // import 'react-datepicker/dist/react-datepicker.css';
 import { useNavigate } from 'react-router-dom';
-import api from '../config/api';
+import api, { getPage } from '../config/api';
 import { toLocalDateTimeString, fromLocalDateTimeString, formatDateForDisplay, toLocalDateString, getTodayDateString } from '../utils/dateUtils';
 import './BookingScreen.css';
 
+const BOOKINGS_PAGE_SIZE = 50;
+const CUSTOMER_OPTIONS_LIMIT = 20;
+
 const BookingScreen = () => {
   const navigate = useNavigate();
   const [bookings, setBookings] = useState([]);
+  const [nextCursor, setNextCursor] = useState(undefined);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [rooms, setRooms] = useState([]);
   const [roomConfigurations, setRoomConfigurations] = useState([]);
-  const [customers, setCustomers] = useState([]);
+  // Customers seen so far, by phone number; filled per page of bookings and by the picker search
+  const [customersByPhone, setCustomersByPhone] = useState({});
+  const [customerOptions, setCustomerOptions] = useState([]);
+  const [customerQuery, setCustomerQuery] = useState('');
   const [loading, setLoading] = useState(true);
   const [searchTerm, setSearchTerm] = useState('');
   
@@ -55,39 +63,19 @@ const BookingScreen = () => {
     fetchData();
   }, []);
 
+  // Bookings are paged newest first; later pages load on demand, so the screen never walks the whole table
   const fetchData = async () => {
     setLoading(true);
     try {
-      const [bookingsRes, roomsRes, roomConfigsRes, customersRes] = await Promise.all([
-        api.get('/bookings'),
-        api.get('/rooms'),
-        api.get('/room-configurations'),
-        api.get('/customer')
+      const [bookingsPage, roomsRes] = await Promise.all([
+        getPage('/bookings', { limit: BOOKINGS_PAGE_SIZE, direction: 'DESC' }),
+        api.get('/rooms')
       ]);
-      
-      // Fetch payments for each booking
-      const bookingsWithPayments = await Promise.all(
-        bookingsRes.data.map(async (booking) => {
-          try {
-            const paymentsRes = await api.get(`/payments/booking/${booking.id}`);
-            return {
-              ...booking,
-              payments: paymentsRes.data || []
-            };
-          } catch (error) {
-            console.error(`Error fetching payments for booking ${booking.id}:`, error);
-            return {
-              ...booking,
-              payments: []
-            };
-          }
-        })
-      );
-      
-      setBookings(bookingsWithPayments);
+      const pageBookings = await withPayments(bookingsPage.data);
+      await loadCustomers(pageBookings);
+      setBookings(pageBookings);
+      setNextCursor(bookingsPage.nextCursor);
       setRooms(roomsRes.data);
-      setRoomConfigurations(roomConfigsRes.data);
-      setCustomers(customersRes.data);
     } catch (error) {
       console.error('Error fetching data:', error);
     } finally {
@@ -95,6 +83,103 @@ const BookingScreen = () => {
     }
   };
 
+  const loadMoreBookings = async () => {
+    if (!nextCursor) return;
+    setLoadingMore(true);
+    try {
+      const bookingsPage = await getPage('/bookings', { limit: BOOKINGS_PAGE_SIZE, direction: 'DESC', after: nextCursor });
+      const pageBookings = await withPayments(bookingsPage.data);
+      await loadCustomers(pageBookings);
+      setBookings(prev => [...prev, ...pageBookings]);
+      setNextCursor(bookingsPage.nextCursor);
+    } catch (error) {
+      console.error('Error loading more bookings:', error);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
+  // Fetch payments for each booking on the page
+  const withPayments = (pageBookings) => Promise.all(
+    pageBookings.map(async (booking) => {
+      try {
+        const paymentsRes = await api.get(`/payments/booking/${booking.id}`);
+        return {
+          ...booking,
+          payments: paymentsRes.data || []
+        };
+      } catch (error) {
+        console.error(`Error fetching payments for booking ${booking.id}:`, error);
+        return {
+          ...booking,
+          payments: []
+        };
+      }
+    })
+  );
+
+  // Look up only the customers of the given bookings that are not known yet
+  const loadCustomers = async (pageBookings) => {
+    const phones = [...new Set(pageBookings.map(b => b.customerPhoneNumber))]
+      .filter(phone => phone && !customersByPhone[phone]);
+    const found = await Promise.all(phones.map(async (phone) => {
+      try {
+        const response = await api.get(`/customer/${encodeURIComponent(phone)}`);
+        return response.data;
+      } catch (error) {
+        console.error(`Error fetching customer ${phone}:`, error);
+        return null;
+      }
+    }));
+    rememberCustomers(found.filter(Boolean));
+  };
+
+  const rememberCustomers = (list) => {
+    if (list.length === 0) return;
+    setCustomersByPhone(prev => {
+      const next = { ...prev };
+      list.forEach(customer => { next[customer.phoneNumber] = customer; });
+      return next;
+    });
+  };
+
+  // The customer picker searches by name on the server instead of listing every customer
+  const searchCustomers = async (query) => {
+    setCustomerQuery(query);
+    try {
+      const response = await getPage('/customer', { name: query || undefined, limit: CUSTOMER_OPTIONS_LIMIT });
+      setCustomerOptions(response.data || []);
+      rememberCustomers(response.data || []);
+    } catch (error) {
+      console.error('Error searching customers:', error);
+    }
+  };
+
+  // Configurations are fetched for the selected room only
+  const loadRoomConfigurations = async (roomId) => {
+    if (!roomId) {
+      setRoomConfigurations([]);
+      return [];
+    }
+    try {
+      const response = await api.get(`/room-configurations/room/${roomId}`);
+      const configs = response.data || [];
+      setRoomConfigurations(configs);
+      return configs;
+    } catch (error) {
+      console.error(`Error fetching configurations for room ${roomId}:`, error);
+      setRoomConfigurations([]);
+      return [];
+    }
+  };
+
+  useEffect(() => {
+    if (showBookingModal) {
+      searchCustomers('');
+    }
+    // eslint-disable-next-line react-hooks/exhaustive-deps
+  }, [showBookingModal]);
+
   const handleInputChange = (field, value) => {
     setFormData(prev => {
       const newFormData = {
@@ -123,6 +208,18 @@ const BookingScreen = () => {
       
       return newFormData;
     });
+
+    // A new room's configurations arrive asynchronously; fill the costs once they do
+    if (field === 'roomId') {
+      loadRoomConfigurations(value).then(configs => {
+        setFormData(prev => {
+          const roomConfig = configs.find(config =>
+            config.roomId === parseInt(prev.roomId) && config.personCount === parseInt(prev.numberOfPeople)
+          );
+          return roomConfig ? { ...prev, dailyCost: roomConfig.dailyCost, monthlyCost: roomConfig.monthlyCost } : prev;
+        });
+      });
+    }
   };
 
   const getRoomConfiguration = (roomId, numberOfPeople) => {
@@ -137,7 +234,7 @@ const BookingScreen = () => {
     
     if (!searchTerm) return true;
     // Find customer by phone number
-    const customer = customers.find(c => c.phoneNumber === booking.customerPhoneNumber);
+    const customer = customersByPhone[booking.customerPhoneNumber];
     const customerName = customer?.name?.toLowerCase() || '';
     const phoneNumber = booking.customerPhoneNumber?.toLowerCase() || '';
     const searchLower = searchTerm.toLowerCase();
@@ -232,6 +329,7 @@ const BookingScreen = () => {
     const checkInDate = fromLocalDateTimeString(booking.checkInDate) || new Date();
     const checkOutDate = fromLocalDateTimeString(booking.checkOutDate) || new Date(Date.now() + 24 * 60 * 60 * 1000);
     
+    loadRoomConfigurations(booking.roomId);
     setFormData({
       customerPhoneNumber: booking.customerPhoneNumber || '',
       roomId: booking.roomId || '',
@@ -305,6 +403,7 @@ const BookingScreen = () => {
         amount: parseFloat(paymentData.amount) || 0,
         paymentMethod: paymentData.mode, // This should match PaymentMode enum values
         paymentScreenshotUrl: paymentData.paymentScreenshotUrl || '',
+        paymentScreenshotThumbnailUrl: paymentData.paymentScreenshotThumbnailUrl || '',
         paymentDate: toLocalDateTimeString(paymentDate) // Send as local datetime string, backend will parse it
       };
       
@@ -352,7 +451,8 @@ const BookingScreen = () => {
       amount: payment.amount,
       mode: payment.paymentMethod, // Fixed: use paymentMethod instead of mode
       createdAt: new Date(payment.paymentDate || payment.createdAt), // Fixed: use paymentDate instead of createdAt
-      paymentScreenshotUrl: payment.paymentScreenshotUrl || ''
+      paymentScreenshotUrl: payment.paymentScreenshotUrl || '',
+      paymentScreenshotThumbnailUrl: payment.paymentScreenshotThumbnailUrl || ''
     });
     setShowPaymentModal(true);
   };
@@ -408,7 +508,8 @@ const BookingScreen = () => {
       if (response.data.success) {
         setPaymentData(prev => ({
           ...prev,
-          paymentScreenshotUrl: response.data.fileUrl
+          paymentScreenshotUrl: response.data.fileUrl,
+          paymentScreenshotThumbnailUrl: response.data.thumbnailUrl || ''
         }));
         alert('✅ Payment screenshot uploaded successfully!');
       } else {
@@ -575,7 +676,7 @@ const BookingScreen = () => {
             All Bookings 
             {searchTerm && (
               <span className="text-muted" style={{ fontSize: '14px', fontWeight: 'normal' }}>
-                ({filteredBookings.length} of {bookings.length} shown)
+                ({filteredBookings.length} of {bookings.length} loaded shown)
               </span>
             )}
           </h3>
@@ -589,7 +690,7 @@ const BookingScreen = () => {
             <div className="bookings-list">
               {filteredBookings.map((booking) => {
                 // Find customer and room data
-                const customer = customers.find(c => c.phoneNumber === booking.customerPhoneNumber);
+                const customer = customersByPhone[booking.customerPhoneNumber];
                 const room = rooms.find(r => r.id === booking.roomId);
                 
                 return (
@@ -835,6 +936,13 @@ const BookingScreen = () => {
               })}
             </div>
           )}
+          {nextCursor && (
+            <div style={{ textAlign: 'center', marginTop: '15px' }}>
+              <button className="btn btn-secondary" onClick={loadMoreBookings} disabled={loadingMore}>
+                {loadingMore ? 'Loading...' : 'Load more bookings'}
+              </button>
+            </div>
+          )}
         </div>
       </div>
 
@@ -858,6 +966,14 @@ const BookingScreen = () => {
             <form onSubmit={handleCreateBooking} className="modal-body">
               <div className="form-group">
                 <label className="form-label">Customer</label>
+                <input
+                  type="text"
+                  className="form-control"
+                  placeholder="Search customers by name..."
+                  value={customerQuery}
+                  onChange={(e) => searchCustomers(e.target.value)}
+                  style={{ marginBottom: '8px' }}
+                />
                 <select
                   className="form-control"
                   value={formData.customerPhoneNumber}
@@ -865,7 +981,12 @@ const BookingScreen = () => {
                   required
                 >
                   <option value="">Select Customer</option>
-                  {customers.map(customer => (
+                  {formData.customerPhoneNumber && !customerOptions.some(c => c.phoneNumber === formData.customerPhoneNumber) && (
+                    <option value={formData.customerPhoneNumber}>
+                      {customersByPhone[formData.customerPhoneNumber]?.name || 'Current customer'} - {formData.customerPhoneNumber}
+                    </option>
+                  )}
+                  {customerOptions.map(customer => (
                     <option key={customer.phoneNumber} value={customer.phoneNumber}>
                       {customer.name} - {customer.phoneNumber}
                     </option>
@@ -1201,7 +1322,7 @@ const BookingScreen = () => {
                 {paymentData.paymentScreenshotUrl && (
                   <div style={{ marginTop: '10px' }}>
                     <img 
-                      src={paymentData.paymentScreenshotUrl} 
+                      src={paymentData.paymentScreenshotThumbnailUrl || paymentData.paymentScreenshotUrl} 
                       alt="Payment Screenshot" 
                       style={{ 
                         maxWidth: '200px', 
@@ -1232,7 +1353,7 @@ const BookingScreen = () => {
                       </button>
                       <button 
                         type="button"
-                        onClick={() => setPaymentData({...paymentData, paymentScreenshotUrl: ''})}
+                        onClick={() => setPaymentData({...paymentData, paymentScreenshotUrl: '', paymentScreenshotThumbnailUrl: ''})}
                         style={{ 
                           padding: '4px 8px', 
                           fontSize: '12px', 
@@ -1281,7 +1402,7 @@ const BookingScreen = () => {
             </div>
             <div className="modal-body">
               {(() => {
-                const customer = customers.find(c => c.phoneNumber === selectedBooking.customerPhoneNumber);
+                const customer = customersByPhone[selectedBooking.customerPhoneNumber];
                 const room = rooms.find(r => r.id === selectedBooking.roomId);
                 const breakdown = calculatePaymentBreakdown(selectedBooking);
                 
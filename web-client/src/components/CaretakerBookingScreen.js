@@ -1,6 +1,6 @@
 import React, { useState, useEffect } from 'react';
 import { useNavigate } from 'react-router-dom';
-import api from '../config/api';
+import api, { getAllPages } from '../config/api';
 import { toLocalDateTimeString, fromLocalDateTimeString, toLocalDateString } from '../utils/dateUtils';
 import './CaretakerBookingScreen.css';
 
@@ -58,10 +58,10 @@ const CaretakerBookingScreen = () => {
     setLoading(true);
     try {
       const [bookingsRes, roomsRes, roomConfigsRes, customersRes] = await Promise.all([
-        api.get('/bookings'),
+        getAllPages('/bookings'),
         api.get('/rooms'),
-        api.get('/room-configurations'),
-        api.get('/customer')
+        getAllPages('/room-configurations'),
+        getAllPages('/customer')
       ]);
       setBookings(bookingsRes.data);
       setRooms(roomsRes.data);
@@ -223,6 +223,7 @@ const CaretakerBookingScreen = () => {
         amount: parseFloat(paymentData.amount) || 0,
         paymentMethod: paymentData.mode, // This should match PaymentMode enum values
         paymentScreenshotUrl: paymentData.paymentScreenshotUrl || '',
+        paymentScreenshotThumbnailUrl: paymentData.paymentScreenshotThumbnailUrl || '',
         paymentDate: toLocalDateTimeString(paymentDate) // Send as local datetime string, backend will parse it
       };
       
@@ -259,7 +260,8 @@ const CaretakerBookingScreen = () => {
       amount: payment.amount,
       mode: payment.mode,
       createdAt: new Date(payment.createdAt),
-      paymentScreenshotUrl: payment.paymentScreenshotUrl || ''
+      paymentScreenshotUrl: payment.paymentScreenshotUrl || '',
+      paymentScreenshotThumbnailUrl: payment.paymentScreenshotThumbnailUrl || ''
     });
     setShowPaymentModal(true);
   };
@@ -302,7 +304,8 @@ const CaretakerBookingScreen = () => {
       if (response.data.success) {
         setPaymentData(prev => ({
           ...prev,
-          paymentScreenshotUrl: response.data.fileUrl
+          paymentScreenshotUrl: response.data.fileUrl,
+          paymentScreenshotThumbnailUrl: response.data.thumbnailUrl || ''
         }));
         alert('✅ Payment screenshot uploaded successfully!');
       } else {
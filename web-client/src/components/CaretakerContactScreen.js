@@ -1,5 +1,5 @@
 import React, { useState, useEffect } from 'react';
-import api from '../config/api';
+import api, { getAllPages } from '../config/api';
 import './CaretakerContactScreen.css';
 
 const CaretakerContactScreen = () => {
@@ -23,7 +23,7 @@ const CaretakerContactScreen = () => {
 
   const fetchCustomers = async () => {
     try {
-      const response = await api.get('/customer');
+      const response = await getAllPages('/customer');
       setCustomers(response.data);
     } catch (error) {
       console.error('Error fetching customers:', error);
@@ -1,5 +1,9 @@
 import React, { useState, useEffect } from 'react';
-import api from '../config/api';
+import api, { getAllPages } from '../config/api';
+
+// Small previews use the server-generated thumbnail when there is one; clicks still open the full image
+const thumbnailFor = (customer, url) =>
+  (customer.idProofThumbnailUrls && customer.idProofThumbnailUrls[url]) || url;
 
 const ContactScreen = () => {
   const [customers, setCustomers] = useState([]);
@@ -28,7 +32,7 @@ const ContactScreen = () => {
 
   const fetchCustomers = async () => {
     try {
-      const response = await api.get('/customer');
+      const response = await getAllPages('/customer');
       setCustomers(Array.isArray(response.data) ? response.data : []);
     } catch (error) {
       console.error('Error fetching customers:', error);
@@ -391,7 +395,7 @@ const ContactScreen = () => {
                         {customer.idProofSubmitted && (customer.photoIdProofUrl || (customer.idProofUrls && customer.idProofUrls[0])) ? (
                           <div style={{ display: 'flex', alignItems: 'center', gap: '8px' }}>
                             <img 
-                              src={customer.photoIdProofUrl || customer.idProofUrls[0]} 
+                              src={thumbnailFor(customer, customer.photoIdProofUrl || customer.idProofUrls[0])} 
                               alt="ID Proof 1 Preview" 
                               style={{ 
                                 width: '40px', 
@@ -432,7 +436,7 @@ const ContactScreen = () => {
                         {customer.idProofSubmitted && customer.idProofUrls && customer.idProofUrls[1] ? (
                           <div style={{ display: 'flex', alignItems: 'center', gap: '8px' }}>
                             <img 
-                              src={customer.idProofUrls[1]} 
+                              src={thumbnailFor(customer, customer.idProofUrls[1])} 
                               alt="ID Proof 2 Preview" 
                               style={{ 
                                 width: '40px', 
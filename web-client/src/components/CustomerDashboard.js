@@ -1,6 +1,6 @@
 import React, { useState, useEffect, useCallback } from 'react';
 import axios from 'axios';
-import api from '../config/api';
+import api, { getAllPages } from '../config/api';
 import './CustomerDashboard.css';
 
 // Create customer-specific API instance
@@ -37,7 +37,7 @@ const CustomerDashboard = ({ customer, onLogout, onShowRooms, refreshTrigger })
     try {
       const [roomsResponse, configsResponse] = await Promise.all([
         api.get('/rooms'),
-        api.get('/room-configurations')
+        getAllPages('/room-configurations')
       ]);
       
       setRooms(roomsResponse.data || []);
@@ -1,5 +1,5 @@
 import React, { useState, useEffect } from 'react';
-import api from '../config/api';
+import api, { getAllPages } from '../config/api';
 
 const ExpenseScreen = () => {
   const [expenses, setExpenses] = useState([]);
@@ -20,7 +20,7 @@ const ExpenseScreen = () => {
 
   const fetchExpenses = async () => {
     try {
-      const response = await api.get('/expenses');
+      const response = await getAllPages('/expenses');
       setExpenses(Array.isArray(response.data) ? response.data : []);
     } catch (error) {
       console.error('Error fetching expenses:', error);
@@ -1,6 +1,6 @@
 import React, { useState, useEffect } from 'react';
 import { useNavigate } from 'react-router-dom';
-import api from '../config/api';
+import api, { getAllPages } from '../config/api';
 import { toLocalDateTimeString, fromLocalDateTimeString, formatDateForDisplay, toLocalDateString, getTodayDateString } from '../utils/dateUtils';
 import './MobileBookingScreen.css';
 
@@ -58,10 +58,10 @@ const MobileBookingScreen = () => {
     setLoading(true);
     try {
       const [bookingsRes, roomsRes, roomConfigsRes, customersRes] = await Promise.all([
-        api.get('/bookings'),
+        getAllPages('/bookings'),
         api.get('/rooms'),
-        api.get('/room-configurations'),
-        api.get('/customer')
+        getAllPages('/room-configurations'),
+        getAllPages('/customer')
       ]);
       setBookings(bookingsRes.data);
       setRooms(roomsRes.data);
@@ -251,6 +251,7 @@ const MobileBookingScreen = () => {
         amount: parseFloat(paymentData.amount) || 0,
         paymentMethod: paymentData.mode, // This should match PaymentMode enum values
         paymentScreenshotUrl: paymentData.paymentScreenshotUrl || '',
+        paymentScreenshotThumbnailUrl: paymentData.paymentScreenshotThumbnailUrl || '',
         paymentDate: toLocalDateTimeString(paymentDate) // Send as local datetime string, backend will parse it
       };
 
@@ -279,7 +280,8 @@ const MobileBookingScreen = () => {
       amount: payment.amount,
       mode: payment.mode,
       createdAt: new Date(payment.createdAt),
-      paymentScreenshotUrl: payment.paymentScreenshotUrl || ''
+      paymentScreenshotUrl: payment.paymentScreenshotUrl || '',
+      paymentScreenshotThumbnailUrl: payment.paymentScreenshotThumbnailUrl || ''
     });
     setIsEditingPayment(true);
     setEditingPaymentId(payment.id);
@@ -323,7 +325,8 @@ const MobileBookingScreen = () => {
       if (response.data.success) {
         setPaymentData(prev => ({
           ...prev,
-          paymentScreenshotUrl: response.data.fileUrl
+          paymentScreenshotUrl: response.data.fileUrl,
+          paymentScreenshotThumbnailUrl: response.data.thumbnailUrl || ''
         }));
         alert('✅ Payment screenshot uploaded successfully!');
       } else {
@@ -799,7 +802,7 @@ const MobileBookingScreen = () => {
                 {paymentData.paymentScreenshotUrl && (
                   <div style={{ marginTop: '10px' }}>
                     <img 
-                      src={paymentData.paymentScreenshotUrl} 
+                      src={paymentData.paymentScreenshotThumbnailUrl || paymentData.paymentScreenshotUrl} 
                       alt="Payment Screenshot" 
                       style={{ 
                         maxWidth: '200px', 
@@ -830,7 +833,7 @@ const MobileBookingScreen = () => {
                       </button>
                       <button 
                         type="button"
-                        onClick={() => setPaymentData({...paymentData, paymentScreenshotUrl: ''})}
+                        onClick={() => setPaymentData({...paymentData, paymentScreenshotUrl: '', paymentScreenshotThumbnailUrl: ''})}
                         style={{ 
                           padding: '4px 8px', 
                           fontSize: '12px', 
@@ -1,5 +1,5 @@
 import React, { useState, useEffect, useCallback } from 'react';
-import api from '../config/api';
+import api, { getAllPages } from '../config/api';
 import { toLocalDateTimeString } from '../utils/dateUtils';
 import './PublicRoomView.css';
 
@@ -110,7 +110,7 @@ const PublicRoomView = ({ onShowAuth, customer, onBookingRequestSubmitted }) =>
     try {
       const [roomsRes, roomConfigsRes] = await Promise.all([
         api.get('/rooms'),
-        api.get('/room-configurations')
+        getAllPages('/room-configurations')
       ]);
       setRooms(roomsRes.data || []);
       setRoomConfigurations(roomConfigsRes.data || []);
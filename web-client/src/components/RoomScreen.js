@@ -2,9 +2,13 @@ import React, { useState, useEffect } from 'react';
 import api from '../config/api';
 import './RoomScreen.css';
 
+const ROOMS_PER_PAGE = 12;
+
 const RoomScreen = () => {
   const [rooms, setRooms] = useState([]);
-  const [roomConfigurations, setRoomConfigurations] = useState([]);
+  const [visibleCount, setVisibleCount] = useState(ROOMS_PER_PAGE);
+  // Configurations of the rooms on screen, by room id
+  const [configsByRoom, setConfigsByRoom] = useState({});
   const [loading, setLoading] = useState(true);
   const [showRoomModal, setShowRoomModal] = useState(false);
   const [showConfigModal, setShowConfigModal] = useState(false);
@@ -30,23 +34,42 @@ const RoomScreen = () => {
 
   const fetchData = async () => {
     try {
-      const [roomsRes, configsRes] = await Promise.all([
-        api.get('/rooms'),
-        api.get('/room-configurations')
-      ]);
-      setRooms(Array.isArray(roomsRes.data) ? roomsRes.data : []);
-      setRoomConfigurations(Array.isArray(configsRes.data) ? configsRes.data : []);
+      const roomsRes = await api.get('/rooms');
+      const allRooms = Array.isArray(roomsRes.data) ? roomsRes.data : [];
+      setRooms(allRooms);
+      setConfigsByRoom(await loadConfigurations(allRooms.slice(0, visibleCount)));
     } catch (error) {
       console.error('Error fetching data:', error);
       setRooms([]);
-      setRoomConfigurations([]);
+      setConfigsByRoom({});
     } finally {
       setLoading(false);
     }
   };
 
+  // Configurations are fetched per room for the rooms on screen, never the whole table
+  const loadConfigurations = async (roomsToLoad) => {
+    const entries = await Promise.all(roomsToLoad.map(async (room) => {
+      try {
+        const response = await api.get(`/room-configurations/room/${room.id}`);
+        return [room.id, Array.isArray(response.data) ? response.data : []];
+      } catch (error) {
+        console.error(`Error fetching configurations for room ${room.id}:`, error);
+        return [room.id, []];
+      }
+    }));
+    return Object.fromEntries(entries);
+  };
+
+  const showMoreRooms = async () => {
+    const nextCount = visibleCount + ROOMS_PER_PAGE;
+    const loaded = await loadConfigurations(rooms.slice(visibleCount, nextCount));
+    setConfigsByRoom(prev => ({ ...prev, ...loaded }));
+    setVisibleCount(nextCount);
+  };
+
   const getRoomConfigurations = (roomId) => {
-    return roomConfigurations.filter(config => config.roomId === roomId);
+    return configsByRoom[roomId] || [];
   };
 
 
@@ -209,7 +232,7 @@ const RoomScreen = () => {
             </div>
           ) : (
             <div className="rooms-grid">
-              {(rooms || []).map(room => {
+              {(rooms || []).slice(0, visibleCount).map(room => {
                 const configs = getRoomConfigurations(room.id);
                 return (
                   <div key={room.id} className="room-card">
@@ -289,6 +312,13 @@ const RoomScreen = () => {
               })}
             </div>
           )}
+          {rooms.length > visibleCount && (
+            <div style={{ textAlign: 'center', marginTop: '15px' }}>
+              <button className="btn btn-secondary" onClick={showMoreRooms}>
+                Show more rooms ({rooms.length - visibleCount} more)
+              </button>
+            </div>
+          )}
         </div>
       </div>
 
@@ -30,162 +30,20 @@ const StatsScreen = () => {
 
   const fetchAdditionalStats = async () => {
     try {
-      // Fetch bookings, payments, and expenses for comprehensive stats
-      const [bookingsRes, paymentsRes, expensesRes, customersRes] = await Promise.all([
-        api.get('/bookings'),
-        api.get('/payments'),
-        api.get('/expenses'),
-        api.get('/customer')
-      ]);
-
-      const bookings = bookingsRes.data || [];
-      const payments = paymentsRes.data || [];
-      const expenses = expensesRes.data || [];
-      const customers = customersRes.data || [];
-
-      // Calculate comprehensive statistics
-      const stats = calculateComprehensiveStats(bookings, payments, expenses, customers);
-      setAdditionalStats(stats);
+      // Totals are aggregated on the server; the screen never downloads the underlying tables
+      const today = new Date().toISOString().split('T')[0];
+      const response = await api.get(`/dashboard/stats?date=${today}`);
+      const stats = response.data;
+      setAdditionalStats({
+        ...stats,
+        netProfitToday: stats.todayRevenue - stats.todayExpensesTotal,
+        netProfitThisMonth: stats.thisMonthRevenue - stats.thisMonthExpensesTotal
+      });
     } catch (error) {
       console.error('Error fetching additional stats:', error);
     }
   };
 
-  const calculateComprehensiveStats = (bookings, payments, expenses, customers) => {
-    const now = new Date();
-    const today = new Date(now.getFullYear(), now.getMonth(), now.getDate());
-    const thisMonth = new Date(now.getFullYear(), now.getMonth(), 1);
-    const lastMonth = new Date(now.getFullYear(), now.getMonth() - 1, 1);
-    const thisMonthEnd = new Date(now.getFullYear(), now.getMonth() + 1, 0);
-
-    // Filter data by date ranges
-    const todayBookings = bookings.filter(b => {
-      const bookingDate = new Date(b.createdAt);
-      return bookingDate >= today;
-    });
-
-    const thisMonthBookings = bookings.filter(b => {
-      const bookingDate = new Date(b.createdAt);
-      return bookingDate >= thisMonth && bookingDate <= thisMonthEnd;
-    });
-
-    const todayPayments = payments.filter(p => {
-      const paymentDate = new Date(p.paymentDate || p.createdAt);
-      return paymentDate >= today;
-    });
-
-    const thisMonthPayments = payments.filter(p => {
-      const paymentDate = new Date(p.paymentDate || p.createdAt);
-      return paymentDate >= thisMonth && paymentDate <= thisMonthEnd;
-    });
-
-    const todayExpenses = expenses.filter(e => {
-      const expenseDate = new Date(e.expenseDate);
-      return expenseDate >= today;
-    });
-
-    const thisMonthExpenses = expenses.filter(e => {
-      const expenseDate = new Date(e.expenseDate);
-      return expenseDate >= thisMonth && expenseDate <= thisMonthEnd;
-    });
-
-    // Calculate financial metrics
-    const todayRevenue = todayPayments.reduce((sum, p) => sum + (parseFloat(p.amount) || 0), 0);
-    const thisMonthRevenue = thisMonthPayments.reduce((sum, p) => sum + (parseFloat(p.amount) || 0), 0);
-    const todayExpensesTotal = todayExpenses.reduce((sum, e) => sum + (parseFloat(e.amount) || 0), 0);
-    const thisMonthExpensesTotal = thisMonthExpenses.reduce((sum, e) => sum + (parseFloat(e.amount) || 0), 0);
-
-    // Calculate operational metrics
-    const totalBookings = bookings.length;
-    const confirmedBookings = bookings.filter(b => b.bookingStatus === 'CONFIRMED' || b.bookingStatus === 'CHECKEDIN').length;
-    const pendingBookings = bookings.filter(b => b.bookingStatus === 'PENDING').length;
-    const checkedOutBookings = bookings.filter(b => b.bookingStatus === 'CHECKEDOUT').length;
-
-    // Calculate average booking value
-    const totalBookingValue = bookings.reduce((sum, b) => sum + (parseFloat(b.totalAmount) || 0), 0);
-    const avgBookingValue = totalBookings > 0 ? totalBookingValue / totalBookings : 0;
-
-    // Calculate average stay duration
-    const bookingsWithDuration = bookings.filter(b => b.checkInDate && b.checkOutDate);
-    const totalStayDays = bookingsWithDuration.reduce((sum, b) => {
-      const checkIn = new Date(b.checkInDate);
-      const checkOut = new Date(b.checkOutDate);
-      const diffTime = Math.abs(checkOut - checkIn);
-      const diffDays = Math.ceil(diffTime / (1000 * 60 * 60 * 24));
-      return sum + diffDays;
-    }, 0);
-    const avgStayDuration = bookingsWithDuration.length > 0 ? totalStayDays / bookingsWithDuration.length : 0;
-
-    // Calculate payment collection rate
-    const totalPayments = payments.length;
-    const completedPayments = payments.filter(p => p.paymentStatus === 'COMPLETED').length;
-    const paymentCollectionRate = totalPayments > 0 ? (completedPayments / totalPayments) * 100 : 0;
-
-    // Calculate customer metrics
-    const totalCustomers = customers.length;
-    const customersWithBookings = [...new Set(bookings.map(b => b.customerPhoneNumber))].length;
-    const customerRetentionRate = totalCustomers > 0 ? (customersWithBookings / totalCustomers) * 100 : 0;
-
-    // Calculate room performance
-    const roomBookings = {};
-    bookings.forEach(b => {
-      if (b.roomId) {
-        roomBookings[b.roomId] = (roomBookings[b.roomId] || 0) + 1;
-      }
-    });
-    const topRoom = Object.entries(roomBookings).sort(([,a], [,b]) => b - a)[0];
-    const topRoomId = topRoom ? topRoom[0] : 'N/A';
-    const topRoomBookings = topRoom ? topRoom[1] : 0;
-
-    // Calculate payment method breakdown
-    const paymentMethods = {};
-    payments.forEach(p => {
-      const method = p.paymentMethod || 'UNKNOWN';
-      paymentMethods[method] = (paymentMethods[method] || 0) + 1;
-    });
-
-    // Calculate expense categories
-    const expenseCategories = {};
-    expenses.forEach(e => {
-      const category = e.category || 'OTHER';
-      expenseCategories[category] = (expenseCategories[category] || 0) + parseFloat(e.amount || 0);
-    });
-
-    return {
-      // Financial Metrics
-      todayRevenue,
-      thisMonthRevenue,
-      todayExpensesTotal,
-      thisMonthExpensesTotal,
-      netProfitToday: todayRevenue - todayExpensesTotal,
-      netProfitThisMonth: thisMonthRevenue - thisMonthExpensesTotal,
-      
-      // Operational Metrics
-      totalBookings,
-      confirmedBookings,
-      pendingBookings,
-      checkedOutBookings,
-      avgBookingValue,
-      avgStayDuration,
-      paymentCollectionRate,
-      
-      // Customer Metrics
-      totalCustomers,
-      customersWithBookings,
-      customerRetentionRate,
-      
-      // Performance Metrics
-      topRoomId,
-      topRoomBookings,
-      paymentMethods,
-      expenseCategories,
-      
-      // Conversion Rates
-      bookingConversionRate: totalBookings > 0 ? (confirmedBookings / totalBookings) * 100 : 0,
-      customerConversionRate: totalCustomers > 0 ? (customersWithBookings / totalCustomers) * 100 : 0
-    };
-  };
-
   const StatCard = ({ title, value, icon, color }) => (
     <div className="stat-card" style={{ borderLeft: `4px solid ${color}` }}>
       <div className="stat-icon">{icon}</div>
@@ -1,5 +1,5 @@
 import React, { useState, useEffect } from 'react';
-import api from '../config/api';
+import { getAllPages } from '../config/api';
 import './Dashboard.css';
 
 const TransactionsScreen = () => {
@@ -14,7 +14,7 @@ const TransactionsScreen = () => {
     setLoading(true);
     try {
       // Fetch payments data for transactions
-      const response = await api.get('/payments');
+      const response = await getAllPages('/payments');
       setTransactions(response.data);
     } catch (error) {
       console.error('Error fetching transactions data:', error);
@@ -52,4 +52,22 @@ api.interceptors.response.use(
   }
 );
 
+// List endpoints are keyset-paginated: one page plus the cursor for the next one (undefined on the last page)
+export const getPage = async (url, params = {}) => {
+  const response = await api.get(url, { params });
+  return { data: response.data, nextCursor: response.headers['x-next-cursor'] };
+};
+
+// List endpoints are keyset-paginated: follow X-Next-Cursor until the last page
+export const getAllPages = async (url, params = {}) => {
+  const items = [];
+  let after;
+  do {
+    const response = await api.get(url, { params: { ...params, limit: 500, after } });
+    items.push(...response.data);
+    after = response.headers['x-next-cursor'];
+  } while (after);
+  return { data: items };
+};
+
 export default api;